@@ -0,0 +1,112 @@
+package net.kilink.jackson.jmh;
+
+import net.kilink.jackson.jmh.model.CollectionHeavy;
+import net.kilink.jackson.jmh.model.Deep;
+import net.kilink.jackson.jmh.model.EnumHeavy;
+import net.kilink.jackson.jmh.model.Flat;
+import net.kilink.jackson.jmh.model.Wide;
+
+import java.lang.reflect.RecordComponent;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Representative values of the benchmarked shapes.
+ */
+final class Fixtures {
+
+    private Fixtures() {}
+
+    static Object create(String shape) {
+        return switch (shape) {
+            case "flat" -> flat(1);
+            case "deep" -> deep(8);
+            case "collections" -> collections();
+            case "enums" -> enums();
+            case "wide" -> wide();
+            default -> throw new IllegalArgumentException("Unknown shape: " + shape);
+        };
+    }
+
+    private static Flat flat(int i) {
+        Flat flat = new Flat();
+        flat.setName("Name " + i);
+        flat.setEmail("user" + i + "@example.com");
+        flat.setCount(i * 17);
+        flat.setId(1_000_000_000L + i);
+        flat.setScore(i * 0.25);
+        flat.setActive(i % 2 == 0);
+        return flat;
+    }
+
+    private static Deep deep(int levels) {
+        Deep deep = null;
+        for (int level = levels; level > 0; level--) {
+            deep = new Deep("level-" + level, level, flat(level), deep);
+        }
+        return deep;
+    }
+
+    private static CollectionHeavy collections() {
+        List<String> tags = new ArrayList<>();
+        List<Integer> values = new ArrayList<>();
+        int[] samples = new int[64];
+        Map<String, Long> counters = new LinkedHashMap<>();
+        List<Flat> items = new ArrayList<>();
+        Map<String, List<String>> groups = new LinkedHashMap<>();
+        for (int i = 0; i < 32; i++) {
+            tags.add("tag-" + i);
+            values.add(i * 31);
+            counters.put("counter-" + i, i * 1_000L);
+            if (i < 8) {
+                items.add(flat(i));
+                groups.put("group-" + i, List.of("a" + i, "b" + i, "c" + i));
+            }
+        }
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] = i * i;
+        }
+        return new CollectionHeavy(tags, values, samples, counters, items, groups);
+    }
+
+    private static EnumHeavy enums() {
+        Map<EnumHeavy.Status, Integer> transitions = new LinkedHashMap<>();
+        for (EnumHeavy.Status status : EnumHeavy.Status.values()) {
+            transitions.put(status, status.ordinal() * 3);
+        }
+        return new EnumHeavy(EnumHeavy.Status.IN_PROGRESS, EnumHeavy.Priority.HIGH, EnumHeavy.Status.OPEN,
+                List.of(EnumHeavy.Priority.LOW, EnumHeavy.Priority.MEDIUM, EnumHeavy.Priority.HIGH,
+                        EnumHeavy.Priority.HIGHEST),
+                transitions);
+    }
+
+    /**
+     * Builds the 120 property record through its canonical constructor, deriving each value from its position.
+     */
+    private static Wide wide() {
+        RecordComponent[] components = Wide.class.getRecordComponents();
+        Class<?>[] types = new Class<?>[components.length];
+        Object[] values = new Object[components.length];
+        for (int i = 0; i < components.length; i++) {
+            types[i] = components[i].getType();
+            if (types[i] == int.class) {
+                values[i] = i;
+            } else if (types[i] == long.class) {
+                values[i] = i * 1_000_000_007L;
+            } else if (types[i] == double.class) {
+                values[i] = i / 8.0;
+            } else if (types[i] == boolean.class) {
+                values[i] = i % 3 == 0;
+            } else {
+                values[i] = "value-" + i;
+            }
+        }
+        try {
+            return Wide.class.getDeclaredConstructor(types).newInstance(values);
+        } catch (ReflectiveOperationException exc) {
+            throw new IllegalStateException(exc);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package net.kilink.jackson.jmh;
+
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.deser.DefaultDeserializationContext;
+import com.fasterxml.jackson.module.afterburner.AfterburnerModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import net.kilink.jackson.jmh.model.GeneratedModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization / deserialization throughput of the generated classes against Jackson's reflection-based bean
+ * (de)serializers, plain and with the Afterburner and Blackbird modules, for each benchmarked shape, to and from both
+ * {@code byte[]} and {@code String}. Run with {@code ./gradlew jmh}, which also reports allocations per operation
+ * ({@code gc.alloc.rate.norm}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class SerdeBenchmark {
+
+    @Param({"flat", "deep", "collections", "enums", "wide"})
+    public String shape;
+
+    @Param({"jackson", "afterburner", "blackbird", "generated"})
+    public String mapper;
+
+    private Object value;
+    private ObjectWriter writer;
+    private ObjectReader reader;
+    private byte[] bytes;
+    private String string;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = switch (mapper) {
+            case "jackson" -> new ObjectMapper();
+            case "afterburner" -> new ObjectMapper().registerModule(new AfterburnerModule());
+            case "blackbird" -> new ObjectMapper().registerModule(new BlackbirdModule());
+            case "generated" -> new ObjectMapper().registerModule(new GeneratedModule());
+            default -> throw new IllegalArgumentException("Unknown mapper: " + mapper);
+        };
+        value = Fixtures.create(shape);
+        writer = objectMapper.writerFor(value.getClass());
+        reader = objectMapper.readerFor(value.getClass());
+        bytes = writer.writeValueAsBytes(value);
+        string = writer.writeValueAsString(value);
+
+        // Make sure the configurations compared actually produce and read back the same JSON, and that the generated
+        // classes are the ones benchmarked
+        ObjectMapper plain = new ObjectMapper();
+        byte[] expected = plain.writeValueAsBytes(value);
+        if (!Arrays.equals(bytes, expected)) {
+            throw new IllegalStateException(mapper + " writes " + string + " instead of " + new String(expected));
+        }
+        // The models have no equals(), so the values read are compared by what plain Jackson writes for them
+        String read = plain.writeValueAsString(reader.readValue(bytes));
+        String expectedRead = plain.writeValueAsString(plain.readerFor(value.getClass()).readValue(bytes));
+        if (!read.equals(expectedRead)) {
+            throw new IllegalStateException(mapper + " reads " + read + " instead of " + expectedRead);
+        }
+        if (mapper.equals("generated")) {
+            JsonSerializer<Object> serializer = objectMapper.getSerializerProviderInstance()
+                    .findValueSerializer(value.getClass());
+            if (!serializer.getClass().getName().startsWith(value.getClass().getName())) {
+                throw new IllegalStateException("Not using the generated serializer: " + serializer.getClass());
+            }
+            // The deserializer is resolved as readerFor's is, including createContextual, which hands over to
+            // Jackson's own when the mapper's configuration is not supported
+            JsonDeserializer<Object> deserializer = ((DefaultDeserializationContext) objectMapper.getDeserializationContext())
+                    .createDummyInstance(objectMapper.getDeserializationConfig())
+                    .findRootValueDeserializer(objectMapper.constructType(value.getClass()));
+            if (!deserializer.getClass().getName().startsWith(value.getClass().getName())) {
+                throw new IllegalStateException("Not using the generated deserializer: " + deserializer.getClass());
+            }
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeToBytes() throws IOException {
+        return writer.writeValueAsBytes(value);
+    }
+
+    @Benchmark
+    public String serializeToString() throws IOException {
+        return writer.writeValueAsString(value);
+    }
+
+    @Benchmark
+    public Object deserializeFromBytes() throws IOException {
+        return reader.readValue(bytes);
+    }
+
+    @Benchmark
+    public Object deserializeFromString() throws IOException {
+        return reader.readValue(string);
+    }
+}
@@ -0,0 +1,10 @@
+package net.kilink.jackson.jmh.model;
+
+import net.kilink.jackson.AutoSerde;
+
+import java.util.List;
+import java.util.Map;
+
+@AutoSerde
+public record CollectionHeavy(List<String> tags, List<Integer> values, int[] samples, Map<String, Long> counters,
+                              List<Flat> items, Map<String, List<String>> groups) {}
@@ -0,0 +1,6 @@
+package net.kilink.jackson.jmh.model;
+
+import net.kilink.jackson.AutoSerde;
+
+@AutoSerde
+public record Deep(String name, int level, Flat payload, Deep child) {}
@@ -0,0 +1,16 @@
+package net.kilink.jackson.jmh.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import net.kilink.jackson.AutoSerde;
+
+import java.util.List;
+import java.util.Map;
+
+@AutoSerde
+public record EnumHeavy(Status status, Priority priority, Status previousStatus, List<Priority> escalations,
+                        Map<Status, Integer> transitions) {
+
+    public enum Status { OPEN, @JsonProperty("in-progress") IN_PROGRESS, BLOCKED, RESOLVED, CLOSED }
+
+    public enum Priority { LOWEST, LOW, MEDIUM, HIGH, HIGHEST }
+}
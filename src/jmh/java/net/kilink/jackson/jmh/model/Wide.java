@@ -0,0 +1,24 @@
+package net.kilink.jackson.jmh.model;
+
+import net.kilink.jackson.AutoSerde;
+
+/**
+ * A type with 120 properties, cycling through {@code int}, {@code long}, {@code String}, {@code double} and
+ * {@code boolean}.
+ */
+@AutoSerde
+public record Wide(int i0, long l1, String s2, double d3, boolean b4, int i5, long l6, String s7, double d8,
+                   boolean b9, int i10, long l11, String s12, double d13, boolean b14, int i15, long l16, String s17,
+                   double d18, boolean b19, int i20, long l21, String s22, double d23, boolean b24, int i25,
+                   long l26, String s27, double d28, boolean b29, int i30, long l31, String s32, double d33,
+                   boolean b34, int i35, long l36, String s37, double d38, boolean b39, int i40, long l41,
+                   String s42, double d43, boolean b44, int i45, long l46, String s47, double d48, boolean b49,
+                   int i50, long l51, String s52, double d53, boolean b54, int i55, long l56, String s57, double d58,
+                   boolean b59, int i60, long l61, String s62, double d63, boolean b64, int i65, long l66,
+                   String s67, double d68, boolean b69, int i70, long l71, String s72, double d73, boolean b74,
+                   int i75, long l76, String s77, double d78, boolean b79, int i80, long l81, String s82, double d83,
+                   boolean b84, int i85, long l86, String s87, double d88, boolean b89, int i90, long l91,
+                   String s92, double d93, boolean b94, int i95, long l96, String s97, double d98, boolean b99,
+                   int i100, long l101, String s102, double d103, boolean b104, int i105, long l106, String s107,
+                   double d108, boolean b109, int i110, long l111, String s112, double d113, boolean b114, int i115,
+                   long l116, String s117, double d118, boolean b119) {}
@@ -1,21 +1,35 @@
 package net.kilink.jackson;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.PropertyNamingStrategy;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
 import com.google.auto.service.AutoService;
 import com.squareup.javapoet.ClassName;
 import com.squareup.javapoet.JavaFile;
+import org.jspecify.annotations.Nullable;
 
 import javax.annotation.processing.AbstractProcessor;
 import javax.annotation.processing.Messager;
+import javax.annotation.processing.ProcessingEnvironment;
 import javax.annotation.processing.Processor;
 import javax.annotation.processing.RoundEnvironment;
 import javax.lang.model.SourceVersion;
 import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
 import javax.lang.model.element.TypeElement;
 import javax.tools.Diagnostic;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
 
 @AutoService(Processor.class)
@@ -24,24 +38,169 @@ public final class AnnotationProcessor extends AbstractProcessor {
     private static final String DEFAULT_PACKAGE_NAME = "net.kilink.jackson";
     private static final String DEFAULT_MODULE_NAME = "GeneratedModule";
 
+    /**
+     * Processor options ({@code -Aautoserde.<option>=<value>}) setting the mapper configuration the generated code is
+     * specialized for, in place of Jackson's defaults; generated classes fall back to Jackson's own serializers /
+     * deserializers when used with a mapper configured differently.
+     */
+    static final String DEFAULT_INCLUSION_OPTION = "autoserde.defaultInclusion";
+    static final String NAMING_STRATEGY_OPTION = "autoserde.namingStrategy";
+    static final String ENUMS_OPTION = "autoserde.enums";
+    static final String FAIL_ON_UNKNOWN_PROPERTIES_OPTION = "autoserde.failOnUnknownProperties";
+    static final String PROPAGATE_TRANSIENT_MARKER_OPTION = "autoserde.propagateTransientMarker";
+
+    /**
+     * Processor option naming the generated module, either fully qualified or as a simple name placed in the package
+     * shared by all annotated types; it defaults to {@code GeneratedModule} in that package.
+     */
+    static final String MODULE_NAME_OPTION = "autoserde.moduleName";
+
+    /**
+     * Processor option to not generate a module, e.g. when registering the generated classes by hand. Without a module,
+     * each generated file depends only on the type it was generated from, so the processor is declared isolating to
+     * Gradle instead of aggregating.
+     */
+    static final String GENERATE_MODULE_OPTION = "autoserde.generateModule";
+
+    /**
+     * Processor option to have the generated classes report the number, size and duration of the values they read and
+     * write to {@link SerdeMetricsListener}s added to the module. Reporting can still be turned off at runtime, through
+     * the {@code autoserde.metrics} system property read once by {@link SerdeMetrics}, at no cost.
+     */
+    static final String METRICS_OPTION = "autoserde.metrics";
+
+    private static final String GRADLE_ISOLATING_OPTION = "org.gradle.annotation.processing.isolating";
+    private static final String GRADLE_AGGREGATING_OPTION = "org.gradle.annotation.processing.aggregating";
+
+    private JsonMapper profile;
+    private boolean generateModule = true;
+    private boolean metrics;
+
+    /**
+     * Generated classes not yet registered in a module, accumulated across rounds so that the module is written once
+     * every annotated type has been seen.
+     */
+    private final Map<ClassName, ClassName> pendingSerializers = new LinkedHashMap<>();
+    private final List<DeserializerInfo> pendingDeserializers = new ArrayList<>();
+    private final List<TypeElement> pendingTypes = new ArrayList<>();
+    private final Set<ClassName> writtenModules = new HashSet<>();
+
     @Override
-    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
-        List<ClassName> generatedSerializers = new ArrayList<>();
-        List<DeserializerInfo> generatedDeserializers = new ArrayList<>();
+    public synchronized void init(ProcessingEnvironment processingEnv) {
+        super.init(processingEnv);
+        this.profile = buildProfile(processingEnv.getOptions());
+        Boolean generateModule = booleanOption(processingEnv.getOptions(), GENERATE_MODULE_OPTION);
+        if (generateModule != null) {
+            this.generateModule = generateModule;
+        }
+        this.metrics = Boolean.TRUE.equals(booleanOption(processingEnv.getOptions(), METRICS_OPTION));
+    }
 
+    /**
+     * Builds the mapper whose configuration the generators specialize for, from the processor options; invalid
+     * values are reported as errors and otherwise ignored.
+     */
+    private JsonMapper buildProfile(Map<String, String> options) {
+        JsonMapper.Builder builder = JsonMapper.builder();
+        String inclusion = options.get(DEFAULT_INCLUSION_OPTION);
+        if (inclusion != null) {
+            switch (inclusion) {
+                case "ALWAYS" -> builder.serializationInclusion(JsonInclude.Include.ALWAYS);
+                case "NON_NULL" -> builder.serializationInclusion(JsonInclude.Include.NON_NULL);
+                case "NON_ABSENT" -> builder.serializationInclusion(JsonInclude.Include.NON_ABSENT);
+                default -> invalidOption(DEFAULT_INCLUSION_OPTION, inclusion, "ALWAYS, NON_NULL, NON_ABSENT");
+            }
+        }
+        String namingStrategy = options.get(NAMING_STRATEGY_OPTION);
+        if (namingStrategy != null) {
+            try {
+                builder.propertyNamingStrategy((PropertyNamingStrategy) PropertyNamingStrategies.class
+                        .getField(namingStrategy.toUpperCase(Locale.ROOT))
+                        .get(null));
+            } catch (ReflectiveOperationException | ClassCastException exc) {
+                invalidOption(NAMING_STRATEGY_OPTION, namingStrategy,
+                        "a constant of PropertyNamingStrategies, e.g. SNAKE_CASE");
+            }
+        }
+        String enums = options.get(ENUMS_OPTION);
+        if (enums != null) {
+            switch (enums) {
+                case "name" -> {}
+                case "toString" -> builder.enable(SerializationFeature.WRITE_ENUMS_USING_TO_STRING)
+                        .enable(DeserializationFeature.READ_ENUMS_USING_TO_STRING);
+                case "index" -> builder.enable(SerializationFeature.WRITE_ENUMS_USING_INDEX);
+                default -> invalidOption(ENUMS_OPTION, enums, "name, toString, index");
+            }
+        }
+        Boolean failOnUnknown = booleanOption(options, FAIL_ON_UNKNOWN_PROPERTIES_OPTION);
+        if (failOnUnknown != null) {
+            builder.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, failOnUnknown);
+        }
+        Boolean propagateTransientMarker = booleanOption(options, PROPAGATE_TRANSIENT_MARKER_OPTION);
+        if (propagateTransientMarker != null) {
+            builder.configure(MapperFeature.PROPAGATE_TRANSIENT_MARKER, propagateTransientMarker);
+        }
+        return builder.build();
+    }
+
+    @Nullable
+    private Boolean booleanOption(Map<String, String> options, String option) {
+        String value = options.get(option);
+        if (value == null) {
+            return null;
+        }
+        if (!value.equals("true") && !value.equals("false")) {
+            invalidOption(option, value, "true, false");
+            return null;
+        }
+        return Boolean.valueOf(value);
+    }
+
+    private void invalidOption(String option, String value, String expected) {
+        messager().printMessage(Diagnostic.Kind.ERROR,
+                "Invalid value '" + value + "' for option " + option + ", expected " + expected);
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        ModelCache cache = new ModelCache(processingEnv);
+        boolean foundAnnotatedTypes = false;
         for (Element element : roundEnv.getElementsAnnotatedWith(AutoSerde.class)) {
-            if (!element.getKind().isClass()) {
+            if (!element.getKind().isClass() && element.getKind() != ElementKind.INTERFACE) {
                 continue;
             }
+            foundAnnotatedTypes = true;
             TypeElement typeElement = (TypeElement) element;
             AutoSerde anno = typeElement.getAnnotation(AutoSerde.class);
+            if (Utils.isArrayShaped(typeElement) && cache.polymorphicType(typeElement) != null) {
+                messager().printMessage(Diagnostic.Kind.ERROR,
+                        "@JsonFormat(shape = ARRAY) is not supported on polymorphic types", element);
+                continue;
+            }
+            boolean deserializes = anno.value() == AutoSerde.AutoGenerate.DESERIALIZER
+                    || anno.value() == AutoSerde.AutoGenerate.BOTH;
+            DeserializerGenerator deserializerGenerator = null;
+            if (deserializes) {
+                deserializerGenerator = new DeserializerGenerator(
+                        typeElement, processingEnv, cache, profile.getDeserializationConfig(), metrics);
+                String unsupportedReason = deserializerGenerator.getUnsupportedReason();
+                if (unsupportedReason != null) {
+                    messager().printMessage(Diagnostic.Kind.ERROR, unsupportedReason, element);
+                    continue;
+                }
+            }
+            pendingTypes.add(typeElement);
 
             if (anno.value() == AutoSerde.AutoGenerate.SERIALIZER || anno.value() == AutoSerde.AutoGenerate.BOTH) {
-                SerializerGenerator generator = new SerializerGenerator(typeElement, processingEnv);
+                SerializerGenerator generator = new SerializerGenerator(
+                        typeElement, processingEnv, cache, profile.getSerializationConfig(), metrics);
                 JavaFile sourceFile = generator.generate();
                 try {
                     sourceFile.writeTo(processingEnv.getFiler());
-                    generatedSerializers.add(ClassName.get(sourceFile.packageName, sourceFile.typeSpec.name));
+                    if (!generator.isDispatching()) {
+                        pendingSerializers.put(ClassName.get(typeElement),
+                                ClassName.get(sourceFile.packageName, sourceFile.typeSpec.name));
+                    }
                 } catch (IOException exc) {
                     messager().printMessage(
                             Diagnostic.Kind.ERROR,
@@ -50,14 +209,24 @@ public final class AnnotationProcessor extends AbstractProcessor {
                 }
             }
 
-            if (anno.value() == AutoSerde.AutoGenerate.DESERIALIZER || anno.value() == AutoSerde.AutoGenerate.BOTH) {
-                DeserializerGenerator generator = new DeserializerGenerator(typeElement, processingEnv);
-                JavaFile sourceFile = generator.generate();
+            if (deserializes) {
+                // Properties are expected, and array elements read, in the order the serializer writes them, whether
+                // or not it is generated
+                deserializerGenerator.withElementOrder(new SerializerGenerator(
+                        typeElement, processingEnv, cache, profile.getSerializationConfig(), false)
+                        .getPropertyNames());
+                if (anno.byteReader() && !deserializerGenerator.supportsByteReader()) {
+                    messager().printMessage(Diagnostic.Kind.ERROR, "@AutoSerde(byteReader = true) is only supported "
+                            + "on non-polymorphic types read from objects, with properties of boolean, integral "
+                            + "(other than char), double or String type", element);
+                }
+                JavaFile sourceFile = deserializerGenerator.generate();
                 try {
                     sourceFile.writeTo(processingEnv.getFiler());
-                    generatedDeserializers.add(new DeserializerInfo(
+                    pendingDeserializers.add(new DeserializerInfo(
                             ClassName.get(typeElement),
-                            ClassName.get(sourceFile.packageName, sourceFile.typeSpec.name)));
+                            ClassName.get(sourceFile.packageName, sourceFile.typeSpec.name),
+                            deserializerGenerator.isBuilderBased()));
                 } catch (IOException exc) {
                     messager().printMessage(
                             Diagnostic.Kind.ERROR,
@@ -67,16 +236,28 @@ public final class AnnotationProcessor extends AbstractProcessor {
             }
         }
 
-        if (generatedSerializers.isEmpty() && generatedDeserializers.isEmpty()) {
+        // Types annotated in a later round (e.g. generated by another processor) still make it into the module, which
+        // is written in the first round without new annotated types; @AutoService then registers it in the next one.
+        if (!generateModule || (foundAnnotatedTypes && !roundEnv.processingOver())
+                || (pendingSerializers.isEmpty() && pendingDeserializers.isEmpty())) {
             return false;
         }
 
         ModuleGenerator.Builder moduleGenerator = ModuleGenerator.builder()
-                .withModuleName(ClassName.get(DEFAULT_PACKAGE_NAME, DEFAULT_MODULE_NAME))
-                .withSerializers(generatedSerializers);
-        for (DeserializerInfo info : generatedDeserializers) {
-            moduleGenerator.withDeserializer(info.className(), info.deserializer());
+                .withModuleName(moduleName())
+                .withSerializers(pendingSerializers)
+                .withOriginatingElements(pendingTypes)
+                .withMetrics(metrics);
+        for (DeserializerInfo info : pendingDeserializers) {
+            if (info.builderBased()) {
+                moduleGenerator.withBuilderDeserializer(info.className(), info.deserializer());
+            } else {
+                moduleGenerator.withDeserializer(info.className(), info.deserializer());
+            }
         }
+        pendingSerializers.clear();
+        pendingDeserializers.clear();
+        pendingTypes.clear();
         JavaFile sourceFile = moduleGenerator.build().generate();
         try {
             sourceFile.writeTo(processingEnv.getFiler());
@@ -88,6 +269,64 @@ public final class AnnotationProcessor extends AbstractProcessor {
         return false;
     }
 
+    /**
+     * Names the module for the pending generated classes, from the {@value #MODULE_NAME_OPTION} option or else after
+     * the package shared by their types, so that libraries processed separately do not generate the same module. A
+     * module written in an earlier round keeps its name and a numbered one is used instead.
+     */
+    private ClassName moduleName() {
+        String packageName = null;
+        String simpleName = DEFAULT_MODULE_NAME;
+        String option = processingEnv.getOptions().get(MODULE_NAME_OPTION);
+        if (option != null && SourceVersion.isName(option)) {
+            int lastDot = option.lastIndexOf('.');
+            if (lastDot >= 0) {
+                packageName = option.substring(0, lastDot);
+            }
+            simpleName = option.substring(lastDot + 1);
+        } else if (option != null) {
+            invalidOption(MODULE_NAME_OPTION, option, "a class name, optionally fully qualified");
+        }
+        if (packageName == null) {
+            packageName = commonPackageName();
+        }
+
+        ClassName moduleName = ClassName.get(packageName, simpleName);
+        for (int i = 2; writtenModules.contains(moduleName); i++) {
+            moduleName = ClassName.get(packageName, simpleName + i);
+        }
+        writtenModules.add(moduleName);
+        return moduleName;
+    }
+
+    private String commonPackageName() {
+        List<ClassName> types = new ArrayList<>(pendingSerializers.keySet());
+        for (DeserializerInfo info : pendingDeserializers) {
+            types.add(info.className());
+        }
+        String[] common = null;
+        int length = 0;
+        for (ClassName type : types) {
+            String[] segments = type.packageName().split("\\.");
+            if (common == null) {
+                common = segments;
+                length = segments.length;
+                continue;
+            }
+            length = Math.min(length, segments.length);
+            for (int i = 0; i < length; i++) {
+                if (!common[i].equals(segments[i])) {
+                    length = i;
+                    break;
+                }
+            }
+        }
+        if (common == null || length == 0 || common[0].isEmpty()) {
+            return DEFAULT_PACKAGE_NAME;
+        }
+        return String.join(".", Arrays.asList(common).subList(0, length));
+    }
+
     private Messager messager() {
         return processingEnv.getMessager();
     }
@@ -99,10 +338,20 @@ public final class AnnotationProcessor extends AbstractProcessor {
         return annotations;
     }
 
+    @Override
+    public Set<String> getSupportedOptions() {
+        // Declared "dynamic" in META-INF/gradle/incremental.annotation.processors, Gradle asks for the incremental
+        // processing category here: generated serializers / deserializers have their annotated type as the only
+        // originating element, whereas the module aggregates all of them.
+        return Set.of(DEFAULT_INCLUSION_OPTION, NAMING_STRATEGY_OPTION, ENUMS_OPTION,
+                FAIL_ON_UNKNOWN_PROPERTIES_OPTION, PROPAGATE_TRANSIENT_MARKER_OPTION, MODULE_NAME_OPTION,
+                GENERATE_MODULE_OPTION, METRICS_OPTION, generateModule ? GRADLE_AGGREGATING_OPTION : GRADLE_ISOLATING_OPTION);
+    }
+
     @Override
     public SourceVersion getSupportedSourceVersion() {
         return SourceVersion.latestSupported();
     }
 
-    private record DeserializerInfo(ClassName className, ClassName deserializer) {}
+    private record DeserializerInfo(ClassName className, ClassName deserializer, boolean builderBased) {}
 }
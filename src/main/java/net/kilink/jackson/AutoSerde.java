@@ -13,5 +13,12 @@ public @interface AutoSerde {
     String serializerName() default "";
     String deserializerName() default "";
 
+    /**
+     * Whether to also generate a {@link ByteReader} reading the type straight from bytes, through the deserializer's
+     * {@code byteReader} method. Only supported for flat types whose properties are booleans, integral numbers
+     * other than {@code char}, doubles or strings.
+     */
+    boolean byteReader() default false;
+
     enum AutoGenerate { SERIALIZER, DESERIALIZER, BOTH }
 }
@@ -0,0 +1,49 @@
+package net.kilink.jackson;
+
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.BeanDeserializerFactory;
+import com.fasterxml.jackson.databind.deser.ResolvableDeserializer;
+import com.fasterxml.jackson.databind.ser.BeanSerializerFactory;
+import com.fasterxml.jackson.databind.ser.ResolvableSerializer;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Creates Jackson's own reflection-based serializers / deserializers, for generated classes to hand over to when
+ * contextualized for a mapper whose configuration differs from the one they were generated for in a way that changes
+ * the set of properties or their names (e.g. a different naming strategy).
+ */
+public final class BeanFallbacks {
+
+    private BeanFallbacks() {}
+
+    public static JsonSerializer<?> serializer(SerializerProvider provider, Class<?> type,
+                                               @Nullable BeanProperty property) throws JsonMappingException {
+        JsonSerializer<?> serializer = BeanSerializerFactory.instance.createSerializer(
+                provider, provider.constructType(type));
+        if (serializer instanceof ResolvableSerializer resolvable) {
+            resolvable.resolve(provider);
+        }
+        return provider.handleSecondaryContextualization(serializer, property);
+    }
+
+    public static JsonDeserializer<?> deserializer(DeserializationContext ctxt, Class<?> type,
+                                                   @Nullable BeanProperty property) throws JsonMappingException {
+        JavaType javaType = ctxt.constructType(type);
+        BeanDescription description = ctxt.getConfig().introspect(javaType);
+        Class<?> builder = description.findPOJOBuilder();
+        JsonDeserializer<?> deserializer = (builder == null)
+                ? BeanDeserializerFactory.instance.createBeanDeserializer(ctxt, javaType, description)
+                : BeanDeserializerFactory.instance.createBuilderBasedDeserializer(ctxt, javaType, description, builder);
+        if (deserializer instanceof ResolvableDeserializer resolvable) {
+            resolvable.resolve(ctxt);
+        }
+        return ctxt.handleSecondaryContextualization(deserializer, property, javaType);
+    }
+}
@@ -0,0 +1,102 @@
+package net.kilink.jackson;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.StreamReadConstraints;
+import com.fasterxml.jackson.databind.DeserializationConfig;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.deser.ContextualDeserializer;
+import com.fasterxml.jackson.databind.deser.DefaultDeserializationContext;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Reads single values from UTF-8 encoded bytes, bypassing {@link JsonParser} for input in the form the generated
+ * serializer writes: a flat object whose property names are matched byte by byte against the pre-encoded names, and
+ * whose values are parsed in place. Anything else (unknown properties, escapes, numbers in other notations,
+ * {@code null} for primitives, malformed input...) is read again from the start through
+ * {@link ObjectMapper#readerFor(Class)}, which thus remains the reference for the results and errors of any input.
+ * So is any input of a mapper configured to read differently from the direct path (strict duplicate detection, root
+ * unwrapping, creator property checks, non-default stream read constraints, input decorators...). Subclasses are
+ * generated along with deserializers of types annotated with {@code @AutoSerde(byteReader = true)}, see their
+ * {@code byteReader} method.
+ *
+ * <p>Readers are thread-safe, and meant to be created once per mapper.
+ */
+public abstract class ByteReader<T> {
+
+    private final ObjectReader reader;
+    private final boolean direct;
+    private final long maxDirectLength;
+
+    @SuppressWarnings("unchecked")
+    protected ByteReader(ObjectMapper mapper, JsonDeserializer<T> deserializer) throws IOException {
+        this.reader = mapper.readerFor(deserializer.handledType());
+        // Resolved once, possibly to Jackson's own deserializer if the mapper's configuration does not match the
+        // generated one, in which case the input is never read directly
+        DeserializationConfig config = mapper.getDeserializationConfig();
+        JsonDeserializer<T> contextual = (deserializer instanceof ContextualDeserializer contextualDeserializer)
+                ? (JsonDeserializer<T>) contextualDeserializer.createContextual(
+                ((DefaultDeserializationContext) mapper.getDeserializationContext()).createDummyInstance(config), null)
+                : deserializer;
+        JsonFactory factory = mapper.getFactory();
+        StreamReadConstraints constraints = factory.streamReadConstraints();
+        // The direct path reads plain JSON, lets the last of duplicate properties win, reads no root wrapper, leaves
+        // creator properties unchecked, and never reads numbers longer than the default limit or count tokens
+        this.direct = contextual == deserializer
+                && factory.getFormatName().equals(JsonFactory.FORMAT_NAME_JSON)
+                && factory.getInputDecorator() == null
+                && !config.isEnabled(JsonParser.Feature.STRICT_DUPLICATE_DETECTION, factory)
+                && !config.isEnabled(DeserializationFeature.UNWRAP_ROOT_VALUE)
+                && !config.isEnabled(DeserializationFeature.FAIL_ON_MISSING_CREATOR_PROPERTIES)
+                && !config.isEnabled(DeserializationFeature.FAIL_ON_NULL_CREATOR_PROPERTIES)
+                && constraints.getMaxNumberLength() >= StreamReadConstraints.DEFAULT_MAX_NUM_LEN
+                && !constraints.hasMaxTokenCount();
+        // Input no longer than the string and document limits cannot exceed them
+        this.maxDirectLength = constraints.hasMaxDocumentLength()
+                ? Math.min(constraints.getMaxStringLength(), constraints.getMaxDocumentLength())
+                : constraints.getMaxStringLength();
+    }
+
+    /**
+     * Reads an object, with the input positioned on its first non-whitespace byte. Throws the exception returned by
+     * {@link JsonBytes#unhandled()} on anything it does not handle, for the input to be read by the deserializer
+     * instead.
+     */
+    protected abstract T readObject(JsonBytes in);
+
+    public T read(byte[] bytes) throws IOException {
+        return read(bytes, 0, bytes.length);
+    }
+
+    public T read(byte[] bytes, int offset, int length) throws IOException {
+        if (direct && length <= maxDirectLength) {
+            JsonBytes in = new JsonBytes(bytes, offset, length);
+            try {
+                T value = readObject(in);
+                in.end();
+                return value;
+            } catch (JsonBytes.UnhandledInput exc) {
+                // Read again from the start below
+            }
+        }
+        return reader.readValue(bytes, offset, length);
+    }
+
+    /**
+     * Reads the remaining bytes of the buffer, without changing its position; buffers without an accessible array
+     * (e.g. direct buffers) are copied first.
+     */
+    public T read(ByteBuffer buffer) throws IOException {
+        if (buffer.hasArray()) {
+            return read(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+        }
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        return read(bytes, 0, bytes.length);
+    }
+}
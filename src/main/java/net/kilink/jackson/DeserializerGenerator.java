@@ -1,14 +1,38 @@
 package net.kilink.jackson;
 
+import com.fasterxml.jackson.annotation.JsonAlias;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonEnumDefaultValue;
+import com.fasterxml.jackson.annotation.JsonFormat;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.core.util.JsonParserSequence;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.BeanProperty;
 import com.fasterxml.jackson.databind.DeserializationConfig;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MapperFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategy;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonPOJOBuilder;
+import com.fasterxml.jackson.databind.deser.ContextualDeserializer;
 import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import com.fasterxml.jackson.databind.jsontype.TypeDeserializer;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import com.fasterxml.jackson.databind.util.ArrayBuilders;
+import com.fasterxml.jackson.databind.util.ObjectBuffer;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import com.squareup.javapoet.AnnotationSpec;
 import com.squareup.javapoet.ClassName;
 import com.squareup.javapoet.CodeBlock;
 import com.squareup.javapoet.FieldSpec;
@@ -17,45 +41,127 @@ import com.squareup.javapoet.MethodSpec;
 import com.squareup.javapoet.NameAllocator;
 import com.squareup.javapoet.ParameterSpec;
 import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
 import com.squareup.javapoet.TypeSpec;
+import com.squareup.javapoet.WildcardTypeName;
 import org.checkerframework.javacutil.TypesUtils;
+import org.jspecify.annotations.Nullable;
 
 import javax.annotation.processing.ProcessingEnvironment;
 import javax.lang.model.element.Element;
 import javax.lang.model.element.ElementKind;
 import javax.lang.model.element.ExecutableElement;
 import javax.lang.model.element.Modifier;
+import javax.lang.model.element.RecordComponentElement;
 import javax.lang.model.element.TypeElement;
 import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
 import javax.lang.model.type.TypeKind;
 import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.WildcardType;
 import javax.lang.model.util.Elements;
 import javax.lang.model.util.Types;
 import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Duration;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
 
+import static net.kilink.jackson.Utils.configMismatch;
+import static net.kilink.jackson.Utils.constantName;
+import static net.kilink.jackson.Utils.formatterOf;
+import static net.kilink.jackson.Utils.getClassValue;
+import static net.kilink.jackson.Utils.getExplicitPropertyName;
+import static net.kilink.jackson.Utils.getOptionalType;
+import static net.kilink.jackson.Utils.getTimeType;
+import static net.kilink.jackson.Utils.hasTimePattern;
+import static net.kilink.jackson.Utils.isArrayShaped;
+import static net.kilink.jackson.Utils.nameForGetter;
 import static net.kilink.jackson.Utils.nameForSetter;
+import static net.kilink.jackson.Utils.nameForWithMethod;
+import static net.kilink.jackson.Utils.reportingMetrics;
 
 public final class DeserializerGenerator {
 
     private final TypeElement typeElement;
     private final ClassName className;
     private final ProcessingEnvironment processingEnv;
+    private final ModelCache cache;
     private final DeserializationConfig deserializationConfig;
+    private final boolean metrics;
     private final ClassName deserializerClassName;
+    @Nullable
+    private final TypeElement builderElement;
+    @Nullable
+    private final PolymorphicType polymorphicType;
     private final NameAllocator names = new NameAllocator();
+    private final Map<String, String> serializedNames = new LinkedHashMap<>();
+    private final String instance = names.newName("INSTANCE");
+    private final String unknownProperty = names.newName("UNKNOWN_PROPERTY");
+    private final String ignoredProperty = names.newName("IGNORED_PROPERTY");
+    private final String caught = names.newName("exc");
+    private final Map<String, String> localNames = new LinkedHashMap<>();
+    private final Map<String, String> presenceFlags = new LinkedHashMap<>();
+    private final Map<String, String> readMethods = new LinkedHashMap<>();
+    private final List<MethodSpec> readMethodSpecs = new ArrayList<>();
+    private final Map<String, String> javaTypes = new LinkedHashMap<>();
+    private final List<FieldSpec> javaTypeFields = new ArrayList<>();
+    private final Map<String, String> formatters = new LinkedHashMap<>();
+    private final List<FieldSpec> formatterFields = new ArrayList<>();
+    @Nullable
+    private List<Property> properties;
+    private List<Property> creatorProperties = List.of();
+    @Nullable
+    private ExecutableElement creator;
+    private boolean creatorResolved;
+    @Nullable
+    private String creatorError;
+    @Nullable
+    private List<String> elementOrder;
 
-    public DeserializerGenerator(TypeElement typeElement, ProcessingEnvironment processingEnv) {
+    public DeserializerGenerator(TypeElement typeElement, ProcessingEnvironment processingEnv, ModelCache cache,
+                                 DeserializationConfig deserializationConfig, boolean metrics) {
         this.typeElement = typeElement;
         this.className = ClassName.get(typeElement);
         this.processingEnv = processingEnv;
-        this.deserializationConfig = new ObjectMapper().getDeserializationConfig();
-        this.deserializerClassName = getDeserializerName(typeElement);
+        this.cache = cache;
+        this.deserializationConfig = deserializationConfig;
+        this.metrics = metrics;
+        this.deserializerClassName = getDeserializerName(typeElement, elements());
+        this.builderElement = getClassValue(typeElement, JsonDeserialize.class, "builder", processingEnv);
+        this.polymorphicType = cache.polymorphicType(typeElement);
     }
 
-    private ClassName getDeserializerName(TypeElement element) {
+    /**
+     * Sets the order in which the serializer writes the properties, which they are expected in by the in-order
+     * matching of objects and the byte reader, and which the elements of array-shaped types are read in; by default,
+     * the declaration order of the deserializer's own properties.
+     */
+    public DeserializerGenerator withElementOrder(List<String> propertyNames) {
+        this.elementOrder = List.copyOf(propertyNames);
+        return this;
+    }
+
+    static ClassName getDeserializerName(TypeElement element, Elements elements) {
         AutoSerde anno = element.getAnnotation(AutoSerde.class);
         String deserializerName = "";
         String packageName = "";
@@ -65,7 +171,7 @@ public final class DeserializerGenerator {
             packageName = anno.packageName();
         }
         if (packageName.isEmpty()) {
-            packageName = elements().getPackageOf(element).getQualifiedName().toString();
+            packageName = elements.getPackageOf(element).getQualifiedName().toString();
         }
         if (deserializerName.isEmpty()) {
             deserializerName = element.getSimpleName() + "Deserializer";
@@ -73,84 +179,1184 @@ public final class DeserializerGenerator {
         return ClassName.get(packageName, deserializerName);
     }
 
+    /**
+     * Whether the type is deserialized through a builder ({@code @JsonDeserialize(builder = ...)}).
+     */
+    public boolean isBuilderBased() {
+        return builderElement != null;
+    }
+
+    /**
+     * Whether the type is abstract and polymorphic, so that the generated deserializer only reads the type id and
+     * dispatches to those of the subtypes.
+     */
+    public boolean isDispatching() {
+        return polymorphicType != null && isAbstract(typeElement);
+    }
+
+    /**
+     * Returns why the type cannot be instantiated by a generated deserializer (e.g. it only has a delegating creator,
+     * or its builder has no build method), or {@code null} if it can; types that cannot are not to be generated.
+     */
+    @Nullable
+    public String getUnsupportedReason() {
+        if (isDispatching()) {
+            return null;
+        }
+        if (builderElement != null) {
+            return (getBuildMethod() == null)
+                    ? "Builder " + builderElement + " has no method " + getBuilderConfig().buildMethodName + "() returning "
+                            + typeElement
+                    : null;
+        }
+        getCreator();
+        return creatorError;
+    }
+
     public JavaFile generate() {
         return JavaFile.builder(deserializerClassName.packageName(), buildClass()).build();
     }
 
-    private TypeSpec buildClass() {
-        TypeSpec.Builder classSpec = TypeSpec.classBuilder(deserializerClassName)
-                .addModifiers(Modifier.FINAL)
+    private TypeSpec.Builder classBuilder() {
+        names.newName("p");
+        names.newName("ctxt");
+
+        return TypeSpec.classBuilder(deserializerClassName)
+                .addOriginatingElement(typeElement)
+                .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
                 .superclass(ParameterizedTypeName.get(ClassName.get(StdDeserializer.class), className))
+                .addSuperinterface(ContextualDeserializer.class)
                 .addMethod(MethodSpec.constructorBuilder()
                         .addModifiers(Modifier.PUBLIC)
                         .addStatement("super($T.class)", className)
+                        .build())
+                .addMethod(buildCreateContextualMethod())
+                .addField(FieldSpec.builder(deserializerClassName, instance,
+                                Modifier.PUBLIC, Modifier.STATIC, Modifier.FINAL)
+                        .initializer("new $T()", deserializerClassName)
                         .build());
+    }
+
+    private TypeSpec buildClass() {
+        if (isDispatching()) {
+            return buildDispatchClass();
+        }
+        TypeSpec.Builder classSpec = classBuilder();
 
-        JsonIgnoreProperties.Value base = JsonIgnoreProperties.Value.forIgnoreUnknown(
-                deserializationConfig.isEnabled(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES));
-        JsonIgnoreProperties.Value ignoreProperties = JsonIgnoreProperties.Value.merge(base, getIgnoredProperties());
-        classSpec.addField(
-                FieldSpec.builder(boolean.class,
-                        "ignoreUnknown",
-                        Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
-                        .initializer("$L", ignoreProperties.getIgnoreUnknown()).build());
-
-        if (ignoreProperties.getIgnored().isEmpty()) {
-            classSpec.addField(FieldSpec.builder(
-                    ParameterizedTypeName.get(Set.class, String.class),
-                    "ignored",
-                    Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
-                    .initializer("$T.of()", Set.class).build());
+        // Types carrying a type id in front of their properties get a second entry point, through which dispatching
+        // deserializers hand over the parser once they have consumed the type id (or, if visible, its name)
+        boolean readsTypeId = polymorphicType != null && !polymorphicType.isTypeIdVisible();
+        boolean arrayShaped = isArrayShaped(typeElement);
+        MethodSpec deserializeMethod;
+        if (arrayShaped) {
+            deserializeMethod = buildArrayDeserializeMethod();
         } else {
-            CodeBlock properties = ignoreProperties.getIgnored().stream()
-                    .map(property -> CodeBlock.of("$S", property))
-                    .collect(CodeBlock.joining(", "));
-            classSpec.addField(FieldSpec.builder(
-                    ParameterizedTypeName.get(Set.class, String.class),
-                    "ignored",
-                    Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
-                    .initializer("$T.of($L)", Set.class, properties).build());
+            deserializeMethod = readsTypeId ? buildTypeIdMethod() : buildDeserializeMethod(false);
+        }
+        MethodSpec afterTypeIdMethod = (polymorphicType != null) ? buildDeserializeMethod(true) : null;
+
+        if (!arrayShaped) {
+            classSpec.addField(FieldSpec.builder(int.class, unknownProperty, Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                    .initializer("$L", -1)
+                    .build());
+            classSpec.addField(FieldSpec.builder(int.class, ignoredProperty, Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                    .initializer("$L", -2)
+                    .build());
+        }
+
+        for (Map.Entry<String, String> entry : serializedNames.entrySet()) {
+            classSpec.addField(FieldSpec.builder(SerializedString.class, entry.getValue(),
+                            Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                    .initializer("new $T($S)", SerializedString.class, entry.getKey())
+                    .build());
+        }
+
+        classSpec.addFields(javaTypeFields);
+        classSpec.addFields(formatterFields);
+
+        classSpec.addMethod(metrics ? withMetrics(deserializeMethod) : deserializeMethod);
+        if (afterTypeIdMethod != null) {
+            classSpec.addMethod(afterTypeIdMethod);
+        }
+        if (polymorphicType != null) {
+            classSpec.addMethod(buildDeserializeWithTypeMethod());
+        }
+        if (!arrayShaped) {
+            classSpec.addMethod(buildPropertyMatcher().generate("propertyIndex"));
+        }
+        classSpec.addMethods(readMethodSpecs);
+        addSequenceReaders(classSpec);
+        AutoSerde anno = typeElement.getAnnotation(AutoSerde.class);
+        if (anno != null && anno.byteReader() && supportsByteReader()) {
+            addByteReader(classSpec);
         }
-        classSpec.addMethod(buildDeserializeMethod());
         return classSpec.build();
     }
 
-    private MethodSpec buildDeserializeMethod() {
-        names.newName("p");
-        names.newName("ctxt");
+    /**
+     * Whether a {@link ByteReader} can be generated for the type: one read from an object (rather than polymorphic
+     * or array-shaped) whose properties all have a type {@link JsonBytes} parses.
+     */
+    public boolean supportsByteReader() {
+        if (isDispatching() || isArrayShaped(typeElement)) {
+            return false;
+        }
+        return getProperties().stream().allMatch(property -> bytesReader(property.type(), "in") != null);
+    }
+
+    /**
+     * Adds a factory for a {@link ByteReader} of the type, through a subclass matching the names of the properties
+     * against their UTF-8 encoding and parsing the values with {@link JsonBytes}; any property other than those
+     * (or the type id), like any value in another form, gets the input handed over to {@code deserialize}.
+     */
+    private void addByteReader(TypeSpec.Builder classSpec) {
+        TypeName readerType = ParameterizedTypeName.get(ClassName.get(ByteReader.class), className);
+        ClassName bytesName = deserializerClassName.nestedClass(names.newName("Bytes"));
+        classSpec.addMethod(MethodSpec.methodBuilder(names.newName("byteReader"))
+                .addJavadoc("Reads values from UTF-8 encoded bytes, parsing input as written by the serializer "
+                        + "directly.\n")
+                .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+                .returns(readerType)
+                .addParameter(ObjectMapper.class, "mapper")
+                .addException(IOException.class)
+                .addStatement("return new $T(mapper)", bytesName)
+                .build());
+
+        List<Property> properties = getProperties();
+        List<String> propertyNames = new ArrayList<>();
+        // A type id that does not double as a property comes first, as written by the serializer, and is skipped as
+        // by deserialize
+        boolean skipsTypeId = polymorphicType != null && properties.stream()
+                .noneMatch(property -> property.name().equals(polymorphicType.propertyName()));
+        if (skipsTypeId) {
+            propertyNames.add(polymorphicType.propertyName());
+        }
+        int first = propertyNames.size();
+        properties.forEach(property -> propertyNames.add(property.name()));
+        String namesField = names.newName("NAMES");
+        String in = names.newName("in");
+        String index = names.newName("index");
 
-        MethodSpec.Builder method = MethodSpec.methodBuilder("deserialize")
+        MethodSpec.Builder method = MethodSpec.methodBuilder("readObject")
+                .addAnnotation(Override.class)
+                .addModifiers(Modifier.PROTECTED)
+                .returns(className)
+                .addParameter(JsonBytes.class, in);
+        // Values are parsed into locals first, so that the type's own code (its constructor, setters or builder) only
+        // runs once the input has been read, and its failures can be told apart from those of the input
+        List<Property> creatorArguments = creatorArguments();
+        for (Property property : properties) {
+            method.addStatement("$T $L = $L", property.type(), localName(property), defaultValue(property.type()));
+            if (!creatorArguments.contains(property)) {
+                method.addStatement("boolean $L = false", presenceFlag(property));
+            }
+        }
+        method.beginControlFlow("if ($L.startObject())", in);
+        method.addStatement("int $L = -1", index);
+        method.beginControlFlow("do");
+        // Expecting the property following the last one read, as long as they come in the order they are written
+        method.addStatement("$L = $L.name($N, $L + 1)", index, in, namesField, index);
+        method.beginControlFlow("switch ($L)", index);
+        if (skipsTypeId) {
+            method.addCode("case 0:\n$>");
+            method.addStatement("$L.readString()", in);
+            method.addStatement("break$<");
+        }
+        for (int i = 0; i < properties.size(); i++) {
+            Property property = properties.get(i);
+            method.addCode("case $L:\n$>", first + i);
+            method.addStatement("$L = $L", localName(property), bytesReader(property.type(), in));
+            if (!creatorArguments.contains(property)) {
+                method.addStatement("$L = true", presenceFlag(property));
+            }
+            method.addStatement("break$<");
+        }
+        method.endControlFlow();
+        method.endControlFlow("while ($L.nextProperty())", in);
+        method.endControlFlow();
+        // Failures of the type's own code are left to the deserializer, to be reported in Jackson's terms
+        method.beginControlFlow("try");
+        String instanceName = (builderElement != null)
+                ? localNames.computeIfAbsent("<builder>", key -> names.newName("builder"))
+                : localNames.computeIfAbsent("<obj>", key -> names.newName("obj"));
+        if (builderElement != null || getCreator() == null) {
+            // Otherwise, the creator is invoked and the remaining properties set by returnInstance
+            TypeElement instanceType = (builderElement != null) ? builderElement : typeElement;
+            method.addStatement("$T $L = new $T()", instanceType, instanceName, instanceType);
+            for (Property property : properties) {
+                method.beginControlFlow("if ($L)", presenceFlag(property));
+                method.addCode(setProperty(property, instanceName, CodeBlock.of("$L", localName(property))));
+                method.endControlFlow();
+            }
+        }
+        returnInstance(method, instanceName);
+        method.nextControlFlow("catch ($T $N)", RuntimeException.class, caught);
+        method.addStatement("throw $L.unhandled()", in);
+        method.endControlFlow();
+
+        classSpec.addType(TypeSpec.classBuilder(bytesName)
+                .addModifiers(Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                .superclass(readerType)
+                .addField(FieldSpec.builder(byte[][].class, namesField, Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                        .initializer("$T.names($L)", JsonBytes.class, propertyNames.stream()
+                                .map(name -> CodeBlock.of("$S", name))
+                                .collect(CodeBlock.joining(", ")))
+                        .build())
+                .addMethod(MethodSpec.constructorBuilder()
+                        .addParameter(ObjectMapper.class, "mapper")
+                        .addException(IOException.class)
+                        .addStatement("super(mapper, $N)", instance)
+                        .build())
+                .addMethod(method.build())
+                .build());
+    }
+
+    /**
+     * Returns an expression reading a value of the given type from the {@link JsonBytes} named {@code in}, or
+     * {@code null} if it has a type {@link JsonBytes} does not parse.
+     */
+    @Nullable
+    private CodeBlock bytesReader(TypeMirror type, String in) {
+        if (TypesUtils.isString(type)) {
+            return CodeBlock.of("$L.readString()", in);
+        }
+        if (!TypesUtils.isPrimitive(type) && !TypesUtils.isBoxedPrimitive(type)) {
+            return null;
+        }
+        TypeKind kind = TypesUtils.isBoxedPrimitive(type) ? types().unboxedType(type).getKind() : type.getKind();
+        CodeBlock reader = switch (kind) {
+            case BOOLEAN -> CodeBlock.of("$L.readBoolean()", in);
+            case BYTE -> CodeBlock.of("$L.readByte()", in);
+            case SHORT -> CodeBlock.of("$L.readShort()", in);
+            case INT -> CodeBlock.of("$L.readInt()", in);
+            case LONG -> CodeBlock.of("$L.readLong()", in);
+            case DOUBLE -> CodeBlock.of("$L.readDouble()", in);
+            default -> null;
+        };
+        if (reader == null || TypesUtils.isPrimitive(type)) {
+            return reader;
+        }
+        return CodeBlock.of("($L.readNull() ? null : $L)", in, reader);
+    }
+
+    /**
+     * Adds factories for {@link SequenceReader}s of the type, reading a top-level array or a sequence of root-level
+     * values, through a subclass whose call to {@code deserialize} is specific to this type.
+     */
+    private void addSequenceReaders(TypeSpec.Builder classSpec) {
+        TypeName readerType = ParameterizedTypeName.get(ClassName.get(SequenceReader.class), className);
+        ClassName sequenceName = deserializerClassName.nestedClass(names.newName("Sequence"));
+        classSpec.addMethod(MethodSpec.methodBuilder(names.newName("arrayReader"))
+                .addJavadoc("Reads the elements of a top-level JSON array one at a time.\n")
+                .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+                .returns(readerType)
+                .addParameter(ObjectMapper.class, "mapper")
+                .addParameter(JsonParser.class, "p")
+                .addException(IOException.class)
+                .addStatement("return new $T(mapper, p, true)", sequenceName)
+                .build());
+        classSpec.addMethod(MethodSpec.methodBuilder(names.newName("valuesReader"))
+                .addJavadoc("Reads a sequence of root-level values, e.g. newline-delimited JSON, one at a time.\n")
+                .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+                .returns(readerType)
+                .addParameter(ObjectMapper.class, "mapper")
+                .addParameter(JsonParser.class, "p")
+                .addException(IOException.class)
+                .addStatement("return new $T(mapper, p, false)", sequenceName)
+                .build());
+        classSpec.addType(TypeSpec.classBuilder(sequenceName)
+                .addModifiers(Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                .superclass(readerType)
+                .addMethod(MethodSpec.constructorBuilder()
+                        .addParameter(ObjectMapper.class, "mapper")
+                        .addParameter(JsonParser.class, "p")
+                        .addParameter(boolean.class, "array")
+                        .addException(IOException.class)
+                        .addStatement("super(mapper, p, $N, array)", instance)
+                        .build())
+                .addMethod(MethodSpec.methodBuilder("read")
+                        .addAnnotation(Override.class)
+                        .addModifiers(Modifier.PROTECTED)
+                        .returns(className)
+                        .addParameter(ParameterizedTypeName.get(ClassName.get(JsonDeserializer.class), className),
+                                "deserializer")
+                        .addParameter(JsonParser.class, "p")
+                        .addParameter(DeserializationContext.class, "ctxt")
+                        .addException(IOException.class)
+                        .addStatement("return deserializer.deserialize(p, ctxt)")
+                        .build())
+                .build());
+    }
+
+    /**
+     * Hands over to Jackson's own deserializer if the mapper is configured to name or match properties differently
+     * than at compile time. Unless configured to ignore them at compile time, unknown properties are left to the
+     * context, which checks {@code FAIL_ON_UNKNOWN_PROPERTIES} only once one is actually encountered.
+     */
+    private MethodSpec buildCreateContextualMethod() {
+        Map<Enum<?>, Boolean> features = new LinkedHashMap<>();
+        features.put(DeserializationFeature.READ_ENUMS_USING_TO_STRING,
+                deserializationConfig.isEnabled(DeserializationFeature.READ_ENUMS_USING_TO_STRING));
+        // Property names and enum constants are always matched exactly
+        features.put(MapperFeature.ACCEPT_CASE_INSENSITIVE_PROPERTIES, false);
+        features.put(MapperFeature.ACCEPT_CASE_INSENSITIVE_ENUMS, false);
+        if (!failOnUnknownProperties()) {
+            features.put(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        }
+        return MethodSpec.methodBuilder("createContextual")
                 .addAnnotation(Override.class)
                 .addModifiers(Modifier.PUBLIC)
+                .returns(ParameterizedTypeName.get(ClassName.get(JsonDeserializer.class), WildcardTypeName.subtypeOf(Object.class)))
+                .addParameter(DeserializationContext.class, "ctxt")
+                .addParameter(BeanProperty.class, "property")
+                .addException(JsonMappingException.class)
+                .addStatement("$T config = ctxt.getConfig()", DeserializationConfig.class)
+                .beginControlFlow("if ($L)", configMismatch(deserializationConfig.getPropertyNamingStrategy(), features))
+                .addStatement("return $T.deserializer(ctxt, $T.class, property)", BeanFallbacks.class, className)
+                .endControlFlow()
+                .addStatement("return this")
+                .build();
+    }
+
+    /**
+     * Builds the deserializer of an abstract polymorphic type, which reads the type id and streams the remaining
+     * properties (and a visible type id itself) straight into the deserializer of the matching subtype. Only when the
+     * type id is not the first property are the properties preceding it buffered, to be replayed to the subtype's
+     * deserializer.
+     */
+    private TypeSpec buildDispatchClass() {
+        TypeSpec.Builder classSpec = classBuilder();
+        String typeProperty = serializedName(polymorphicType.propertyName());
+        String unknownTypeId = names.newName("UNKNOWN_TYPE_ID");
+        String typeId = names.newName("typeId");
+        String buffer = names.newName("buffer");
+        boolean visible = polymorphicType.isTypeIdVisible();
+
+        MethodSpec.Builder deserialize = deserializeMethodBuilder("deserialize", className)
+                .addAnnotation(Override.class);
+        deserialize.beginControlFlow("if (p.isExpectedStartObjectToken())");
+        deserialize.beginControlFlow("if (p.nextFieldName($N))", typeProperty);
+        deserialize.addStatement("p.nextToken()");
+        deserialize.addStatement("return deserializeSubtype(p.getText(), p, ctxt)");
+        deserialize.endControlFlow();
+        deserialize.nextControlFlow("else if (!p.hasToken($T.$L) && !p.hasToken($T.$L))",
+                JsonToken.class, JsonToken.FIELD_NAME, JsonToken.class, JsonToken.END_OBJECT);
+        deserialize.addStatement("return ($T) ctxt.handleUnexpectedToken(getValueType(ctxt), p)", className);
+        deserialize.endControlFlow();
+        deserialize.addCode("\n");
+        deserialize.addStatement("$T $L = ctxt.bufferForInputBuffering(p)", TokenBuffer.class, buffer);
+        String token = names.newName("token");
+        String name = names.newName("name");
+        deserialize.beginControlFlow("for ($T $L = p.currentToken(); $L == $T.$L; $L = p.nextToken())",
+                JsonToken.class, token, token, JsonToken.class, JsonToken.FIELD_NAME, token);
+        deserialize.addStatement("$T $L = p.currentName()", String.class, name);
+        deserialize.addStatement("p.nextToken()");
+        deserialize.beginControlFlow("if ($L.equals($S))", name, polymorphicType.propertyName());
+        deserialize.addStatement("return deserializeBuffered(p.getText(), $L, p, ctxt)", buffer);
+        deserialize.endControlFlow();
+        deserialize.addStatement("$L.writeFieldName($L)", buffer, name);
+        deserialize.addStatement("$L.copyCurrentStructure(p)", buffer);
+        deserialize.endControlFlow();
+
+        TypeElement defaultImpl = polymorphicType.defaultImpl();
+        if (defaultImpl != null) {
+            String buffered = names.newName("buffered");
+            deserialize.addStatement("$L.writeEndObject()", buffer);
+            deserialize.addStatement("$T $L = $L.asParser(p)", JsonParser.class, buffered, buffer);
+            deserialize.addStatement("$L.nextToken()", buffered);
+            deserialize.addStatement("return $L", subtypeReader(defaultImpl, buffered, false));
+        } else {
+            deserialize.addStatement("throw ctxt.missingTypeIdException(getValueType(ctxt), $S)",
+                    "missing type id property '" + polymorphicType.propertyName() + "'");
+        }
+
+        MethodSpec.Builder deserializeBuffered = MethodSpec.methodBuilder("deserializeBuffered")
+                .addModifiers(Modifier.PRIVATE)
                 .returns(className)
+                .addParameter(String.class, typeId)
+                .addParameter(TokenBuffer.class, buffer)
+                .addParameter(JsonParser.class, "p")
+                .addParameter(DeserializationContext.class, "ctxt")
+                .addException(IOException.class);
+        if (visible) {
+            deserializeBuffered.addStatement("$L.writeFieldName($N)", buffer, typeProperty);
+            deserializeBuffered.addStatement("$L.writeString($L)", buffer, typeId);
+        }
+        String sequence = names.newName("sequence");
+        deserializeBuffered.addStatement("p.clearCurrentToken()");
+        deserializeBuffered.addStatement("$T $L = $T.createFlattened(false, $L.asParser(p), p)",
+                JsonParser.class, sequence, JsonParserSequence.class, buffer);
+        deserializeBuffered.addStatement("$L.nextToken()", sequence);
+        deserializeBuffered.addStatement("return deserializeSubtype($L, $L, ctxt)", typeId, sequence);
+
+        NameMatcher.Builder matcher = NameMatcher.builder()
+                .withDefault(CodeBlock.of("$N", unknownTypeId));
+        List<TypeElement> subtypes = new ArrayList<>(polymorphicType.typeIds().keySet());
+        for (Map.Entry<String, TypeElement> entry : polymorphicType.subtypesById().entrySet()) {
+            matcher.withName(entry.getKey(), CodeBlock.of("$L", subtypes.indexOf(entry.getValue())));
+        }
+
+        MethodSpec.Builder deserializeSubtype = MethodSpec.methodBuilder("deserializeSubtype")
+                .addModifiers(Modifier.PRIVATE)
+                .returns(className)
+                .addParameter(String.class, typeId)
+                .addParameter(JsonParser.class, "p")
+                .addParameter(DeserializationContext.class, "ctxt")
+                .addException(IOException.class);
+        deserializeSubtype.beginControlFlow("switch (typeIndex($L))", typeId);
+        for (int i = 0; i < subtypes.size(); i++) {
+            deserializeSubtype.addCode("case $L:\n$>", i);
+            deserializeSubtype.addStatement("return $L$<", dispatchedReader(subtypes.get(i), visible, typeId));
+        }
+        deserializeSubtype.addCode("default:\n$>");
+        if (defaultImpl != null) {
+            deserializeSubtype.addStatement("return $L$<", dispatchedReader(defaultImpl, visible, typeId));
+        } else {
+            deserializeSubtype.beginControlFlow("if (ctxt.isEnabled($T.$L))",
+                    DeserializationFeature.class, DeserializationFeature.FAIL_ON_INVALID_SUBTYPE);
+            deserializeSubtype.addStatement("throw ctxt.invalidTypeIdException(getValueType(ctxt), $L, $S)",
+                    typeId, "known type ids = " + polymorphicType.subtypesById().keySet());
+            deserializeSubtype.endControlFlow();
+            deserializeSubtype.addStatement("$N(p)", skipRemainingMethod());
+            deserializeSubtype.addStatement("return null$<");
+        }
+        deserializeSubtype.endControlFlow();
+
+        classSpec.addField(FieldSpec.builder(int.class, unknownTypeId, Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                .initializer("$L", -1)
+                .build());
+        for (Map.Entry<String, String> entry : serializedNames.entrySet()) {
+            classSpec.addField(FieldSpec.builder(SerializedString.class, entry.getValue(),
+                            Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                    .initializer("new $T($S)", SerializedString.class, entry.getKey())
+                    .build());
+        }
+        classSpec.addMethod(metrics ? withMetrics(deserialize.build()) : deserialize.build());
+        classSpec.addMethod(buildDeserializeWithTypeMethod());
+        classSpec.addMethod(deserializeBuffered.build());
+        classSpec.addMethod(deserializeSubtype.build());
+        classSpec.addMethod(matcher.build().generate("typeIndex"));
+        classSpec.addMethods(readMethodSpecs);
+        addSequenceReaders(classSpec);
+        return classSpec.build();
+    }
+
+    /**
+     * Returns an expression handing the parser, positioned on the type id value or the property following it, over to
+     * the deserializer of the given subtype. A visible type id is read by generated deserializers from the former;
+     * for those of Jackson, the type id is buffered to be replayed along with the remaining properties.
+     */
+    private CodeBlock dispatchedReader(TypeElement subtype, boolean visible, String typeId) {
+        if (!visible || generatedDeserializerOf(subtype.asType()) != null) {
+            return subtypeReader(subtype, "p", true);
+        }
+        return CodeBlock.of("p.hasToken($T.$L) ? $L : deserializeBuffered($L, ctxt.bufferForInputBuffering(p), p, ctxt)",
+                JsonToken.class, JsonToken.FIELD_NAME, subtypeReader(subtype, "p", false), typeId);
+    }
+
+    /**
+     * Returns an expression handing the parser over to the deserializer of the given subtype: with
+     * {@code afterTypeId}, the parser may still be positioned on the type id value.
+     */
+    private CodeBlock subtypeReader(TypeElement subtype, String parser, boolean afterTypeId) {
+        ClassName deserializer = generatedDeserializerOf(subtype.asType());
+        if (deserializer != null) {
+            return afterTypeId && cache.polymorphicType(subtype) != null
+                    ? CodeBlock.of("$T.INSTANCE.deserializeAfterTypeId($L, ctxt)", deserializer, parser)
+                    : CodeBlock.of("$T.INSTANCE.deserialize($L, ctxt)", deserializer, parser);
+        }
+        return CodeBlock.of("($T) $N($T.class, $L, ctxt)", className, readSubtypeMethod(), subtype, parser);
+    }
+
+    /**
+     * Adds a method reading subtypes without a generated deserializer through the context, from the property
+     * following the type id.
+     */
+    private String readSubtypeMethod() {
+        return readMethods.computeIfAbsent("readSubtype", key -> {
+            String methodName = names.newName(key);
+            readMethodSpecs.add(MethodSpec.methodBuilder(methodName)
+                    .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+                    .returns(Object.class)
+                    .addParameter(ParameterizedTypeName.get(ClassName.get(Class.class), WildcardTypeName.subtypeOf(Object.class)), "type")
+                    .addParameter(JsonParser.class, "p")
+                    .addParameter(DeserializationContext.class, "ctxt")
+                    .addException(IOException.class)
+                    .addCode(skipTypeId())
+                    .addStatement("return ctxt.findContextualValueDeserializer(ctxt.constructType(type), null).deserialize(p, ctxt)")
+                    .build());
+            return methodName;
+        });
+    }
+
+    /**
+     * Adds a method skipping the remaining properties of an object with an unknown type id.
+     */
+    private String skipRemainingMethod() {
+        return readMethods.computeIfAbsent("skipRemaining", key -> {
+            String methodName = names.newName(key);
+            readMethodSpecs.add(MethodSpec.methodBuilder(methodName)
+                    .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+                    .addParameter(JsonParser.class, "p")
+                    .addException(IOException.class)
+                    .addCode(skipTypeId())
+                    .beginControlFlow("for ($T token = p.currentToken(); token == $T.$L; token = p.nextToken())",
+                            JsonToken.class, JsonToken.class, JsonToken.FIELD_NAME)
+                    .addStatement("p.nextToken()")
+                    .addStatement("p.skipChildren()")
+                    .endControlFlow()
+                    .build());
+            return methodName;
+        });
+    }
+
+    private static CodeBlock skipTypeId() {
+        return CodeBlock.builder()
+                .beginControlFlow("if (!p.hasToken($T.$L) && !p.hasToken($T.$L))",
+                        JsonToken.class, JsonToken.FIELD_NAME, JsonToken.class, JsonToken.END_OBJECT)
+                .addStatement("p.nextToken()")
+                .endControlFlow()
+                .build();
+    }
+
+    /**
+     * Reports each value read through {@code deserialize} to {@link SerdeMetrics}, measuring its length from the
+     * token the parser is positioned on when called. Values handed over by a dispatching deserializer through
+     * {@code deserializeAfterTypeId} are reported by the latter, under the polymorphic base type.
+     */
+    private MethodSpec withMetrics(MethodSpec method) {
+        String start = names.newName("metricsStart");
+        String offset = names.newName("metricsOffset");
+        return reportingMetrics(method,
+                CodeBlock.builder()
+                        .addStatement("long $L = $T.ENABLED ? System.nanoTime() : 0L", start, SerdeMetrics.class)
+                        .addStatement("long $L = $T.ENABLED ? $T.startOffset(p) : 0L",
+                                offset, SerdeMetrics.class, SerdeMetrics.class)
+                        .build(),
+                names.newName("metricsFailed"),
+                CodeBlock.builder()
+                        .addStatement("$T.deserialized(ctxt, $T.class, p, $L, $L)",
+                                SerdeMetrics.class, className, offset, start)
+                        .build());
+    }
+
+    private MethodSpec.Builder deserializeMethodBuilder(String methodName, TypeName returnType) {
+        return MethodSpec.methodBuilder(methodName)
+                .addModifiers(Modifier.PUBLIC)
+                .returns(returnType)
                 .addParameter(ParameterSpec.builder(JsonParser.class, "p").build())
                 .addParameter(ParameterSpec.builder(DeserializationContext.class, "ctxt").build())
                 .addException(IOException.class)
                 .addException(JsonProcessingException.class);
+    }
 
-        method.beginControlFlow("if (!p.isExpectedStartObjectToken())");
-        method.addStatement("ctxt.handleUnexpectedToken(getValueType(ctxt), p)");
+    /**
+     * Skips the type id if it leads (as written by our own serializers) before reading the properties; Jackson's own
+     * type deserializers call in with the type id already consumed, positioned on the following property.
+     */
+    private MethodSpec buildTypeIdMethod() {
+        MethodSpec.Builder method = deserializeMethodBuilder("deserialize", className)
+                .addAnnotation(Override.class);
+        method.beginControlFlow("if (p.isExpectedStartObjectToken())");
+        method.beginControlFlow("if (p.nextFieldName($N))", serializedName(polymorphicType.propertyName()));
+        method.addStatement("p.nextToken()");
         method.endControlFlow();
-        method.addCode("\n");
+        method.nextControlFlow("else if (!p.hasToken($T.$L) && !p.hasToken($T.$L))",
+                JsonToken.class, JsonToken.FIELD_NAME, JsonToken.class, JsonToken.END_OBJECT);
+        method.addStatement("return ($T) ctxt.handleUnexpectedToken(getValueType(ctxt), p)", className);
+        method.endControlFlow();
+        method.addStatement("return deserializeAfterTypeId(p, ctxt)");
+        return method.build();
+    }
 
-        ExecutableElement defaultConstructor = null;
-        for (Element el : typeElement.getEnclosedElements()) {
-            if (el.getKind() != ElementKind.CONSTRUCTOR) {
-                continue;
+    /**
+     * The type id is resolved at compile time, so the {@code TypeDeserializer} Jackson derives from the very same
+     * annotations is not needed.
+     */
+    private MethodSpec buildDeserializeWithTypeMethod() {
+        return deserializeMethodBuilder("deserializeWithType", TypeName.OBJECT)
+                .addAnnotation(Override.class)
+                .addParameter(ParameterSpec.builder(TypeDeserializer.class, "typeDeserializer").build())
+                .addStatement("return deserialize(p, ctxt)")
+                .build();
+    }
+
+    /**
+     * Builds the method reading the properties of the type, either as {@code deserialize}, or with
+     * {@code afterTypeId} as the entry point for dispatching deserializers: the parser is then positioned on the type
+     * id value if it was read in a streaming fashion, or on the first remaining property otherwise. A visible type id
+     * read in a streaming fashion is read into its property from there, as Jackson injects it.
+     */
+    private MethodSpec buildDeserializeMethod(boolean afterTypeId) {
+        MethodSpec.Builder method;
+        if (afterTypeId) {
+            method = deserializeMethodBuilder("deserializeAfterTypeId", className);
+        } else {
+            method = deserializeMethodBuilder("deserialize", className).addAnnotation(Override.class);
+        }
+
+        List<Property> properties = getProperties();
+        String instanceName = declareInstance(method);
+
+        // Speculatively match properties in the order our own serializer writes them; nextFieldName can compare
+        // the raw name against the pre-encoded SerializedString without materializing / hashing a String, and we
+        // only fall through to the general matching loop below once the input deviates from that order. When
+        // already positioned on a property (Jackson's type deserializers hand over the parser that way), the loop
+        // takes it from there.
+        if (afterTypeId) {
+            method.beginControlFlow("if (!p.hasToken($T.$L) && !p.hasToken($T.$L))",
+                    JsonToken.class, JsonToken.FIELD_NAME, JsonToken.class, JsonToken.END_OBJECT);
+        } else {
+            method.beginControlFlow("if (p.isExpectedStartObjectToken())");
+        }
+        Property typeIdProperty = null;
+        if (afterTypeId && polymorphicType.isTypeIdVisible()) {
+            typeIdProperty = properties.stream()
+                    .filter(property -> property.name().equals(polymorphicType.propertyName())
+                            || property.aliases().contains(polymorphicType.propertyName()))
+                    .findFirst()
+                    .orElse(null);
+            if (typeIdProperty != null) {
+                method.addCode(readProperty(typeIdProperty, instanceName));
+            } else {
+                method.addCode(unknownProperty(CodeBlock.of("$S", polymorphicType.propertyName())));
+            }
+        }
+        if (properties.size() > ((typeIdProperty != null) ? 1 : 0)) {
+            String inOrder = names.newName("inOrder");
+            method.beginControlFlow("$L:", inOrder);
+            for (Property property : properties) {
+                if (property == typeIdProperty) {
+                    continue;
+                }
+                method.beginControlFlow("if (!p.nextFieldName($N))", serializedName(property.name()));
+                method.addStatement("break $L", inOrder);
+                method.endControlFlow();
+                method.addStatement("p.nextToken()");
+                method.addCode(readProperty(property, instanceName));
+            }
+            method.addStatement("p.nextToken()");
+            method.endControlFlow();
+        } else {
+            method.addStatement("p.nextToken()");
+        }
+        if (!afterTypeId) {
+            method.nextControlFlow("else if (!p.hasToken($T.$L) && !p.hasToken($T.$L))",
+                    JsonToken.class, JsonToken.FIELD_NAME, JsonToken.class, JsonToken.END_OBJECT);
+            method.addStatement("return ($T) ctxt.handleUnexpectedToken(getValueType(ctxt), p)", className);
+        }
+        method.endControlFlow();
+
+        // Jackson buffers unknown properties of types instantiated through a creator, and reports the first once the
+        // instance is created, unless problem handlers are to be given their values
+        String unknownName = null;
+        if (!creatorArguments().isEmpty() && failOnUnknownProperties()
+                && !getIgnoredProperties().getIgnoreUnknown()) {
+            unknownName = names.newName("unknown");
+            method.addStatement("$T $L = null", String.class, unknownName);
+        }
+        String tokenName = names.newName("token");
+        method.addStatement("$T $L = p.currentToken()", JsonToken.class, tokenName);
+        method.beginControlFlow("while ($L == $T.$L)", tokenName, JsonToken.class, JsonToken.FIELD_NAME);
+
+        method.addStatement("p.nextValue()");
+        String fieldName = names.newName("fieldName");
+        method.addStatement("$T $L = p.currentName()", String.class, fieldName);
+
+        method.beginControlFlow("switch (propertyIndex($L))", fieldName);
+
+        for (int i = 0; i < properties.size(); i++) {
+            method.addCode("case $L:\n$>", i);
+            method.addCode(readProperty(properties.get(i), instanceName));
+            method.addStatement("break$<");
+        }
+
+        method.addCode("case $N:\n$>", ignoredProperty);
+        method.addStatement("p.skipChildren()");
+        method.addStatement("break$<");
+        method.addCode("default:\n$>");
+        if (unknownName != null) {
+            method.beginControlFlow("if (ctxt.getConfig().getProblemHandlers() != null)");
+            method.addCode(unknownProperty(CodeBlock.of("$L", fieldName)));
+            method.nextControlFlow("else");
+            method.beginControlFlow("if ($L == null)", unknownName);
+            method.addStatement("$L = $L", unknownName, fieldName);
+            method.endControlFlow();
+            method.addStatement("p.skipChildren()");
+            method.endControlFlow();
+        } else {
+            method.addCode(unknownProperty(CodeBlock.of("$L", fieldName)));
+        }
+        method.addCode("$<");
+
+        method.endControlFlow();
+        method.addStatement("$L = p.nextToken()", tokenName);
+        method.endControlFlow();
+
+        method.addCode(checkCreatorProperties());
+        if (unknownName != null) {
+            createInstance(method, instanceName);
+            method.beginControlFlow("if ($L != null)", unknownName);
+            method.addStatement("handleUnknownProperty(p, ctxt, $L, $L)", instanceName, unknownName);
+            method.endControlFlow();
+            method.addStatement("return $L", instanceName);
+        } else {
+            returnInstance(method, instanceName);
+        }
+        return method.build();
+    }
+
+    /**
+     * Handles the value of an unknown property, the parser being positioned on it.
+     */
+    private CodeBlock unknownProperty(CodeBlock name) {
+        if (!failOnUnknownProperties() || getIgnoredProperties().getIgnoreUnknown()) {
+            return CodeBlock.builder().addStatement("p.skipChildren()").build();
+        }
+        // Jackson reports unknown properties of builder-based types against the builder
+        return CodeBlock.builder()
+                .addStatement("handleUnknownProperty(p, ctxt, $T.class, $L)",
+                        (builderElement != null) ? builderElement : typeElement, name)
+                .build();
+    }
+
+    /**
+     * Reads a type with {@code @JsonFormat(shape = ARRAY)} from an array of its property values, matched by position
+     * alone. Missing trailing elements leave their properties unset, unless one of them is a creator property and the
+     * mapper enables {@code FAIL_ON_MISSING_CREATOR_PROPERTIES}; extra elements are handled as unknown properties.
+     * As in Jackson's {@code BeanAsArrayDeserializer}, a type instantiated through a creator skips extra elements
+     * instead, and failures to read its properties are thrown as they are. Jackson instantiates such a type as soon as
+     * the last of its creator properties is read, so creator properties are checked there, and that property added
+     * to the path of any failure, or else once the array ends.
+     */
+    private MethodSpec buildArrayDeserializeMethod() {
+        MethodSpec.Builder method = deserializeMethodBuilder("deserialize", className).addAnnotation(Override.class);
+        method.beginControlFlow("if (!p.isExpectedStartArrayToken())");
+        method.addStatement("return ($T) ctxt.handleUnexpectedToken(getValueType(ctxt), p)", className);
+        method.endControlFlow();
+        String instanceName = declareInstance(method);
+
+        List<@Nullable Property> elements = getElements();
+        List<Property> arguments = creatorArguments();
+        int lastArgument = -1;
+        for (int i = 0; i < elements.size(); i++) {
+            Property element = elements.get(i);
+            if (element != null && arguments.contains(element)) {
+                lastArgument = i;
+            }
+        }
+        String elementsLabel = names.newName("elements");
+        method.beginControlFlow("$L:", elementsLabel);
+        for (int i = 0; i < elements.size(); i++) {
+            method.beginControlFlow("if (p.nextToken() == $T.$L)", JsonToken.class, JsonToken.END_ARRAY);
+            if (i <= lastArgument) {
+                method.addCode(checkCreatorProperties());
+            }
+            method.addStatement("break $L", elementsLabel);
+            method.endControlFlow();
+            Property property = elements.get(i);
+            if (property == null) {
+                method.addStatement("p.skipChildren()");
+            } else if (builderElement == null && getCreator() != null) {
+                method.addCode(setProperty(property, instanceName, propertyReader(property)));
+            } else {
+                method.addCode(readProperty(property, instanceName));
+            }
+            if (i == lastArgument) {
+                method.beginControlFlow("try")
+                        .addCode(checkCreatorProperties())
+                        .nextControlFlow("catch ($T $N)", MismatchedInputException.class, caught)
+                        .addStatement("throw $T.wrap($N, ctxt, $T.class, $S)", PropertyErrors.class, caught,
+                                typeElement, property.name())
+                        .endControlFlow();
+            }
+        }
+        method.beginControlFlow("if (p.nextToken() != $T.$L)", JsonToken.class, JsonToken.END_ARRAY);
+        if (failOnUnknownProperties() && !getIgnoredProperties().getIgnoreUnknown() && creatorArguments().isEmpty()) {
+            method.beginControlFlow("if (ctxt.isEnabled($T.$L))",
+                    DeserializationFeature.class, DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+            method.addStatement("ctxt.reportWrongTokenException(this, $T.$L, $S, $L)", JsonToken.class,
+                    JsonToken.END_ARRAY, "Unexpected JSON values; expected at most %d properties (in JSON Array)",
+                    elements.size());
+            method.endControlFlow();
+        }
+        method.beginControlFlow("do");
+        method.addStatement("p.skipChildren()");
+        method.endControlFlow("while (p.nextToken() != $T.$L)", JsonToken.class, JsonToken.END_ARRAY);
+        method.endControlFlow();
+        method.endControlFlow();
+
+        if (lastArgument < 0) {
+            method.addCode(checkCreatorProperties());
+        }
+        returnInstance(method, instanceName);
+        return method.build();
+    }
+
+    /**
+     * Returns the properties read from each element of an array-shaped type: the properties the serializer writes, in
+     * the order it writes them, with {@code null} for those that cannot be set, followed by any other property.
+     */
+    private List<@Nullable Property> getElements() {
+        List<Property> properties = getProperties();
+        if (elementOrder == null) {
+            return new ArrayList<>(properties);
+        }
+        List<@Nullable Property> elements = new ArrayList<>();
+        for (String name : elementOrder) {
+            elements.add(properties.stream()
+                    .filter(property -> property.name().equals(name))
+                    .findFirst()
+                    .orElse(null));
+        }
+        for (Property property : properties) {
+            if (!elements.contains(property)) {
+                elements.add(property);
+            }
+        }
+        return elements;
+    }
+
+    /**
+     * Fails, before the creator is invoked, on the first creator property missing from the input or (missing or not)
+     * {@code null}, if the mapper enables {@code FAIL_ON_MISSING_CREATOR_PROPERTIES} or
+     * {@code FAIL_ON_NULL_CREATOR_PROPERTIES} respectively, as Jackson's {@code PropertyValueBuffer} does.
+     */
+    private CodeBlock checkCreatorProperties() {
+        List<Property> arguments = creatorArguments();
+        if (arguments.isEmpty()) {
+            return CodeBlock.of("");
+        }
+        CodeBlock.Builder code = CodeBlock.builder()
+                .beginControlFlow("if (ctxt.isEnabled($T.$L))",
+                        DeserializationFeature.class, DeserializationFeature.FAIL_ON_MISSING_CREATOR_PROPERTIES);
+        for (int i = 0; i < arguments.size(); i++) {
+            Property property = arguments.get(i);
+            code.beginControlFlow("if (!$L)", presenceFlag(property))
+                    .add(reportCreatorProperty(property, String.format("Missing creator property '%s' (index %d); "
+                            + "`DeserializationFeature.FAIL_ON_MISSING_CREATOR_PROPERTIES` enabled", property.name(), i)))
+                    .endControlFlow();
+        }
+        code.endControlFlow();
+        List<Property> nullable = arguments.stream()
+                .filter(property -> !TypesUtils.isPrimitive(property.type()))
+                .toList();
+        if (!nullable.isEmpty()) {
+            code.beginControlFlow("if (ctxt.isEnabled($T.$L))",
+                    DeserializationFeature.class, DeserializationFeature.FAIL_ON_NULL_CREATOR_PROPERTIES);
+            for (Property property : nullable) {
+                code.beginControlFlow("if ($L == null)", localName(property))
+                        .add(reportCreatorProperty(property, String.format("Null value for creator property '%s' "
+                                + "(index %d); `DeserializationFeature.FAIL_ON_NULL_CREATOR_PROPERTIES` enabled",
+                                property.name(), arguments.indexOf(property))))
+                        .endControlFlow();
+            }
+            code.endControlFlow();
+        }
+        return code.build();
+    }
+
+    /**
+     * Throws a {@code MismatchedInputException} for a creator property; as
+     * {@code DeserializationContext.reportInputMismatch}, the property is added to the path.
+     */
+    private CodeBlock reportCreatorProperty(Property property, String message) {
+        String exception = names.newName("mismatch");
+        return CodeBlock.builder()
+                .addStatement("$T $N = $T.from(p, $T.class, $S)", MismatchedInputException.class, exception,
+                        MismatchedInputException.class, TypeName.get(types().erasure(property.type())), message)
+                .addStatement("$N.prependPath($T.class, $S)", exception, typeElement, property.name())
+                .addStatement("throw $N", exception)
+                .build();
+    }
+
+    /**
+     * Returns the properties passed to the creator, in order, if the type is instantiated through one.
+     */
+    private List<Property> creatorArguments() {
+        if (builderElement != null || getCreator() == null) {
+            return List.of();
+        }
+        // In the order of the creator's parameters, whatever the order the properties are written in
+        getProperties();
+        return creatorProperties;
+    }
+
+    /**
+     * Declares the instance properties are read into: the builder, the instance itself, or for types instantiated
+     * through a creator, a local for each property. Returns the name of the instance.
+     */
+    private String declareInstance(MethodSpec.Builder method) {
+        if (builderElement != null) {
+            String instanceName = localNames.computeIfAbsent("<builder>", key -> names.newName("builder"));
+            method.addStatement("$T $L = new $T()", builderElement, instanceName, builderElement);
+            return instanceName;
+        }
+        String instanceName = localNames.computeIfAbsent("<obj>", key -> names.newName("obj"));
+        if (getCreator() == null) {
+            method.addStatement("$T $L = new $T()", className, instanceName, className);
+            return instanceName;
+        }
+        // Buffer everything in typed locals (primitives stay unboxed) and invoke the creator once at the end
+        for (Property property : getProperties()) {
+            method.addStatement("$T $L = $L", property.type(), localName(property), defaultValue(property.type()));
+            method.addStatement("boolean $L = false", presenceFlag(property));
+        }
+        return instanceName;
+    }
+
+    /**
+     * Completes and returns the instance declared by {@link #declareInstance(MethodSpec.Builder)}.
+     */
+    private void returnInstance(MethodSpec.Builder method, String instanceName) {
+        if (builderElement != null) {
+            method.addStatement("return $L.$L()", instanceName, getBuildMethod().getSimpleName());
+            return;
+        }
+        createInstance(method, instanceName);
+        method.addStatement("return $L", instanceName);
+    }
+
+    /**
+     * Invokes the creator of a type instantiated through one and sets its other properties; does nothing for other
+     * types, whose instance already exists.
+     */
+    private void createInstance(MethodSpec.Builder method, String instanceName) {
+        ExecutableElement creator = getCreator();
+        if (builderElement == null && creator != null) {
+            CodeBlock arguments = creatorArguments().stream()
+                    .map(property -> CodeBlock.of("$L", localName(property)))
+                    .collect(CodeBlock.joining(", "));
+            if (creator.getKind() == ElementKind.CONSTRUCTOR) {
+                method.addStatement("$T $L = new $T($L)", className, instanceName, className, arguments);
+            } else {
+                method.addStatement("$T $L = $T.$L($L)", className, instanceName, className, creator.getSimpleName(), arguments);
             }
-            ExecutableElement constructor = (ExecutableElement) el;
-            if (constructor.isDefault() || constructor.getParameters().isEmpty()) {
-                defaultConstructor = constructor;
-                break;
+            for (Property property : getProperties()) {
+                if (property.setter() != null) {
+                    method.beginControlFlow("if ($L)", presenceFlag(property));
+                    method.addStatement("$L.$L($L)", instanceName, property.setter().getSimpleName(), localName(property));
+                    method.endControlFlow();
+                }
             }
         }
+    }
 
-        if (defaultConstructor == null) {
-            throw new RuntimeException("Currently only default constructors are supported");
+    /**
+     * Builds the matcher mapping every property name and alias to the property's index in {@link #getProperties()},
+     * and explicitly ignored names to the ignored marker, so a single lookup classifies any incoming name.
+     */
+    private NameMatcher buildPropertyMatcher() {
+        NameMatcher.Builder matcher = NameMatcher.builder()
+                .withDefault(CodeBlock.of("$N", unknownProperty));
+        List<Property> properties = getProperties();
+        for (int i = 0; i < properties.size(); i++) {
+            for (String alias : properties.get(i).aliases()) {
+                matcher.withName(alias, CodeBlock.of("$L", i));
+            }
+        }
+        for (int i = 0; i < properties.size(); i++) {
+            matcher.withName(properties.get(i).name(), CodeBlock.of("$L", i));
+        }
+        for (String ignored : getIgnoredProperties().getIgnored()) {
+            matcher.withName(ignored, CodeBlock.of("$N", ignoredProperty));
+        }
+        // A type id that does not double as a property is skipped wherever it appears, unless visible: Jackson then
+        // hands it to the subtype's deserializer like any other property
+        if (polymorphicType != null && !polymorphicType.isTypeIdVisible() && properties.stream().noneMatch(property ->
+                property.name().equals(polymorphicType.propertyName())
+                        || property.aliases().contains(polymorphicType.propertyName()))) {
+            matcher.withName(polymorphicType.propertyName(), CodeBlock.of("$N", ignoredProperty));
         }
+        return matcher.build();
+    }
+
+    private CodeBlock readProperty(Property property, String instanceName) {
+        // As Jackson, failures are reported with the property (of the builder, if any) added to their path
+        return CodeBlock.builder()
+                .beginControlFlow("try")
+                .add(setProperty(property, instanceName, propertyReader(property)))
+                .nextControlFlow("catch ($T $N)", Exception.class, caught)
+                .addStatement("throw $T.wrap($N, ctxt, $T.class, $S)", PropertyErrors.class, caught,
+                        (builderElement != null) ? builderElement : typeElement, property.name())
+                .endControlFlow()
+                .build();
+    }
+
+    private CodeBlock propertyReader(Property property) {
+        Class<?> timeType = getTimeType(property.type());
+        return (timeType == null || property.format() == null)
+                ? valueHandler(property.type())
+                : timeReader(timeType, property.format());
+    }
+
+    /**
+     * Sets a property of the instance declared by {@link #declareInstance(MethodSpec.Builder)} to the value of the
+     * given expression.
+     */
+    private CodeBlock setProperty(Property property, String instanceName, CodeBlock reader) {
+        if (builderElement != null) {
+            // Builders may be immutable and hand back a new instance from each call, so keep whatever is returned
+            ExecutableElement withMethod = property.setter();
+            if (types().isAssignable(withMethod.getReturnType(), builderElement.asType())) {
+                return CodeBlock.builder()
+                        .addStatement("$L = $L.$L($L)", instanceName, instanceName, withMethod.getSimpleName(), reader)
+                        .build();
+            }
+            return CodeBlock.builder()
+                    .addStatement("$L.$L($L)", instanceName, withMethod.getSimpleName(), reader)
+                    .build();
+        }
+        if (getCreator() == null) {
+            return CodeBlock.builder()
+                    .addStatement("$L.$L($L)", instanceName, property.setter().getSimpleName(), reader)
+                    .build();
+        }
+        return CodeBlock.builder()
+                .addStatement("$L = $L", localName(property), reader)
+                .addStatement("$L = true", presenceFlag(property))
+                .build();
+    }
+
+    private String localName(Property property) {
+        return localNames.computeIfAbsent(property.name(), name -> names.newName(name));
+    }
+
+    private String presenceFlag(Property property) {
+        return presenceFlags.computeIfAbsent(property.name(), name -> names.newName(
+                name.isEmpty() ? "has" : "has" + Character.toUpperCase(name.charAt(0)) + name.substring(1)));
+    }
+
+    private CodeBlock defaultValue(TypeMirror type) {
+        if (type.getKind() == TypeKind.BOOLEAN) {
+            return CodeBlock.of("false");
+        }
+        if (getOptionalType(type) != null) {
+            // As with Jdk8Module, missing optionals are read as from null rather than left null
+            return nullOptional(type);
+        }
+        return TypesUtils.isPrimitive(type) ? CodeBlock.of("0") : CodeBlock.of("null");
+    }
 
-        List<ExecutableElement> setters = new ArrayList<>();
+    /**
+     * Returns the constructor or static factory used to instantiate the type, or {@code null} if it is to be created
+     * through its no-args constructor and populated through setters. In order of preference this is the member
+     * annotated with {@code @JsonCreator}, the canonical constructor of a record, the no-args constructor, and
+     * finally the sole non-private constructor of the type. If there is none, or only a delegating creator, the
+     * reason is left in {@link #creatorError}.
+     */
+    @Nullable
+    private ExecutableElement getCreator() {
+        if (creatorResolved) {
+            return creator;
+        }
+        creatorResolved = true;
+
+        List<ExecutableElement> constructors = new ArrayList<>();
         for (Element el : typeElement.getEnclosedElements()) {
+            JsonCreator anno = el.getAnnotation(JsonCreator.class);
+            if (anno != null && anno.mode() != JsonCreator.Mode.DISABLED
+                    && (el.getKind() == ElementKind.CONSTRUCTOR || el.getModifiers().contains(Modifier.STATIC))) {
+                if (anno.mode() == JsonCreator.Mode.DELEGATING) {
+                    creatorError = "Delegating creators are not supported: " + el;
+                    return null;
+                }
+                creator = (ExecutableElement) el;
+                return creator;
+            }
+            if (el.getKind() == ElementKind.CONSTRUCTOR && !el.getModifiers().contains(Modifier.PRIVATE)) {
+                constructors.add((ExecutableElement) el);
+            }
+        }
+
+        if (typeElement.getKind() == ElementKind.RECORD) {
+            List<? extends RecordComponentElement> components = typeElement.getRecordComponents();
+            for (ExecutableElement constructor : constructors) {
+                List<? extends VariableElement> parameters = constructor.getParameters();
+                if (parameters.size() != components.size()) {
+                    continue;
+                }
+                boolean canonical = true;
+                for (int i = 0; i < parameters.size(); i++) {
+                    canonical &= types().isSameType(parameters.get(i).asType(), components.get(i).asType());
+                }
+                if (canonical) {
+                    creator = constructor;
+                    return creator;
+                }
+            }
+        }
+
+        for (ExecutableElement constructor : constructors) {
+            if (constructor.getParameters().isEmpty()) {
+                return null;
+            }
+        }
+        if (constructors.size() == 1) {
+            creator = constructors.get(0);
+            return creator;
+        }
+        creatorError = "No default constructor, @JsonCreator or canonical record constructor found for " + typeElement;
+        return null;
+    }
+
+    /**
+     * Collects the properties of the type: the parameters of the creator, if there is one, followed by any settable
+     * properties not already covered by it. They are named the same way {@link SerializerGenerator} names them
+     * (explicit {@code @JsonProperty} on the parameter / setter, getter or field, otherwise the naming strategy) and
+     * ordered the way the serializer writes them (see {@link #withElementOrder(List)}), or failing that by the
+     * declaration order of the getter where there is one.
+     */
+    private List<Property> getProperties() {
+        if (properties != null) {
+            return properties;
+        }
+        PropertyNamingStrategy namingStrategy = cache.namingStrategy(typeElement, deserializationConfig);
+        List<? extends Element> members = typeElement.getEnclosedElements();
+
+        List<Property> properties = new ArrayList<>();
+        Set<String> propertyNames = new LinkedHashSet<>();
+
+        if (builderElement != null) {
+            String withPrefix = getBuilderConfig().withPrefix;
+            for (Element el : builderElement.getEnclosedElements()) {
+                if (el.getKind() != ElementKind.METHOD || el.getModifiers().contains(Modifier.STATIC)
+                        || el.getModifiers().contains(Modifier.PRIVATE)) {
+                    continue;
+                }
+                ExecutableElement withMethod = (ExecutableElement) el;
+                String implicitName = nameForWithMethod(withMethod, withPrefix);
+                if (withMethod.getParameters().size() != 1 || implicitName == null) {
+                    continue;
+                }
+                Property property = linkProperty(withMethod, implicitName, withMethod, Integer.MAX_VALUE,
+                        (namingStrategy == null) ? null
+                                : name -> namingStrategy.nameForSetterMethod(deserializationConfig, null, name));
+                if (propertyNames.add(property.name())) {
+                    properties.add(property);
+                }
+            }
+            properties.sort(Comparator.comparingInt(Property::order));
+            sortByElementOrder(properties);
+            this.properties = properties;
+            return properties;
+        }
+
+        ExecutableElement creator = getCreator();
+        List<Property> creatorProperties = new ArrayList<>();
+        if (creator != null) {
+            for (VariableElement parameter : creator.getParameters()) {
+                String implicitName = parameter.getSimpleName().toString();
+                Property property = linkProperty(parameter, implicitName, null, Integer.MAX_VALUE,
+                        (namingStrategy == null) ? null
+                                : name -> namingStrategy.nameForConstructorParameter(deserializationConfig, null, name));
+                properties.add(property);
+                creatorProperties.add(property);
+                propertyNames.add(property.name());
+            }
+        }
+
+        for (Element el : members) {
             if (el.getKind() != ElementKind.METHOD) {
                 continue;
             }
@@ -162,85 +1368,793 @@ public final class DeserializerGenerator {
             if (!(setterName.startsWith("set") && setterName.length() > 3)) {
                 continue;
             }
-            setters.add(setter);
+
+            Property property = linkProperty(setter, nameForSetter(setter), setter, members.indexOf(setter),
+                    (namingStrategy == null) ? null
+                            : name -> namingStrategy.nameForSetterMethod(deserializationConfig, null, name));
+            if (propertyNames.add(property.name())) {
+                properties.add(property);
+            }
         }
+        properties.sort(Comparator.comparingInt(Property::order));
+        sortByElementOrder(properties);
+        this.creatorProperties = List.copyOf(creatorProperties);
+        this.properties = properties;
+        return properties;
+    }
 
-        String instanceName = names.newName("obj");
-        method.addStatement("$T $L = new $T()", className, instanceName, className);
+    /**
+     * Moves the properties written by the serializer into the order it writes them in, leaving any other property
+     * after those, in its own order.
+     */
+    private void sortByElementOrder(List<Property> properties) {
+        if (elementOrder != null) {
+            properties.sort(Comparator.comparingInt(property -> {
+                int index = elementOrder.indexOf(property.name());
+                return (index < 0) ? Integer.MAX_VALUE : index;
+            }));
+        }
+    }
 
-        String tokenName = names.newName("token");
-        method.addStatement("$T $L = p.nextToken()", JsonToken.class, tokenName);
-        method.beginControlFlow("while ($L != null)", tokenName);
+    private JsonPOJOBuilder.Value getBuilderConfig() {
+        JsonPOJOBuilder anno = builderElement.getAnnotation(JsonPOJOBuilder.class);
+        return (anno == null)
+                ? new JsonPOJOBuilder.Value(JsonPOJOBuilder.DEFAULT_BUILD_METHOD, JsonPOJOBuilder.DEFAULT_WITH_PREFIX)
+                : new JsonPOJOBuilder.Value(anno);
+    }
 
-        method.beginControlFlow("if (token == $T.$L)", JsonToken.class, JsonToken.FIELD_NAME);
-        method.addStatement("p.nextValue()");
-        String fieldName = names.newName("fieldName");
-        method.addStatement("$T $L = p.currentName()", String.class, fieldName);
+    /**
+     * Returns the no-args method of the builder, as named by {@code @JsonPOJOBuilder(buildMethodName)}, that produces
+     * the deserialized instance, or {@code null} if there is none.
+     */
+    @Nullable
+    private ExecutableElement getBuildMethod() {
+        String buildMethodName = getBuilderConfig().buildMethodName;
+        for (Element el : elements().getAllMembers(builderElement)) {
+            if (el.getKind() == ElementKind.METHOD && el.getSimpleName().contentEquals(buildMethodName)
+                    && ((ExecutableElement) el).getParameters().isEmpty()
+                    && types().isAssignable(((ExecutableElement) el).getReturnType(), typeElement.asType())) {
+                return (ExecutableElement) el;
+            }
+        }
+        return null;
+    }
 
-        method.beginControlFlow("switch ($L)", fieldName);
+    /**
+     * Resolves the name, aliases and serialization order of a property from the given mutator (a creator parameter
+     * or setter) together with any getter or field sharing its implicit name.
+     */
+    private Property linkProperty(Element mutator, String implicitName, @Nullable ExecutableElement setter,
+                                  int order, @Nullable UnaryOperator<String> namingStrategy) {
+        List<? extends Element> members = typeElement.getEnclosedElements();
+        String explicitName = getExplicitPropertyName(mutator);
+        Set<String> aliases = new LinkedHashSet<>(getAliases(mutator));
+        JsonFormat format = mutator.getAnnotation(JsonFormat.class);
+        int fieldOrder = order;
+        for (Element member : members) {
+            if (!implicitName.equals(implicitNameOf(member))) {
+                continue;
+            }
+            if (member.getKind() == ElementKind.METHOD) {
+                order = members.indexOf(member);
+            } else if (fieldOrder == Integer.MAX_VALUE) {
+                fieldOrder = members.indexOf(member);
+            }
+            if (explicitName == null) {
+                explicitName = getExplicitPropertyName(member);
+            }
+            if (format == null) {
+                format = member.getAnnotation(JsonFormat.class);
+            }
+            aliases.addAll(getAliases(member));
+        }
+        if (order == Integer.MAX_VALUE) {
+            order = fieldOrder;
+        }
 
-        for (ExecutableElement setter : setters) {
-            String propertyName = nameForSetter(setter);
-            method.addCode("case $S:\n$>", propertyName);
-            TypeMirror type = setter.getParameters().get(0).asType();
-            CodeBlock reader = valueHandler(type);
-            method.addStatement("$L.$L($L)", instanceName, setter.getSimpleName(), reader);
+        String name = explicitName;
+        if (name == null) {
+            name = (namingStrategy == null) ? implicitName : namingStrategy.apply(implicitName);
+        }
+        TypeMirror type = (setter == null) ? mutator.asType() : setter.getParameters().get(0).asType();
+        return new Property(name, List.copyOf(aliases), type, setter, order, format);
+    }
 
-            method.addStatement("break$<");
+    /**
+     * Returns the implicit property name of a getter, record accessor or field, or {@code null} for any other kind
+     * of member.
+     */
+    @Nullable
+    private String implicitNameOf(Element member) {
+        if (member.getKind() == ElementKind.FIELD) {
+            return member.getSimpleName().toString();
+        }
+        if (member.getKind() != ElementKind.METHOD || !((ExecutableElement) member).getParameters().isEmpty()) {
+            return null;
+        }
+        String methodName = member.getSimpleName().toString();
+        for (RecordComponentElement component : typeElement.getRecordComponents()) {
+            if (member.equals(component.getAccessor())) {
+                return methodName;
+            }
+        }
+        if (methodName.startsWith("get") && methodName.length() > 3) {
+            return nameForGetter(PropertyAccessor.GETTER, member);
+        }
+        if (methodName.startsWith("is") && methodName.length() > 2
+                && TypesUtils.isBooleanType(((ExecutableElement) member).getReturnType())) {
+            return nameForGetter(PropertyAccessor.IS_GETTER, member);
         }
+        return null;
+    }
 
-        method.addCode("default:\n$>");
-        method.beginControlFlow("if (!(ignoreUnknown || ignored.contains($L)))", fieldName);
-        method.addStatement("handleUnknownProperty(p, ctxt, $T.class, $L)", typeElement, fieldName);
+    private String serializedName(String fieldName) {
+        return serializedNames.computeIfAbsent(fieldName, name -> names.newName(constantName(name)));
+    }
+
+    /**
+     * Returns an expression reading a value of the given type from the current token, or a {@code null} literal if
+     * the type cannot be read at all (i.e. it involves type variables).
+     */
+    private CodeBlock valueHandler(TypeMirror type) {
+        CodeBlock reader = reader(type);
+        return (reader == null) ? CodeBlock.of("null") : reader;
+    }
+
+    @Nullable
+    private CodeBlock reader(TypeMirror type) {
+        if (TypesUtils.isPrimitive(type) || TypesUtils.isBoxedPrimitive(type)) {
+            TypeKind kind = TypesUtils.isBoxedPrimitive(type) ? types().unboxedType(type).getKind() : type.getKind();
+            String name = switch (kind) {
+                case BOOLEAN -> "Boolean";
+                case BYTE -> "Byte";
+                case SHORT -> "Short";
+                case INT -> "Int";
+                case LONG -> "Long";
+                case CHAR -> "Char";
+                case FLOAT -> "Float";
+                case DOUBLE -> "Double";
+                default -> throw new AssertionError("Encountered unknown primitive type: " + type.getKind());
+            };
+            return TypesUtils.isPrimitive(type)
+                    ? CodeBlock.of("$T.read$L(p, ctxt)", ScalarValues.class, name)
+                    : nullable(CodeBlock.of("$T.readBoxed$L(p, ctxt)", ScalarValues.class, name));
+        } else if (TypesUtils.isString(type)) {
+            return nullable(CodeBlock.of("$T.readString(p, ctxt)", ScalarValues.class));
+        } else if (isEnum(type)) {
+            TypeElement enumType = (TypeElement) types().asElement(type);
+            if (!deserializationConfig.isEnabled(DeserializationFeature.READ_ENUMS_USING_TO_STRING)
+                    && cache.isEnumReadByName(enumType)) {
+                return nullable(CodeBlock.of("$N(p, ctxt)", enumReader(enumType)));
+            }
+            return readThroughContext(type);
+        } else if (type.getKind() == TypeKind.ARRAY) {
+            String readMethod = arrayReader((ArrayType) type);
+            return (readMethod == null) ? readThroughContext(type) : CodeBlock.of("$N(p, ctxt)", readMethod);
+        } else if (type.getKind() == TypeKind.DECLARED) {
+            Class<?> timeType = getTimeType(type);
+            if (timeType != null) {
+                return timeReader(timeType, null);
+            } else if (TypesUtils.isDeclaredOfName(type, BigDecimal.class.getCanonicalName())) {
+                return nullable(CodeBlock.of("(p.currentToken().isNumeric() ? p.getDecimalValue() : ctxt.readValue(p, $T.class))",
+                        BigDecimal.class));
+            } else if (TypesUtils.isDeclaredOfName(type, BigInteger.class.getCanonicalName())) {
+                return nullable(CodeBlock.of("(p.hasToken($T.$L) ? p.getBigIntegerValue() : ctxt.readValue(p, $T.class))",
+                        JsonToken.class, JsonToken.VALUE_NUMBER_INT, BigInteger.class));
+            } else if (TypesUtils.isDeclaredOfName(type, UUID.class.getCanonicalName())) {
+                return nullable(CodeBlock.of("$T.readUuid(p, ctxt)", UuidValues.class));
+            } else if (getOptionalType(type) != null) {
+                return optionalReader(type);
+            }
+            ClassName deserializer = generatedDeserializerOf(type);
+            if (deserializer != null) {
+                return nullable(CodeBlock.of("$T.INSTANCE.deserialize(p, ctxt)", deserializer));
+            }
+            String readMethod = null;
+            if (isSubtype(type, Collection.class)) {
+                readMethod = collectionReader((DeclaredType) type);
+            } else if (isSubtype(type, Map.class)) {
+                readMethod = mapReader((DeclaredType) type);
+            }
+            return (readMethod == null) ? readThroughContext(type) : CodeBlock.of("$N(p, ctxt)", readMethod);
+        }
+        return null;
+    }
+
+    /**
+     * Reads a {@code java.time} value through {@link TimeValues}, parsing strings with a formatter precomputed for
+     * the {@code @JsonFormat} pattern, if any, and otherwise as ISO-8601. Timestamps are accepted whatever the shape.
+     */
+    private CodeBlock timeReader(Class<?> timeType, @Nullable JsonFormat format) {
+        if (timeType == Duration.class) {
+            return nullable(CodeBlock.of("$T.readDuration(p, ctxt)", TimeValues.class));
+        }
+        CodeBlock formatter = (format != null && hasTimePattern(format, timeType))
+                ? CodeBlock.of("$N", formatter(format, timeType))
+                : CodeBlock.of("null");
+        return nullable(CodeBlock.of("$T.read$L(p, ctxt, $L)", TimeValues.class, timeType.getSimpleName(), formatter));
+    }
+
+    /**
+     * Returns the name of the {@code static final DateTimeFormatter} constant for a {@code @JsonFormat} pattern,
+     * shared by the properties using the same one.
+     */
+    private String formatter(JsonFormat format, Class<?> timeType) {
+        CodeBlock initializer = formatterOf(format, timeType);
+        return formatters.computeIfAbsent(initializer.toString(), key -> {
+            String name = names.newName("FORMAT_" + formatters.size());
+            formatterFields.add(FieldSpec.builder(DateTimeFormatter.class, name,
+                            Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                    .initializer(initializer)
+                    .build());
+            return name;
+        });
+    }
+
+    /**
+     * Reads an optional as Jdk8Module does: {@code null} as empty, and anything else as the value it holds, reading
+     * which is subject to the same handling as that of any other value.
+     */
+    @Nullable
+    private CodeBlock optionalReader(TypeMirror type) {
+        Class<?> optionalType = getOptionalType(type);
+        CodeBlock valueReader = reader(cache.optionalValueType(type));
+        if (valueReader == null) {
+            return null;
+        }
+        return CodeBlock.of("(p.hasToken($T.$L) ? $L : $T.$L($L))", JsonToken.class, JsonToken.VALUE_NULL,
+                nullOptional(type), optionalType, (optionalType == Optional.class) ? "ofNullable" : "of", valueReader);
+    }
+
+    /**
+     * Returns the value of an optional read from {@code null}: empty, except that an optional of an optional holds
+     * the (empty) value its content reads from {@code null}.
+     */
+    private CodeBlock nullOptional(TypeMirror type) {
+        TypeMirror valueType = cache.optionalValueType(type);
+        if (getOptionalType(valueType) != null) {
+            return CodeBlock.of("$T.of($L)", Optional.class, nullOptional(valueType));
+        }
+        return CodeBlock.of("$T.empty()", getOptionalType(type));
+    }
+
+    private static CodeBlock nullable(CodeBlock reader) {
+        return CodeBlock.of("(p.hasToken($T.$L) ? null : $L)", JsonToken.class, JsonToken.VALUE_NULL, reader);
+    }
+
+    /**
+     * Falls back to reading the value through the context, using a precomputed {@code JavaType} for generic types.
+     */
+    @Nullable
+    private CodeBlock readThroughContext(TypeMirror type) {
+        if (containsTypeVariable(type)) {
+            return null;
+        }
+        if (types().isSameType(type, types().erasure(type))) {
+            return nullable(CodeBlock.of("ctxt.readValue(p, $T.class)", type));
+        }
+        String javaType = javaTypes.computeIfAbsent(type.toString(), key -> {
+            String name = names.newName(constantName(types().asElement(types().erasure(type)).getSimpleName() + "Type"));
+            javaTypeFields.add(FieldSpec.builder(JavaType.class, name, Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                    .initializer("$T.defaultInstance().constructType(new $T<$T>() {})",
+                            TypeFactory.class, TypeReference.class, type)
+                    .build());
+            return name;
+        });
+        return nullable(CodeBlock.of("ctxt.readValue(p, $N)", javaType));
+    }
+
+    /**
+     * Generates (once per array type) a method reading a JSON array. Primitive elements are collected through the
+     * context's reusable primitive array builders and object elements through its leased {@code ObjectBuffer}, so
+     * the only array allocated per value is the exactly sized result.
+     */
+    @Nullable
+    private String arrayReader(ArrayType type) {
+        TypeMirror componentType = type.getComponentType();
+        if (!componentType.getKind().isPrimitive() && !types().isSameType(componentType, types().erasure(componentType))) {
+            // Generic component types have no class literal to create the result array from
+            return null;
+        }
+        return readMethod(type, method -> {
+            TypeName arrayType = TypeName.get(type);
+            method.beginControlFlow("if (p.hasToken($T.$L))", JsonToken.class, JsonToken.VALUE_NULL);
+            method.addStatement("return null");
+            method.endControlFlow();
+            if (componentType.getKind() == TypeKind.BYTE) {
+                // Jackson writes byte[] as a Base64 string, but also accepts an array of numbers
+                method.beginControlFlow("if (!p.isExpectedStartArrayToken())");
+                method.addStatement("return $T.readBinary(p, ctxt)", ScalarValues.class);
+                method.endControlFlow();
+            } else if (componentType.getKind() == TypeKind.CHAR) {
+                method.addStatement("return $T.readChars(p, ctxt)", ScalarValues.class);
+                return;
+            }
+            method.beginControlFlow("if (!p.isExpectedStartArrayToken())");
+            method.addStatement("return ($T) ctxt.handleUnexpectedToken($T.class, p)", arrayType, arrayType);
+            method.endControlFlow();
+
+            CodeBlock elementReader = valueHandler(componentType);
+            if (componentType.getKind().isPrimitive()) {
+                String kind = componentType.getKind().name();
+                String builderName = kind.charAt(0) + kind.substring(1).toLowerCase(Locale.ROOT) + "Builder";
+                method.addStatement("$T builder = ctxt.getArrayBuilders().get$L()",
+                        ClassName.get(ArrayBuilders.class).nestedClass(builderName), builderName);
+                method.addStatement("$T chunk = builder.resetAndStart()", arrayType);
+                method.addStatement("int ix = 0");
+                // As Jackson, null elements are read as the default value (or rejected with FAIL_ON_NULL_FOR_PRIMITIVES)
+                // by the element reader, and failures are reported with the element's index
+                method.beginControlFlow("try");
+                method.beginControlFlow("while (p.nextToken() != $T.$L)", JsonToken.class, JsonToken.END_ARRAY);
+                method.addStatement("$T value = $L", componentType, elementReader);
+                method.beginControlFlow("if (ix >= chunk.length)");
+                method.addStatement("chunk = builder.appendCompletedChunk(chunk, ix)");
+                method.addStatement("ix = 0");
+                method.endControlFlow();
+                method.addStatement("chunk[ix++] = value");
+                method.endControlFlow();
+                method.nextControlFlow("catch ($T e)", Exception.class);
+                method.addStatement("throw $T.wrapWithPath(e, chunk, builder.bufferedSize() + ix)",
+                        JsonMappingException.class);
+                method.endControlFlow();
+                method.addStatement("return builder.completeAndClearBuffer(chunk, ix)");
+            } else {
+                addBufferedRead(method, elementReader, CodeBlock.of("$T.wrapWithPath(e, chunk, buffer.bufferedSize() + ix)",
+                        JsonMappingException.class));
+                method.addStatement("$T result = buffer.completeAndClearBuffer(chunk, ix, $T.class)",
+                        arrayType, types().erasure(componentType));
+                method.addStatement("ctxt.returnObjectBuffer(buffer)");
+                method.addStatement("return result");
+            }
+        });
+    }
+
+    /**
+     * Generates (once per collection type) a method reading a JSON array into the declared collection type, or the
+     * type Jackson would default to for an abstract one. Array lists are buffered first, so that they can be
+     * allocated at their final size instead of growing repeatedly, and filled straight from the buffer's chunks; other
+     * collections are added to as their elements are read.
+     */
+    @Nullable
+    private String collectionReader(DeclaredType type) {
+        TypeElement concreteType = concreteTypeOf(type, ArrayList.class, HashSet.class, TreeSet.class, LinkedList.class);
+        TypeMirror elementType = cache.typeArgumentOf(type, Collection.class, 0);
+        if (concreteType == null || containsTypeVariable(elementType)) {
+            return null;
+        }
+        return readMethod(type, method -> {
+            method.addAnnotation(AnnotationSpec.builder(SuppressWarnings.class)
+                    .addMember("value", "$S", "unchecked")
+                    .build());
+            method.beginControlFlow("if (p.hasToken($T.$L))", JsonToken.class, JsonToken.VALUE_NULL);
+            method.addStatement("return null");
+            method.endControlFlow();
+            method.beginControlFlow("if (!p.isExpectedStartArrayToken())");
+            method.addStatement("return ($T) ctxt.handleUnexpectedToken($T.class, p)", type, types().erasure(type));
+            method.endControlFlow();
+
+            TypeName resultType = concreteTypeName(type, concreteType, elementType);
+            CodeBlock elementReader = valueHandler(elementType);
+            if (concreteType.getQualifiedName().contentEquals(ArrayList.class.getName())) {
+                addBufferedRead(method, elementReader, CodeBlock.of("$T.wrapElement(e, ctxt, $T.class, buffer.bufferedSize() + ix)",
+                        PropertyErrors.class, ClassName.get(concreteType)));
+                method.addStatement("$T result = new $T<>(buffer.bufferedSize() + ix)", resultType,
+                        ClassName.get(concreteType));
+                method.addStatement("buffer.completeAndClearBuffer(chunk, ix, ($T<$T>) ($T<?>) result)",
+                        List.class, Object.class, List.class);
+                method.addStatement("ctxt.returnObjectBuffer(buffer)");
+            } else {
+                method.addStatement("$T result = $L", resultType, newInstance(concreteType));
+                method.beginControlFlow("while (p.nextToken() != $T.$L)", JsonToken.class, JsonToken.END_ARRAY);
+                method.beginControlFlow("try");
+                method.addStatement("result.add($L)", elementReader);
+                method.nextControlFlow("catch ($T e)", Exception.class);
+                method.addStatement("throw $T.wrapElement(e, ctxt, result, result.size())", PropertyErrors.class);
+                method.endControlFlow();
+                method.endControlFlow();
+            }
+            method.addStatement("return result");
+        });
+    }
+
+    /**
+     * Generates (once per map type) a method reading a JSON object into the declared map type, or the type Jackson
+     * would default to for an abstract one. Only keys that can be converted without a {@code KeyDeserializer} lookup
+     * (strings, boxed primitives, enums and UUIDs) are supported; other maps are read through the context.
+     */
+    @Nullable
+    private String mapReader(DeclaredType type) {
+        TypeElement concreteType = concreteTypeOf(type, LinkedHashMap.class, TreeMap.class, ConcurrentHashMap.class);
+        TypeMirror keyType = cache.typeArgumentOf(type, Map.class, 0);
+        TypeMirror valueType = cache.typeArgumentOf(type, Map.class, 1);
+        CodeBlock keyReader = keyReader(keyType);
+        if (concreteType == null || keyReader == null || containsTypeVariable(valueType)) {
+            return null;
+        }
+        return readMethod(type, method -> {
+            method.addAnnotation(AnnotationSpec.builder(SuppressWarnings.class)
+                    .addMember("value", "$S", "unchecked")
+                    .build());
+            method.beginControlFlow("if (p.hasToken($T.$L))", JsonToken.class, JsonToken.VALUE_NULL);
+            method.addStatement("return null");
+            method.endControlFlow();
+            method.beginControlFlow("if (!p.isExpectedStartObjectToken())");
+            method.addStatement("return ($T) ctxt.handleUnexpectedToken($T.class, p)", type, types().erasure(type));
+            method.endControlFlow();
+
+            method.addStatement("$T result = $L", concreteTypeName(type, concreteType, keyType, valueType),
+                    newInstance(concreteType));
+            method.beginControlFlow("for ($T key = p.nextFieldName(); key != null; key = p.nextFieldName())", String.class);
+            method.addStatement("p.nextToken()");
+            method.addStatement("$T mapKey = $L", keyType, keyReader);
+            method.beginControlFlow("try");
+            method.addStatement("result.put(mapKey, $L)", valueHandler(valueType));
+            method.nextControlFlow("catch ($T e)", Exception.class);
+            method.addStatement("throw $T.wrapEntry(e, ctxt, result, key)", PropertyErrors.class);
+            method.endControlFlow();
+            method.endControlFlow();
+            method.addStatement("return result");
+        });
+    }
+
+    @Nullable
+    private CodeBlock keyReader(TypeMirror keyType) {
+        if (TypesUtils.isString(keyType) || TypesUtils.isObject(keyType)) {
+            return CodeBlock.of("key");
+        } else if (TypesUtils.isBoxedPrimitive(keyType)
+                || TypesUtils.isDeclaredOfName(keyType, UUID.class.getCanonicalName())) {
+            return CodeBlock.of("$N(key, ctxt)", scalarKeyReader((TypeElement) types().asElement(keyType)));
+        } else if (isEnum(keyType) && cache.isEnumReadByName((TypeElement) types().asElement(keyType))) {
+            return CodeBlock.of("$N(key, ctxt)", enumKeyReader((TypeElement) types().asElement(keyType)));
+        }
+        return null;
+    }
+
+    /**
+     * Adds a method reading an enum constant from its (possibly renamed) name or an alias, or from its index as a
+     * number or a string of digits, resolving unknown values the way Jackson does without going through
+     * {@code valueOf} and its exceptions.
+     */
+    private String enumReader(TypeElement enumType) {
+        String matcher = enumMatcher(enumType);
+        return readMethod(enumType.asType(), method -> {
+            List<VariableElement> constants = cache.enumConstants(enumType);
+            method.beginControlFlow("if (p.hasToken($T.$L))", JsonToken.class, JsonToken.VALUE_STRING);
+            method.addStatement("$T value = $N(p.getText())", enumType, matcher);
+            method.beginControlFlow("if (value != null)");
+            method.addStatement("return value");
+            method.endControlFlow();
+            method.beginControlFlow("if (!ctxt.isEnabled($T.$L))",
+                    DeserializationFeature.class, DeserializationFeature.FAIL_ON_NUMBERS_FOR_ENUMS);
+            method.addStatement("int index = $T.parseEnumIndex(p.getText())", ScalarValues.class);
+            method.beginControlFlow("if (index >= 0 && !ctxt.isEnabled($T.$L))",
+                    MapperFeature.class, MapperFeature.ALLOW_COERCION_OF_SCALARS);
+            method.addStatement("return ($T) ctxt.handleWeirdStringValue($T.class, p.getText().trim(), $S)",
+                    enumType, enumType, "value looks like quoted Enum index, but "
+                            + "`MapperFeature.ALLOW_COERCION_OF_SCALARS` prevents use");
+            method.endControlFlow();
+            addIndexSwitch(method, "index", constants, enumType);
+            method.endControlFlow();
+            method.nextControlFlow("else if (p.hasToken($T.$L))", JsonToken.class, JsonToken.VALUE_NUMBER_INT);
+            method.beginControlFlow("if (ctxt.isEnabled($T.$L))",
+                    DeserializationFeature.class, DeserializationFeature.FAIL_ON_NUMBERS_FOR_ENUMS);
+            method.addStatement("return ($T) ctxt.handleWeirdNumberValue($T.class, p.getNumberValue(), $S)",
+                    enumType, enumType, "not allowed to deserialize Enum value out of number: disable "
+                            + "DeserializationConfig.DeserializationFeature.FAIL_ON_NUMBERS_FOR_ENUMS to allow");
+            method.endControlFlow();
+            addIndexSwitch(method, "p.getIntValue()", constants, enumType);
+            method.nextControlFlow("else");
+            method.addStatement("return ($T) ctxt.handleUnexpectedToken($T.class, p)", enumType, enumType);
+            method.endControlFlow();
+
+            VariableElement defaultConstant = constants.stream()
+                    .filter(constant -> constant.getAnnotation(JsonEnumDefaultValue.class) != null)
+                    .findFirst()
+                    .orElse(null);
+            if (defaultConstant != null) {
+                method.beginControlFlow("if (ctxt.isEnabled($T.$L))", DeserializationFeature.class,
+                        DeserializationFeature.READ_UNKNOWN_ENUM_VALUES_USING_DEFAULT_VALUE);
+                method.addStatement("return $T.$L", enumType, defaultConstant.getSimpleName());
+                method.endControlFlow();
+            }
+            method.beginControlFlow("if (ctxt.isEnabled($T.$L))",
+                    DeserializationFeature.class, DeserializationFeature.READ_UNKNOWN_ENUM_VALUES_AS_NULL);
+            method.addStatement("return null");
+            method.endControlFlow();
+            method.beginControlFlow("if (p.hasToken($T.$L))", JsonToken.class, JsonToken.VALUE_NUMBER_INT);
+            method.addStatement("return ($T) ctxt.handleWeirdNumberValue($T.class, p.getNumberValue(), $S, $L)",
+                    enumType, enumType, "index value outside legal index range [0..%s]", constants.size() - 1);
+            method.endControlFlow();
+            method.addStatement("return ($T) ctxt.handleWeirdStringValue($T.class, p.getText().trim(), $S, $S)",
+                    enumType, enumType, "not one of the values accepted for Enum class: %s",
+                    enumNames(enumType).keySet().toString());
+        });
+    }
+
+    private static void addIndexSwitch(MethodSpec.Builder method, String index, List<VariableElement> constants,
+            TypeElement enumType) {
+        method.beginControlFlow("switch ($L)", index);
+        for (int i = 0; i < constants.size(); i++) {
+            method.addCode("case $L:\n$>", i);
+            method.addStatement("return $T.$L$<", enumType, constants.get(i).getSimpleName());
+        }
         method.endControlFlow();
+    }
+
+    /**
+     * Adds a method converting a map key to a boxed primitive or UUID, reporting keys that cannot be converted through
+     * {@link DeserializationContext#handleWeirdKey} as Jackson's {@code StdKeyDeserializer} does.
+     */
+    private String scalarKeyReader(TypeElement keyType) {
+        return readMethods.computeIfAbsent("key:" + keyType.getQualifiedName(), key -> {
+            String methodName = names.newName("read" + keyType.getSimpleName() + "Key");
+            MethodSpec.Builder method = MethodSpec.methodBuilder(methodName)
+                    .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+                    .returns(ClassName.get(keyType))
+                    .addParameter(String.class, "key")
+                    .addParameter(DeserializationContext.class, "ctxt")
+                    .addException(IOException.class);
+            TypeKind kind = TypesUtils.isBoxedPrimitive(keyType.asType())
+                    ? types().unboxedType(keyType.asType()).getKind()
+                    : TypeKind.DECLARED;
+            if (kind == TypeKind.CHAR) {
+                method.beginControlFlow("if (key.length() == 1)");
+                method.addStatement("return key.charAt(0)");
+                method.endControlFlow();
+            } else if (kind == TypeKind.BOOLEAN) {
+                // Unlike Boolean.valueOf, Jackson takes nothing but "true" and "false"
+                method.beginControlFlow("if (key.equals($S))", "true");
+                method.addStatement("return $T.TRUE", Boolean.class);
+                method.nextControlFlow("else if (key.equals($S))", "false");
+                method.addStatement("return $T.FALSE", Boolean.class);
+                method.endControlFlow();
+            } else {
+                method.beginControlFlow("try");
+                method.addStatement("return $T.$L(key)", keyType, (kind == TypeKind.DECLARED) ? "fromString" : "valueOf");
+                method.nextControlFlow("catch ($T e)", IllegalArgumentException.class);
+                method.addStatement("return ($T) ctxt.handleWeirdKey($T.class, key, $S, e.getClass().getName(), "
+                        + "e.getMessage())", keyType, keyType, "not a valid representation, problem: (%s) %s");
+                method.endControlFlow();
+                readMethodSpecs.add(method.build());
+                return methodName;
+            }
+            method.addStatement("return ($T) ctxt.handleWeirdKey($T.class, key, $S)",
+                    keyType, keyType, "not a valid representation");
+            readMethodSpecs.add(method.build());
+            return methodName;
+        });
+    }
+
+    /**
+     * Adds a method resolving a map key to an enum constant.
+     */
+    private String enumKeyReader(TypeElement enumType) {
+        String matcher = enumMatcher(enumType);
+        return readMethods.computeIfAbsent("key:" + enumType.getQualifiedName(), key -> {
+            String methodName = names.newName("read" + enumType.getSimpleName() + "Key");
+            readMethodSpecs.add(MethodSpec.methodBuilder(methodName)
+                    .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+                    .returns(ClassName.get(enumType))
+                    .addParameter(String.class, "key")
+                    .addParameter(DeserializationContext.class, "ctxt")
+                    .addException(IOException.class)
+                    .addStatement("$T value = $N(key)", enumType, matcher)
+                    .addStatement("return (value != null) ? value : ($T) ctxt.handleWeirdKey($T.class, key, $S, $S)",
+                            enumType, enumType, "not one of the values accepted for Enum class: %s",
+                            enumNames(enumType).keySet().toString())
+                    .build());
+            return methodName;
+        });
+    }
+
+    /**
+     * Adds a method mapping the names of an enum's constants to the constants, or {@code null} if unknown.
+     */
+    private String enumMatcher(TypeElement enumType) {
+        return readMethods.computeIfAbsent("match:" + enumType.getQualifiedName(), key -> {
+            String methodName = names.newName("match" + enumType.getSimpleName());
+            NameMatcher.Builder matcher = NameMatcher.builder().withDefault(CodeBlock.of("null"));
+            for (Map.Entry<String, VariableElement> entry : enumNames(enumType).entrySet()) {
+                matcher.withName(entry.getKey(), CodeBlock.of("$T.$L", enumType, entry.getValue().getSimpleName()));
+            }
+            readMethodSpecs.add(matcher.build().generate(methodName, ClassName.get(enumType)));
+            return methodName;
+        });
+    }
+
+    /**
+     * Returns every name an enum constant is accepted under: its name (or {@code @JsonProperty} rename) followed by
+     * any {@code @JsonAlias}es.
+     */
+    private Map<String, VariableElement> enumNames(TypeElement enumType) {
+        Map<String, VariableElement> names = new LinkedHashMap<>();
+        List<VariableElement> constants = cache.enumConstants(enumType);
+        for (VariableElement constant : constants) {
+            String name = getExplicitPropertyName(constant);
+            names.put((name == null) ? constant.getSimpleName().toString() : name, constant);
+        }
+        for (VariableElement constant : constants) {
+            for (String alias : getAliases(constant)) {
+                names.putIfAbsent(alias, constant);
+            }
+        }
+        return names;
+    }
+
+    private boolean isEnum(TypeMirror type) {
+        return type.getKind() == TypeKind.DECLARED && types().asElement(type).getKind() == ElementKind.ENUM;
+    }
 
+    /**
+     * Adds a loop reading the elements of the current JSON array into the context's leased {@code ObjectBuffer},
+     * leaving {@code buffer}, the last {@code chunk} and its fill level {@code ix} for the caller to complete. A
+     * failure to read an element, {@code e}, is thrown as the given {@code failure} expression.
+     */
+    private static void addBufferedRead(MethodSpec.Builder method, CodeBlock elementReader, CodeBlock failure) {
+        method.addStatement("$T buffer = ctxt.leaseObjectBuffer()", ObjectBuffer.class);
+        method.addStatement("$T[] chunk = buffer.resetAndStart()", Object.class);
+        method.addStatement("int ix = 0");
+        method.beginControlFlow("try");
+        method.beginControlFlow("while (p.nextToken() != $T.$L)", JsonToken.class, JsonToken.END_ARRAY);
+        method.addStatement("$T value = $L", Object.class, elementReader);
+        method.beginControlFlow("if (ix >= chunk.length)");
+        method.addStatement("chunk = buffer.appendCompletedChunk(chunk)");
+        method.addStatement("ix = 0");
         method.endControlFlow();
+        method.addStatement("chunk[ix++] = value");
         method.endControlFlow();
-        method.addStatement("$L = p.nextToken()", tokenName);
+        method.nextControlFlow("catch ($T e)", Exception.class);
+        method.addStatement("throw $L", failure);
         method.endControlFlow();
+    }
 
-        method.addStatement("return $L", instanceName);
+    /**
+     * Returns the name of the {@code static} method reading the given type, generating it through {@code body} the
+     * first time the type is encountered.
+     */
+    private String readMethod(TypeMirror type, Consumer<MethodSpec.Builder> body) {
+        String existing = readMethods.get(type.toString());
+        if (existing != null) {
+            return existing;
+        }
+        String simpleName = simpleNameOf(type);
+        String name = names.newName("read" + Character.toUpperCase(simpleName.charAt(0)) + simpleName.substring(1));
+        readMethods.put(type.toString(), name);
 
-        return method.build();
+        MethodSpec.Builder method = MethodSpec.methodBuilder(name)
+                .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+                .returns(TypeName.get(type))
+                .addParameter(JsonParser.class, "p")
+                .addParameter(DeserializationContext.class, "ctxt")
+                .addException(IOException.class);
+        body.accept(method);
+        readMethodSpecs.add(method.build());
+        return name;
     }
 
-    private CodeBlock valueHandler(TypeMirror type) {
-        if (TypesUtils.isPrimitive(type) || TypesUtils.isBoxedPrimitive(type)) {
-            TypeKind kind = TypesUtils.isBoxedPrimitive(type) ? types().unboxedType(type).getKind() : type.getKind();
-            return switch (kind) {
-                case BOOLEAN -> CodeBlock.of("p.getBooleanValue()");
-                case BYTE -> CodeBlock.of("p.getByteValue()");
-                case SHORT -> CodeBlock.of("p.getShortValue()");
-                case INT -> CodeBlock.of("p.getIntValue()");
-                case LONG -> CodeBlock.of("p.getLongValue()");
-                case CHAR -> CodeBlock.of("p.getCharValue()");
-                case FLOAT -> CodeBlock.of("p.getFloatValue()");
-                case DOUBLE -> CodeBlock.of("p.getDoubleValue()");
-                default -> throw new AssertionError("Encountered unknown primitive type: " + type.getKind());
-            };
-        } else if (TypesUtils.isString(type)) {
-            return CodeBlock.of("p.getText()");
-        } else if (types().isAssignable(type,
-                types().erasure(elements().getTypeElement(Enum.class.getCanonicalName()).asType()))) {
-            if (!deserializationConfig.isEnabled(DeserializationFeature.READ_ENUMS_USING_TO_STRING)) {
-                return CodeBlock.of("$T.valueOf(p.getText())", type);
+    private String simpleNameOf(TypeMirror type) {
+        if (type.getKind().isPrimitive()) {
+            return type.getKind().name().toLowerCase(Locale.ROOT);
+        } else if (type.getKind() == TypeKind.ARRAY) {
+            return simpleNameOf(((ArrayType) type).getComponentType()) + "Array";
+        }
+        StringBuilder name = new StringBuilder();
+        if (type.getKind() == TypeKind.DECLARED) {
+            for (TypeMirror argument : ((DeclaredType) type).getTypeArguments()) {
+                if (argument.getKind() == TypeKind.WILDCARD) {
+                    TypeMirror bound = ((WildcardType) argument).getExtendsBound();
+                    argument = (bound == null) ? objectType() : bound;
+                }
+                String argumentName = simpleNameOf(argument);
+                name.append(Character.toUpperCase(argumentName.charAt(0))).append(argumentName.substring(1));
+            }
+        }
+        return name.append(types().asElement(type).getSimpleName()).toString();
+    }
+
+    /**
+     * Returns the type to instantiate for the given collection / map type: the type itself if it is a concrete class
+     * with a public no-args constructor, otherwise the first of the given defaults assignable to it.
+     */
+    @Nullable
+    private TypeElement concreteTypeOf(DeclaredType type, Class<?>... defaults) {
+        TypeElement element = (TypeElement) type.asElement();
+        if (element.getKind() == ElementKind.CLASS && !element.getModifiers().contains(Modifier.ABSTRACT)) {
+            for (Element member : element.getEnclosedElements()) {
+                if (member.getKind() == ElementKind.CONSTRUCTOR && member.getModifiers().contains(Modifier.PUBLIC)
+                        && ((ExecutableElement) member).getParameters().isEmpty()) {
+                    return element;
+                }
+            }
+            return null;
+        }
+        for (Class<?> defaultType : defaults) {
+            TypeMirror defaultErasure = cache.erasure(defaultType);
+            if (types().isAssignable(defaultErasure, types().erasure(type))) {
+                return (TypeElement) types().asElement(defaultErasure);
             }
         }
-        return CodeBlock.of("null");
+        return null;
     }
 
-    private List<VariableElement> getEnumConstants(TypeMirror type) {
-        List<VariableElement> enumValues = new ArrayList<>();
-        for (Element e : elements().getAllMembers((TypeElement) types().asElement(type))) {
-            if (e.getKind() == ElementKind.ENUM_CONSTANT) {
-                enumValues.add((VariableElement) e);
+    private TypeName concreteTypeName(DeclaredType type, TypeElement concreteType, TypeMirror... typeArguments) {
+        if (concreteType.getTypeParameters().size() != typeArguments.length) {
+            return TypeName.get(type);
+        }
+        TypeName[] arguments = new TypeName[typeArguments.length];
+        for (int i = 0; i < typeArguments.length; i++) {
+            arguments[i] = boxedTypeName(typeArguments[i]);
+        }
+        return ParameterizedTypeName.get(ClassName.get(concreteType), arguments);
+    }
+
+    private static CodeBlock newInstance(TypeElement concreteType) {
+        return concreteType.getTypeParameters().isEmpty()
+                ? CodeBlock.of("new $T()", ClassName.get(concreteType))
+                : CodeBlock.of("new $T<>()", ClassName.get(concreteType));
+    }
+
+    private static TypeName boxedTypeName(TypeMirror type) {
+        return TypeName.get(type).box();
+    }
+
+    private boolean containsTypeVariable(TypeMirror type) {
+        return switch (type.getKind()) {
+            case TYPEVAR -> true;
+            case ARRAY -> containsTypeVariable(((ArrayType) type).getComponentType());
+            case WILDCARD -> {
+                WildcardType wildcard = (WildcardType) type;
+                yield (wildcard.getExtendsBound() != null && containsTypeVariable(wildcard.getExtendsBound()))
+                        || (wildcard.getSuperBound() != null && containsTypeVariable(wildcard.getSuperBound()));
             }
+            case DECLARED -> ((DeclaredType) type).getTypeArguments().stream().anyMatch(this::containsTypeVariable);
+            default -> false;
+        };
+    }
+
+    private boolean isSubtype(TypeMirror type, Class<?> superType) {
+        return cache.isSubtype(type, superType);
+    }
+
+    private TypeMirror objectType() {
+        return cache.objectType();
+    }
+
+    /**
+     * Returns the deserializer generated for the given type if it is itself an {@link AutoSerde} type in this
+     * compilation, or {@code null} if it has to be deserialized through the context.
+     */
+    @Nullable
+    private ClassName generatedDeserializerOf(TypeMirror type) {
+        TypeElement element = (TypeElement) types().asElement(type);
+        AutoSerde anno = element.getAnnotation(AutoSerde.class);
+        if (anno == null || anno.value() == AutoSerde.AutoGenerate.SERIALIZER
+                || (cache.hasTypeInfo(element) && cache.polymorphicType(element) == null)) {
+            return null;
         }
-        return enumValues;
+        return getDeserializerName(element, elements());
+    }
+
+    private static boolean isAbstract(TypeElement element) {
+        return element.getKind() == ElementKind.INTERFACE || element.getModifiers().contains(Modifier.ABSTRACT);
+    }
+
+    private static List<String> getAliases(Element element) {
+        JsonAlias anno = element.getAnnotation(JsonAlias.class);
+        return (anno == null) ? List.of() : List.of(anno.value());
+    }
+
+    private boolean failOnUnknownProperties() {
+        return deserializationConfig.isEnabled(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
     }
 
     private JsonIgnoreProperties.Value getIgnoredProperties() {
-        JsonIgnoreProperties anno = typeElement.getAnnotation(JsonIgnoreProperties.class);
+        JsonIgnoreProperties.Value value = getIgnoredProperties(typeElement);
+        return (builderElement == null) ? value : JsonIgnoreProperties.Value.merge(value, getIgnoredProperties(builderElement));
+    }
+
+    private static JsonIgnoreProperties.Value getIgnoredProperties(TypeElement element) {
+        JsonIgnoreProperties anno = element.getAnnotation(JsonIgnoreProperties.class);
         if (anno == null) {
             return JsonIgnoreProperties.Value.empty();
         }
@@ -254,4 +2168,7 @@ public final class DeserializerGenerator {
     private Types types() {
         return processingEnv.getTypeUtils();
     }
+
+    private record Property(String name, List<String> aliases, TypeMirror type,
+                            @Nullable ExecutableElement setter, int order, @Nullable JsonFormat format) {}
 }
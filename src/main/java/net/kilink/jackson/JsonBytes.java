@@ -0,0 +1,386 @@
+package net.kilink.jackson;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The input of a {@link ByteReader}: a cursor over UTF-8 encoded JSON, read by the code generated for one specific
+ * type. Only JSON as written by the generated serializers is accepted; on anything else, including valid JSON in a
+ * form not handled here, the methods throw a preallocated exception without a stack trace, upon which the reader
+ * falls back to the deserializer. Whitespace is skipped between tokens.
+ */
+public final class JsonBytes {
+
+    private static final UnhandledInput UNHANDLED = new UnhandledInput();
+
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private final byte[] bytes;
+    private final int end;
+    private int pos;
+
+    JsonBytes(byte[] bytes, int offset, int length) {
+        if (offset < 0 || length < 0 || offset + length > bytes.length) {
+            throw new IndexOutOfBoundsException("Invalid offset " + offset + " and length " + length
+                    + " for " + bytes.length + " bytes");
+        }
+        this.bytes = bytes;
+        this.pos = offset;
+        this.end = offset + length;
+    }
+
+    /**
+     * Encodes property names once, for {@link #name(byte[][], int)}, escaped as written by the generator.
+     */
+    public static byte[][] names(String... names) {
+        byte[][] encoded = new byte[names.length][];
+        for (int i = 0; i < names.length; i++) {
+            encoded[i] = JsonStringEncoder.getInstance().quoteAsUTF8(names[i]);
+        }
+        return encoded;
+    }
+
+    /**
+     * Consumes the start of an object, and if empty its end as well; returns whether it has a property, the input
+     * then being positioned on its name.
+     */
+    public boolean startObject() {
+        skipWhitespace();
+        expect('{');
+        skipWhitespace();
+        if (peek() == '}') {
+            pos++;
+            return false;
+        }
+        if (peek() != '"') {
+            throw UNHANDLED;
+        }
+        return true;
+    }
+
+    /**
+     * Consumes a property name and the following colon, returning the index of the matching name, which is first
+     * compared to the {@code expected} one: that following the last property read, when the properties come in the
+     * order they are written.
+     */
+    public int name(byte[][] names, int expected) {
+        pos++;
+        int index = -1;
+        if (expected < names.length && matches(names[expected])) {
+            index = expected;
+        } else {
+            for (int i = 0; i < names.length; i++) {
+                if (i != expected && matches(names[i])) {
+                    index = i;
+                    break;
+                }
+            }
+        }
+        if (index < 0) {
+            throw UNHANDLED;
+        }
+        pos += names[index].length + 1;
+        skipWhitespace();
+        expect(':');
+        skipWhitespace();
+        return index;
+    }
+
+    private boolean matches(byte[] name) {
+        int length = name.length;
+        if (pos + length >= end || bytes[pos + length] != '"') {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (bytes[pos + i] != name[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Consumes the separator following a property value; returns whether another property follows (the input then
+     * being positioned on its name), or {@code false} once the end of the object has been consumed.
+     */
+    public boolean nextProperty() {
+        skipWhitespace();
+        byte next = peek();
+        pos++;
+        if (next == '}') {
+            return false;
+        }
+        if (next != ',') {
+            throw UNHANDLED;
+        }
+        skipWhitespace();
+        if (peek() != '"') {
+            throw UNHANDLED;
+        }
+        return true;
+    }
+
+    /**
+     * Consumes a {@code null} literal if there is one.
+     */
+    public boolean readNull() {
+        if (pos + 4 <= end && bytes[pos] == 'n' && bytes[pos + 1] == 'u' && bytes[pos + 2] == 'l'
+                && bytes[pos + 3] == 'l') {
+            pos += 4;
+            return true;
+        }
+        return false;
+    }
+
+    public boolean readBoolean() {
+        if (pos + 4 <= end && bytes[pos] == 't' && bytes[pos + 1] == 'r' && bytes[pos + 2] == 'u'
+                && bytes[pos + 3] == 'e') {
+            pos += 4;
+            return true;
+        }
+        if (pos + 5 <= end && bytes[pos] == 'f' && bytes[pos + 1] == 'a' && bytes[pos + 2] == 'l'
+                && bytes[pos + 3] == 's' && bytes[pos + 4] == 'e') {
+            pos += 5;
+            return false;
+        }
+        throw UNHANDLED;
+    }
+
+    public byte readByte() {
+        int value = readInt();
+        if (value < Byte.MIN_VALUE || value > Byte.MAX_VALUE) {
+            throw UNHANDLED;
+        }
+        return (byte) value;
+    }
+
+    public short readShort() {
+        int value = readInt();
+        if (value < Short.MIN_VALUE || value > Short.MAX_VALUE) {
+            throw UNHANDLED;
+        }
+        return (short) value;
+    }
+
+    public int readInt() {
+        long value = readLong();
+        if (value != (int) value) {
+            throw UNHANDLED;
+        }
+        return (int) value;
+    }
+
+    /**
+     * Reads an integer of up to 18 digits, longer ones being left to the deserializer along with fractions and
+     * exponents.
+     */
+    public long readLong() {
+        boolean negative = peek() == '-';
+        if (negative) {
+            pos++;
+        }
+        int start = pos;
+        long value = 0;
+        while (pos < end) {
+            int digit = bytes[pos] - '0';
+            if (digit < 0 || digit > 9) {
+                break;
+            }
+            value = value * 10 + digit;
+            pos++;
+        }
+        checkIntegerPart(start);
+        if (pos - start > 18 || (pos < end && isFractionOrExponent(bytes[pos]))) {
+            throw UNHANDLED;
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * Reads a number whose decimal significand has at most 15 digits and whose exponent, once the decimal point is
+     * moved past the last digit, is within 22 in magnitude: the significand and the power of ten are then both exact
+     * doubles, so a single multiplication or division rounds correctly, to the same value as
+     * {@link Double#parseDouble(String)}. Other numbers are left to the deserializer.
+     */
+    public double readDouble() {
+        boolean negative = peek() == '-';
+        if (negative) {
+            pos++;
+        }
+        int start = pos;
+        long significand = 0;
+        int digits = 0;
+        while (pos < end && isDigit(bytes[pos])) {
+            significand = appendDigit(significand, bytes[pos++]);
+            digits += (significand == 0) ? 0 : 1;
+        }
+        checkIntegerPart(start);
+        boolean integral = true;
+        int exponent = 0;
+        if (pos < end && bytes[pos] == '.') {
+            pos++;
+            int fractionStart = pos;
+            while (pos < end && isDigit(bytes[pos])) {
+                significand = appendDigit(significand, bytes[pos++]);
+                digits += (significand == 0) ? 0 : 1;
+            }
+            if (pos == fractionStart) {
+                throw UNHANDLED;
+            }
+            integral = false;
+            exponent = fractionStart - pos;
+        }
+        if (pos < end && (bytes[pos] == 'e' || bytes[pos] == 'E')) {
+            pos++;
+            boolean negativeExponent = peek() == '-';
+            if (negativeExponent || peek() == '+') {
+                pos++;
+            }
+            int exponentStart = pos;
+            int explicitExponent = 0;
+            while (pos < end && isDigit(bytes[pos]) && pos - exponentStart < 3) {
+                explicitExponent = explicitExponent * 10 + (bytes[pos++] - '0');
+            }
+            if (pos == exponentStart || (pos < end && isDigit(bytes[pos]))) {
+                throw UNHANDLED;
+            }
+            integral = false;
+            exponent += negativeExponent ? -explicitExponent : explicitExponent;
+        }
+        if (digits > 15) {
+            throw UNHANDLED;
+        }
+        if (integral) {
+            // Read as an integer by the parser, so that -0 is 0.0
+            return negative ? -significand : significand;
+        }
+        // Checked for zero too, which would otherwise accept fractions of any length
+        if (exponent < -22 || exponent > 22) {
+            throw UNHANDLED;
+        }
+        double value = (exponent < 0)
+                ? significand / POWERS_OF_TEN[-exponent]
+                : significand * POWERS_OF_TEN[exponent];
+        return negative ? -value : value;
+    }
+
+    /**
+     * Reads a string without escapes, the only kind the generator never writes differently, or a {@code null}
+     * literal.
+     */
+    public String readString() {
+        if (readNull()) {
+            return null;
+        }
+        expect('"');
+        int start = pos;
+        boolean ascii = true;
+        while (true) {
+            if (pos >= end) {
+                throw UNHANDLED;
+            }
+            byte b = bytes[pos];
+            if (b == '"') {
+                break;
+            }
+            if (b == '\\' || (b >= 0 && b < 0x20)) {
+                throw UNHANDLED;
+            }
+            ascii &= b >= 0;
+            pos++;
+        }
+        int length = pos - start;
+        pos++;
+        if (ascii) {
+            return new String(bytes, start, length, StandardCharsets.ISO_8859_1);
+        }
+        String value = new String(bytes, start, length, StandardCharsets.UTF_8);
+        // Malformed input is decoded to replacement characters, whereas the parser reports it
+        if (value.indexOf('\uFFFD') >= 0) {
+            throw UNHANDLED;
+        }
+        return value;
+    }
+
+    /**
+     * Returns the exception to throw for the input to be read by the deserializer instead, e.g. when the constructor
+     * or a setter of the type read fails, for the deserializer to report the failure as Jackson does.
+     */
+    public RuntimeException unhandled() {
+        return UNHANDLED;
+    }
+
+    /**
+     * Checks that only whitespace follows the value.
+     */
+    void end() {
+        skipWhitespace();
+        if (pos != end) {
+            throw UNHANDLED;
+        }
+    }
+
+    /**
+     * Checks that an integer part was read, without leading zeros.
+     */
+    private void checkIntegerPart(int start) {
+        if (pos == start || (bytes[start] == '0' && pos - start > 1)) {
+            throw UNHANDLED;
+        }
+    }
+
+    /**
+     * Appends a digit to a significand, which past 15 significant digits is no longer used and may overflow.
+     */
+    private static long appendDigit(long significand, byte digit) {
+        return significand * 10 + (digit - '0');
+    }
+
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+
+    private static boolean isFractionOrExponent(byte b) {
+        return b == '.' || b == 'e' || b == 'E';
+    }
+
+    private byte peek() {
+        if (pos >= end) {
+            throw UNHANDLED;
+        }
+        return bytes[pos];
+    }
+
+    private void expect(char c) {
+        if (peek() != c) {
+            throw UNHANDLED;
+        }
+        pos++;
+    }
+
+    private void skipWhitespace() {
+        while (pos < end) {
+            byte b = bytes[pos];
+            if (b != ' ' && b != '\n' && b != '\r' && b != '\t') {
+                return;
+            }
+            pos++;
+        }
+    }
+
+    /**
+     * Thrown on input not handled by the generated reader, and only then: {@link ByteReader} lets any other exception
+     * through.
+     */
+    static final class UnhandledInput extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        UnhandledInput() {
+            super("Input not handled by the generated reader", null, false, false);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package net.kilink.jackson;
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategy;
+import com.fasterxml.jackson.databind.cfg.MapperConfig;
+import org.jspecify.annotations.Nullable;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.WildcardType;
+import javax.lang.model.util.Types;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.OptionalLong;
+
+/**
+ * Memoizes the lookups the generators of a processing round make against the compiler's model: the types of well-known
+ * classes, and the polymorphic configuration, enum constants and {@code @JsonNaming} strategy of types, which are
+ * otherwise resolved again for every property referring to them. A cache must not outlive the round it was created
+ * for.
+ */
+final class ModelCache {
+
+    private final ProcessingEnvironment processingEnv;
+    private final Map<Class<?>, TypeMirror> erasedTypes = new HashMap<>();
+    private final Map<TypeElement, Optional<PolymorphicType>> polymorphicTypes = new HashMap<>();
+    private final Map<TypeElement, Boolean> typeInfo = new HashMap<>();
+    private final Map<TypeElement, List<VariableElement>> enumConstants = new HashMap<>();
+    private final Map<TypeElement, Boolean> enumsReadByName = new HashMap<>();
+    private final Map<TypeElement, Optional<PropertyNamingStrategy>> namingStrategies = new HashMap<>();
+
+    ModelCache(ProcessingEnvironment processingEnv) {
+        this.processingEnv = processingEnv;
+    }
+
+    /**
+     * Returns the erased type of a class, e.g. the raw {@code Map} type for {@code Map.class}.
+     */
+    TypeMirror erasure(Class<?> type) {
+        return erasedTypes.computeIfAbsent(type, key -> types().erasure(
+                processingEnv.getElementUtils().getTypeElement(key.getCanonicalName()).asType()));
+    }
+
+    boolean isSubtype(TypeMirror type, Class<?> superType) {
+        return types().isAssignable(types().erasure(type), erasure(superType));
+    }
+
+    TypeMirror objectType() {
+        return erasure(Object.class);
+    }
+
+    /**
+     * Returns {@code type} viewed as the given supertype, with its type arguments as seen from {@code type} (e.g.
+     * {@code Map<String, Integer>} for a subclass of {@code HashMap<String, Integer>}), or {@code null} if it is
+     * not a subtype.
+     */
+    @Nullable
+    DeclaredType asSupertype(TypeMirror type, Class<?> target) {
+        TypeMirror targetType = erasure(target);
+        Deque<TypeMirror> queue = new ArrayDeque<>(List.of(type));
+        while (!queue.isEmpty()) {
+            TypeMirror candidate = queue.poll();
+            if (types().isSameType(types().erasure(candidate), targetType)) {
+                return (DeclaredType) candidate;
+            }
+            queue.addAll(types().directSupertypes(candidate));
+        }
+        return null;
+    }
+
+    /**
+     * Resolves the given type argument of {@code target} as seen from {@code type} (e.g. the element type of a
+     * {@code Collection} subtype), using the upper bound of wildcards and {@code Object} for raw types.
+     */
+    TypeMirror typeArgumentOf(TypeMirror type, Class<?> target, int index) {
+        DeclaredType supertype = asSupertype(type, target);
+        if (supertype == null || supertype.getTypeArguments().isEmpty()) {
+            return objectType();
+        }
+        TypeMirror argument = supertype.getTypeArguments().get(index);
+        if (argument.getKind() == TypeKind.WILDCARD) {
+            TypeMirror bound = ((WildcardType) argument).getExtendsBound();
+            return (bound == null) ? objectType() : bound;
+        }
+        return argument;
+    }
+
+    /**
+     * Returns the type of the value held by an {@code Optional} (its type argument) or by one of the primitive
+     * optionals ({@code int} for {@code OptionalInt}, ...), or {@code null} if the type is not an optional.
+     */
+    @Nullable
+    TypeMirror optionalValueType(TypeMirror type) {
+        Class<?> optionalType = Utils.getOptionalType(type);
+        if (optionalType == null) {
+            return null;
+        } else if (optionalType == Optional.class) {
+            return typeArgumentOf(type, Optional.class, 0);
+        } else if (optionalType == OptionalInt.class) {
+            return types().getPrimitiveType(TypeKind.INT);
+        } else if (optionalType == OptionalLong.class) {
+            return types().getPrimitiveType(TypeKind.LONG);
+        }
+        return types().getPrimitiveType(TypeKind.DOUBLE);
+    }
+
+    /**
+     * @see PolymorphicType#of(TypeElement, ProcessingEnvironment)
+     */
+    @Nullable
+    PolymorphicType polymorphicType(TypeElement type) {
+        return polymorphicTypes.computeIfAbsent(type,
+                key -> Optional.ofNullable(PolymorphicType.of(key, processingEnv))).orElse(null);
+    }
+
+    /**
+     * @see PolymorphicType#hasTypeInfo(TypeElement, ProcessingEnvironment)
+     */
+    boolean hasTypeInfo(TypeElement type) {
+        return typeInfo.computeIfAbsent(type, key -> PolymorphicType.hasTypeInfo(key, processingEnv));
+    }
+
+    /**
+     * @see Utils#getEnumConstants(TypeElement)
+     */
+    List<VariableElement> enumConstants(TypeElement enumType) {
+        return enumConstants.computeIfAbsent(enumType, Utils::getEnumConstants);
+    }
+
+    /**
+     * @see Utils#isEnumReadByName(TypeElement)
+     */
+    boolean isEnumReadByName(TypeElement enumType) {
+        return enumsReadByName.computeIfAbsent(enumType, Utils::isEnumReadByName);
+    }
+
+    /**
+     * Returns the naming strategy set for a type through {@code @JsonNaming}, or else that of the given configuration.
+     */
+    @Nullable
+    PropertyNamingStrategy namingStrategy(TypeElement type, MapperConfig<?> config) {
+        return namingStrategies.computeIfAbsent(type,
+                        key -> Optional.ofNullable(Utils.getExplicitNamingStrategy(key, processingEnv)))
+                .orElse(config.getPropertyNamingStrategy());
+    }
+
+    private Types types() {
+        return processingEnv.getTypeUtils();
+    }
+}
@@ -1,15 +1,31 @@
 package net.kilink.jackson;
 
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.DeserializationConfig;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
 import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.deser.Deserializers;
+import com.fasterxml.jackson.databind.introspect.Annotated;
+import com.fasterxml.jackson.databind.introspect.AnnotatedClass;
+import com.fasterxml.jackson.databind.introspect.NopAnnotationIntrospector;
 import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.Serializers;
 import com.google.auto.service.AutoService;
 import com.squareup.javapoet.AnnotationSpec;
 import com.squareup.javapoet.ClassName;
-import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.FieldSpec;
 import com.squareup.javapoet.JavaFile;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
 import com.squareup.javapoet.TypeSpec;
+import com.squareup.javapoet.WildcardTypeName;
 import org.jspecify.annotations.Nullable;
 
+import javax.lang.model.element.Element;
 import javax.lang.model.element.Modifier;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -21,13 +37,21 @@ import java.util.Objects;
 public final class ModuleGenerator {
 
     private final ClassName name;
-    private final Collection<ClassName> serializers;
+    private final Map<ClassName, ClassName> serializers;
     private final Map<ClassName, ClassName> deserializers;
+    private final Map<ClassName, ClassName> builderDeserializers;
+    private final List<Element> originatingElements;
+    private final boolean metrics;
 
-    private ModuleGenerator(ClassName name, Collection<ClassName> serializers, Map<ClassName, ClassName> deserializers) {
+    private ModuleGenerator(ClassName name, Map<ClassName, ClassName> serializers, Map<ClassName, ClassName> deserializers,
+                            Map<ClassName, ClassName> builderDeserializers, List<Element> originatingElements,
+                            boolean metrics) {
         this.name = name;
         this.serializers = serializers;
         this.deserializers = deserializers;
+        this.builderDeserializers = builderDeserializers;
+        this.originatingElements = originatingElements;
+        this.metrics = metrics;
     }
 
     public static Builder builder() {
@@ -40,44 +64,187 @@ public final class ModuleGenerator {
     }
 
     private TypeSpec buildClass() {
-        CodeBlock.Builder init = CodeBlock.builder();
-        for (ClassName serializer : serializers) {
-            init.addStatement("addSerializer(new $T())", serializer);
-        }
-
-        for (Map.Entry<ClassName, ClassName> entry : deserializers.entrySet()) {
-            init.addStatement("addDeserializer($T.class, new $T())", entry.getKey(), entry.getValue());
-        }
+        MethodSpec.Builder setupModule = MethodSpec.methodBuilder("setupModule")
+                .addAnnotation(Override.class)
+                .addModifiers(Modifier.PUBLIC)
+                .addParameter(ClassName.get(Module.SetupContext.class), "context")
+                .addStatement("super.setupModule(context)");
 
-        return TypeSpec.classBuilder(name)
+        TypeSpec.Builder classSpec = TypeSpec.classBuilder(name)
                 .addAnnotation(AnnotationSpec.builder(AutoService.class)
                         .addMember("value", "$T.class", Module.class)
                         .build())
                 .superclass(SimpleModule.class)
-                .addModifiers(Modifier.FINAL)
-                .addInitializerBlock(init.build())
+                .addModifiers(Modifier.PUBLIC, Modifier.FINAL);
+        originatingElements.forEach(classSpec::addOriginatingElement);
+        if (!serializers.isEmpty()) {
+            TypeSpec lazySerializers = buildSerializersClass();
+            setupModule.addStatement("context.addSerializers(new $N())", lazySerializers);
+            classSpec.addType(lazySerializers);
+        }
+        if (!deserializers.isEmpty()) {
+            TypeSpec lazyDeserializers = buildDeserializersClass();
+            setupModule.addStatement("context.addDeserializers(new $N())", lazyDeserializers);
+            classSpec.addType(lazyDeserializers);
+        }
+        if (!builderDeserializers.isEmpty()) {
+            setupModule.addStatement("context.insertAnnotationIntrospector($L)", buildIntrospector());
+        }
+        if (metrics) {
+            addMetricsListeners(classSpec, setupModule);
+        }
+        classSpec.addMethod(setupModule.build());
+        if (!builderDeserializers.isEmpty()) {
+            classSpec.addMethod(buildLookupMethod("builderDeserializerFor", deserializerType(), builderDeserializers));
+        }
+        return classSpec.build();
+    }
+
+    /**
+     * Lets listeners for the metrics reported by the generated classes be added to the module, to be registered with
+     * {@link SerdeMetrics} for the mapper the module is registered with.
+     */
+    private void addMetricsListeners(TypeSpec.Builder classSpec, MethodSpec.Builder setupModule) {
+        TypeName listenersType = ParameterizedTypeName.get(List.class, SerdeMetricsListener.class);
+        classSpec.addField(FieldSpec.builder(listenersType, "metricsListeners", Modifier.PRIVATE, Modifier.FINAL,
+                        Modifier.TRANSIENT)
+                .initializer("new $T<>()", ArrayList.class)
+                .build());
+        classSpec.addMethod(MethodSpec.methodBuilder("withMetricsListener")
+                .addModifiers(Modifier.PUBLIC)
+                .returns(name)
+                .addParameter(SerdeMetricsListener.class, "listener")
+                .addStatement("metricsListeners.add(listener)")
+                .addStatement("return this")
+                .build());
+        setupModule.addStatement("$T.addListeners(context.getOwner(), metricsListeners)", SerdeMetrics.class);
+    }
+
+    /**
+     * Serializers are looked up by exact class through a switch on the class name, and only the {@code INSTANCE}
+     * field of the one found is touched, so a generated serializer class is loaded the first time its type is
+     * serialized rather than when the module is registered.
+     */
+    private TypeSpec buildSerializersClass() {
+        TypeName serializerType = ParameterizedTypeName.get(
+                ClassName.get(JsonSerializer.class), WildcardTypeName.subtypeOf(Object.class));
+        return TypeSpec.classBuilder("LazySerializers")
+                .addModifiers(Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                .superclass(ClassName.get(Serializers.class).nestedClass("Base"))
+                .addMethod(MethodSpec.methodBuilder("findSerializer")
+                        .addAnnotation(Override.class)
+                        .addModifiers(Modifier.PUBLIC)
+                        .returns(serializerType)
+                        .addParameter(SerializationConfig.class, "config")
+                        .addParameter(JavaType.class, "type")
+                        .addParameter(BeanDescription.class, "beanDesc")
+                        .addStatement("return serializerFor(type.getRawClass())")
+                        .build())
+                .addMethod(buildLookupMethod("serializerFor", serializerType, serializers))
+                .build();
+    }
+
+    /**
+     * The deserializer counterpart of {@link #buildSerializersClass()}.
+     */
+    private TypeSpec buildDeserializersClass() {
+        TypeName deserializerType = deserializerType();
+        return TypeSpec.classBuilder("LazyDeserializers")
+                .addModifiers(Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                .superclass(ClassName.get(Deserializers.class).nestedClass("Base"))
+                .addMethod(MethodSpec.methodBuilder("findBeanDeserializer")
+                        .addAnnotation(Override.class)
+                        .addModifiers(Modifier.PUBLIC)
+                        .returns(deserializerType)
+                        .addParameter(JavaType.class, "type")
+                        .addParameter(DeserializationConfig.class, "config")
+                        .addParameter(BeanDescription.class, "beanDesc")
+                        .addStatement("return deserializerFor(type.getRawClass())")
+                        .build())
+                .addMethod(MethodSpec.methodBuilder("hasDeserializerFor")
+                        .addAnnotation(Override.class)
+                        .addModifiers(Modifier.PUBLIC)
+                        .returns(boolean.class)
+                        .addParameter(DeserializationConfig.class, "config")
+                        .addParameter(ParameterizedTypeName.get(
+                                ClassName.get(Class.class), WildcardTypeName.subtypeOf(Object.class)), "valueType")
+                        .addStatement("return deserializerFor(valueType) != null")
+                        .build())
+                .addMethod(buildLookupMethod("deserializerFor", deserializerType, deserializers))
                 .build();
     }
 
+    /**
+     * Builds a method returning the {@code INSTANCE} of the generated class registered for a type. The switch on the
+     * class name is backed by its hash code, and the class literal comparison guards against a same-named class from
+     * another class loader. The instance is cast through {@code Object} so that verifying the method does not need to
+     * load every generated class to check it against the return type.
+     */
+    private static MethodSpec buildLookupMethod(String methodName, TypeName returnType,
+                                                Map<ClassName, ClassName> generatedClasses) {
+        MethodSpec.Builder method = MethodSpec.methodBuilder(methodName)
+                .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+                .returns(returnType)
+                .addParameter(ParameterizedTypeName.get(
+                        ClassName.get(Class.class), WildcardTypeName.subtypeOf(Object.class)), "type");
+        method.beginControlFlow("switch (type.getName())");
+        for (Map.Entry<ClassName, ClassName> entry : generatedClasses.entrySet()) {
+            method.addCode("case $S:\n$>", entry.getKey().reflectionName());
+            method.addStatement("return (type == $T.class) ? ($T) ($T) $T.INSTANCE : null$<",
+                    entry.getKey(), returnType, Object.class, entry.getValue());
+        }
+        method.addCode("default:\n$>");
+        method.addStatement("return null$<");
+        method.endControlFlow();
+        return method.build();
+    }
+
+    /**
+     * Jackson resolves {@code @JsonDeserialize(builder = ...)} before consulting module deserializers, so
+     * deserializers for builder-based types are instead handed out by an annotation introspector inserted ahead of
+     * the default one, which is the only lookup that takes precedence over the builder. They are looked up the same
+     * way as the others, through {@code builderDeserializerFor}.
+     */
+    private TypeSpec buildIntrospector() {
+        return TypeSpec.anonymousClassBuilder("")
+                .superclass(NopAnnotationIntrospector.class)
+                .addMethod(MethodSpec.methodBuilder("findDeserializer")
+                        .addAnnotation(Override.class)
+                        .addModifiers(Modifier.PUBLIC)
+                        .returns(Object.class)
+                        .addParameter(Annotated.class, "a")
+                        .addStatement("return (a instanceof $T) ? builderDeserializerFor(a.getRawType()) : null",
+                                AnnotatedClass.class)
+                        .build())
+                .build();
+    }
+
+    private static TypeName deserializerType() {
+        return ParameterizedTypeName.get(ClassName.get(JsonDeserializer.class), WildcardTypeName.subtypeOf(Object.class));
+    }
+
     public static final class Builder {
 
         @Nullable
         private ClassName moduleName;
-        private final List<ClassName> serializers = new ArrayList<>();
+        private final Map<ClassName, ClassName> serializers = new LinkedHashMap<>();
         private final Map<ClassName, ClassName> deserializers = new LinkedHashMap<>();
+        private final Map<ClassName, ClassName> builderDeserializers = new LinkedHashMap<>();
+        private final List<Element> originatingElements = new ArrayList<>();
+        private boolean metrics;
 
         public Builder withModuleName(ClassName moduleName) {
             this.moduleName = moduleName;
             return this;
         }
 
-        public Builder withSerializer(ClassName serializer) {
-            serializers.add(serializer);
+        public Builder withSerializer(ClassName className, ClassName serializerName) {
+            this.serializers.put(className, serializerName);
             return this;
         }
 
-        public Builder withSerializers(Collection<ClassName> serializers) {
-            this.serializers.addAll(serializers);
+        public Builder withSerializers(Map<ClassName, ClassName> serializers) {
+            this.serializers.putAll(serializers);
             return this;
         }
 
@@ -86,11 +253,40 @@ public final class ModuleGenerator {
             return this;
         }
 
+        /**
+         * Registers the deserializer of a type that is deserialized through a builder
+         * ({@code @JsonDeserialize(builder = ...)}).
+         */
+        public Builder withBuilderDeserializer(ClassName className, ClassName deserializerName) {
+            this.builderDeserializers.put(className, deserializerName);
+            return this;
+        }
+
+        /**
+         * Adds the source elements the module is generated from, which incremental builds use to tell when it has to be
+         * regenerated.
+         */
+        public Builder withOriginatingElements(Collection<? extends Element> elements) {
+            this.originatingElements.addAll(elements);
+            return this;
+        }
+
+        /**
+         * Whether the generated classes report metrics, in which case the module takes the listeners to report to.
+         */
+        public Builder withMetrics(boolean metrics) {
+            this.metrics = metrics;
+            return this;
+        }
+
         public ModuleGenerator build() {
             return new ModuleGenerator(
                     Objects.requireNonNull(moduleName),
                     serializers,
-                    deserializers);
+                    deserializers,
+                    builderDeserializers,
+                    originatingElements,
+                    metrics);
         }
     }
 }
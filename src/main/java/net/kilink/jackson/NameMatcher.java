@@ -0,0 +1,150 @@
+package net.kilink.jackson;
+
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.TypeName;
+import org.jspecify.annotations.Nullable;
+
+import javax.lang.model.element.Modifier;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Generates a static method mapping a fixed set of names to values (int constants by default), to replace a
+ * {@code switch} on a String.
+ *
+ * <p>Names are bucketed by length and then split on whichever character position best discriminates the remaining
+ * candidates, so a lookup costs at most a couple of {@code charAt} switches followed by a single {@code equals}.
+ * Since {@link String#equals} checks identity first, the final comparison is a pointer comparison for the interned
+ * names Jackson's symbol table hands out by default.
+ */
+final class NameMatcher {
+
+    private final Map<String, CodeBlock> names;
+    private final CodeBlock defaultValue;
+
+    private NameMatcher(Map<String, CodeBlock> names, CodeBlock defaultValue) {
+        this.names = names;
+        this.defaultValue = defaultValue;
+    }
+
+    static Builder builder() {
+        return new Builder();
+    }
+
+    MethodSpec generate(String methodName) {
+        return generate(methodName, TypeName.INT);
+    }
+
+    /**
+     * Generates the matching method with the given return type, for values other than {@code int} constants.
+     */
+    MethodSpec generate(String methodName, TypeName returnType) {
+        Map<Integer, List<String>> byLength = new TreeMap<>();
+        for (String name : names.keySet()) {
+            byLength.computeIfAbsent(name.length(), length -> new ArrayList<>()).add(name);
+        }
+
+        CodeBlock.Builder code = CodeBlock.builder();
+        code.beginControlFlow("switch (name.length())");
+        for (Map.Entry<Integer, List<String>> entry : byLength.entrySet()) {
+            code.add("case $L:\n$>", entry.getKey());
+            addMatch(code, entry.getValue());
+            code.add("$<");
+        }
+        code.add("default:\n$>");
+        code.addStatement("return $L", defaultValue);
+        code.add("$<");
+        code.endControlFlow();
+
+        return MethodSpec.methodBuilder(methodName)
+                .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+                .returns(returnType)
+                .addParameter(String.class, "name")
+                .addCode(code.build())
+                .build();
+    }
+
+    private void addMatch(CodeBlock.Builder code, List<String> candidates) {
+        if (candidates.size() == 1) {
+            String name = candidates.get(0);
+            code.addStatement("return name.equals($S) ? $L : $L", name, names.get(name), defaultValue);
+            return;
+        }
+
+        int position = discriminatingPosition(candidates);
+        Map<Character, List<String>> byChar = new TreeMap<>();
+        for (String name : candidates) {
+            byChar.computeIfAbsent(name.charAt(position), c -> new ArrayList<>()).add(name);
+        }
+
+        code.beginControlFlow("switch (name.charAt($L))", position);
+        for (Map.Entry<Character, List<String>> entry : byChar.entrySet()) {
+            code.add("case $L:\n$>", charLiteral(entry.getKey()));
+            addMatch(code, entry.getValue());
+            code.add("$<");
+        }
+        code.add("default:\n$>");
+        code.addStatement("return $L", defaultValue);
+        code.add("$<");
+        code.endControlFlow();
+    }
+
+    /**
+     * Picks the character position that splits the (equal length) candidates into the most groups.
+     */
+    private static int discriminatingPosition(List<String> candidates) {
+        int length = candidates.get(0).length();
+        int bestPosition = 0;
+        int bestCount = 0;
+        for (int i = 0; i < length; i++) {
+            Set<Character> chars = new HashSet<>();
+            for (String name : candidates) {
+                chars.add(name.charAt(i));
+            }
+            if (chars.size() > bestCount) {
+                bestPosition = i;
+                bestCount = chars.size();
+            }
+        }
+        return bestPosition;
+    }
+
+    private static String charLiteral(char c) {
+        if (c >= 0x20 && c < 0x7f && c != '\'' && c != '\\') {
+            return "'" + c + "'";
+        }
+        // Unicode escapes are translated before lexing, so non-printable characters are written as int constants.
+        return Integer.toString(c);
+    }
+
+    static final class Builder {
+
+        private final Map<String, CodeBlock> names = new LinkedHashMap<>();
+        @Nullable
+        private CodeBlock defaultValue;
+
+        /**
+         * Maps the given name to a value; a later mapping for the same name replaces an earlier one.
+         */
+        Builder withName(String name, CodeBlock value) {
+            names.put(name, value);
+            return this;
+        }
+
+        Builder withDefault(CodeBlock defaultValue) {
+            this.defaultValue = defaultValue;
+            return this;
+        }
+
+        NameMatcher build() {
+            return new NameMatcher(names, Objects.requireNonNull(defaultValue));
+        }
+    }
+}
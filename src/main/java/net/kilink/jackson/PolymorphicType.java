@@ -0,0 +1,276 @@
+package net.kilink.jackson;
+
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.annotation.JsonTypeName;
+import org.jspecify.annotations.Nullable;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static net.kilink.jackson.Utils.getClassValue;
+
+/**
+ * The {@code @JsonTypeInfo} configuration applying to a type, resolved at compile time along with the concrete subtypes
+ * and their type ids, from {@code @JsonSubTypes} and the {@code permits} clause of sealed types.
+ *
+ * <p>Only type ids written as a property ({@code As.PROPERTY} / {@code As.EXISTING_PROPERTY}) using class names or
+ * logical names ({@code Id.CLASS}, {@code Id.NAME} and {@code Id.SIMPLE_NAME}) are handled here; anything else is left
+ * to Jackson.
+ */
+final class PolymorphicType {
+
+    private final TypeElement baseType;
+    private final JsonTypeInfo typeInfo;
+    private final String propertyName;
+    @Nullable
+    private final TypeElement defaultImpl;
+    private final Map<TypeElement, String> typeIds;
+    private final Map<String, TypeElement> subtypesById;
+
+    private PolymorphicType(TypeElement baseType, JsonTypeInfo typeInfo, @Nullable TypeElement defaultImpl,
+                            Map<TypeElement, String> typeIds, Map<String, TypeElement> subtypesById) {
+        this.baseType = baseType;
+        this.typeInfo = typeInfo;
+        this.propertyName = typeInfo.property().isEmpty()
+                ? typeInfo.use().getDefaultPropertyName() : typeInfo.property();
+        this.defaultImpl = defaultImpl;
+        this.typeIds = typeIds;
+        this.subtypesById = subtypesById;
+    }
+
+    /**
+     * Whether {@code @JsonTypeInfo} applies to the given type, directly or through one of its supertypes.
+     */
+    static boolean hasTypeInfo(TypeElement type, ProcessingEnvironment processingEnv) {
+        return findBaseType(type, processingEnv) != null;
+    }
+
+    /**
+     * Resolves the polymorphic configuration of the given type, or returns {@code null} if it is not polymorphic or
+     * uses a type id style that is not supported at compile time.
+     */
+    @Nullable
+    static PolymorphicType of(TypeElement type, ProcessingEnvironment processingEnv) {
+        TypeElement baseType = findBaseType(type, processingEnv);
+        if (baseType == null) {
+            return null;
+        }
+        JsonTypeInfo typeInfo = baseType.getAnnotation(JsonTypeInfo.class);
+        boolean supportedId = switch (typeInfo.use()) {
+            case CLASS, NAME, SIMPLE_NAME -> true;
+            default -> false;
+        };
+        boolean supportedInclusion = switch (typeInfo.include()) {
+            case PROPERTY, EXISTING_PROPERTY -> true;
+            default -> false;
+        };
+        if (!supportedId || !supportedInclusion) {
+            return null;
+        }
+
+        Types types = processingEnv.getTypeUtils();
+        Map<TypeElement, String> typeIds = new LinkedHashMap<>();
+        Map<String, TypeElement> subtypesById = new LinkedHashMap<>();
+        for (Subtype subtype : collectSubtypes(baseType, processingEnv)) {
+            TypeElement element = subtype.element();
+            if (element.getKind() == ElementKind.INTERFACE || element.getModifiers().contains(Modifier.ABSTRACT)
+                    || !types.isAssignable(types.erasure(element.asType()), types.erasure(type.asType()))) {
+                continue;
+            }
+            List<String> ids = typeIdsOf(subtype, typeInfo.use(), processingEnv);
+            typeIds.putIfAbsent(element, ids.get(0));
+            for (String id : ids) {
+                subtypesById.putIfAbsent(id, element);
+            }
+        }
+
+        TypeElement defaultImpl = getClassValue(baseType, JsonTypeInfo.class, "defaultImpl", processingEnv);
+        if (defaultImpl != null && (defaultImpl.getQualifiedName().contentEquals(Void.class.getCanonicalName())
+                || defaultImpl.getQualifiedName().contentEquals(JsonTypeInfo.class.getCanonicalName()))) {
+            defaultImpl = null;
+        }
+        return new PolymorphicType(baseType, typeInfo, defaultImpl, typeIds, subtypesById);
+    }
+
+    /**
+     * Whether type ids are written by the type itself, as a regular property, rather than added on serialization.
+     */
+    boolean isExistingProperty() {
+        return typeInfo.include() == JsonTypeInfo.As.EXISTING_PROPERTY;
+    }
+
+    /**
+     * Whether the type id has to be passed on to the subtype's deserializer, as opposed to being consumed.
+     */
+    boolean isTypeIdVisible() {
+        return typeInfo.visible() || isExistingProperty();
+    }
+
+    String propertyName() {
+        return propertyName;
+    }
+
+    TypeElement baseType() {
+        return baseType;
+    }
+
+    @Nullable
+    TypeElement defaultImpl() {
+        return defaultImpl;
+    }
+
+    /**
+     * The concrete subtypes and the type id each is written with, in declaration order.
+     */
+    Map<TypeElement, String> typeIds() {
+        return typeIds;
+    }
+
+    /**
+     * Every type id accepted on deserialization (including alternative names) and the subtype it resolves to.
+     */
+    Map<String, TypeElement> subtypesById() {
+        return subtypesById;
+    }
+
+    /**
+     * Returns the type id the given concrete type is written with.
+     */
+    String typeIdOf(TypeElement type, ProcessingEnvironment processingEnv) {
+        String typeId = typeIds.get(type);
+        return (typeId != null) ? typeId : typeIdsOf(new Subtype(type, List.of()), typeInfo.use(), processingEnv).get(0);
+    }
+
+    /**
+     * Finds the type declaring {@code @JsonTypeInfo}, which like other class annotations is picked up by Jackson from
+     * superclasses and interfaces as well.
+     */
+    @Nullable
+    private static TypeElement findBaseType(TypeElement type, ProcessingEnvironment processingEnv) {
+        Types types = processingEnv.getTypeUtils();
+        Deque<TypeMirror> queue = new ArrayDeque<>(List.of(type.asType()));
+        while (!queue.isEmpty()) {
+            TypeMirror candidate = queue.poll();
+            TypeElement element = (TypeElement) types.asElement(candidate);
+            if (element == null) {
+                continue;
+            }
+            JsonTypeInfo typeInfo = element.getAnnotation(JsonTypeInfo.class);
+            if (typeInfo != null) {
+                return (typeInfo.use() == JsonTypeInfo.Id.NONE) ? null : element;
+            }
+            queue.addAll(types.directSupertypes(candidate));
+        }
+        return null;
+    }
+
+    /**
+     * Collects the subtypes declared through {@code @JsonSubTypes} or permitted by sealed types, recursively from the
+     * given type down, along with any names given to them in {@code @JsonSubTypes.Type}.
+     */
+    private static List<Subtype> collectSubtypes(TypeElement type, ProcessingEnvironment processingEnv) {
+        Elements elements = processingEnv.getElementUtils();
+        Types types = processingEnv.getTypeUtils();
+        TypeMirror subTypesAnnotation = elements.getTypeElement(JsonSubTypes.class.getCanonicalName()).asType();
+
+        Map<TypeElement, List<String>> subtypes = new LinkedHashMap<>();
+        Set<TypeElement> visited = new LinkedHashSet<>();
+        Deque<TypeElement> queue = new ArrayDeque<>(List.of(type));
+        while (!queue.isEmpty()) {
+            TypeElement current = queue.poll();
+            if (!visited.add(current)) {
+                continue;
+            }
+            subtypes.computeIfAbsent(current, key -> new ArrayList<>());
+            for (AnnotationMirror anno : current.getAnnotationMirrors()) {
+                if (!types.isSameType(anno.getAnnotationType(), subTypesAnnotation)) {
+                    continue;
+                }
+                for (AnnotationValue value : annotationValues(anno, "value")) {
+                    AnnotationMirror subtypeAnno = (AnnotationMirror) value.getValue();
+                    TypeElement subtype = null;
+                    List<String> names = new ArrayList<>();
+                    for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : subtypeAnno.getElementValues().entrySet()) {
+                        String member = entry.getKey().getSimpleName().toString();
+                        Object memberValue = entry.getValue().getValue();
+                        if (member.equals("value") && memberValue instanceof DeclaredType declaredType) {
+                            subtype = (TypeElement) declaredType.asElement();
+                        } else if (member.equals("name") && !((String) memberValue).isEmpty()) {
+                            names.add(0, (String) memberValue);
+                        } else if (member.equals("names")) {
+                            for (AnnotationValue name : annotationValues(subtypeAnno, "names")) {
+                                names.add((String) name.getValue());
+                            }
+                        }
+                    }
+                    if (subtype != null) {
+                        subtypes.computeIfAbsent(subtype, key -> new ArrayList<>()).addAll(names);
+                        queue.add(subtype);
+                    }
+                }
+            }
+            for (TypeMirror permitted : current.getPermittedSubclasses()) {
+                queue.add((TypeElement) types.asElement(permitted));
+            }
+        }
+
+        List<Subtype> result = new ArrayList<>();
+        for (Map.Entry<TypeElement, List<String>> entry : subtypes.entrySet()) {
+            result.add(new Subtype(entry.getKey(), entry.getValue()));
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<? extends AnnotationValue> annotationValues(AnnotationMirror anno, String memberName) {
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : anno.getElementValues().entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals(memberName)) {
+                return (List<? extends AnnotationValue>) entry.getValue().getValue();
+            }
+        }
+        return List.of();
+    }
+
+    /**
+     * Returns the type ids of a subtype, the one it is written with first, mirroring Jackson's id resolvers: class
+     * ids are the binary class name, while logical names come from {@code @JsonSubTypes.Type} or {@code @JsonTypeName}
+     * and otherwise default to the class name without its package ({@code Id.NAME}) or enclosing types
+     * ({@code Id.SIMPLE_NAME}).
+     */
+    private static List<String> typeIdsOf(Subtype subtype, JsonTypeInfo.Id use, ProcessingEnvironment processingEnv) {
+        String binaryName = processingEnv.getElementUtils().getBinaryName(subtype.element()).toString();
+        if (use == JsonTypeInfo.Id.CLASS) {
+            return List.of(binaryName);
+        }
+        List<String> ids = new ArrayList<>(subtype.names());
+        JsonTypeName typeName = subtype.element().getAnnotation(JsonTypeName.class);
+        if (ids.isEmpty() && typeName != null && !typeName.value().isEmpty()) {
+            ids.add(typeName.value());
+        }
+        if (ids.isEmpty()) {
+            String name = binaryName.substring(binaryName.lastIndexOf('.') + 1);
+            ids.add(use == JsonTypeInfo.Id.SIMPLE_NAME ? name.substring(name.lastIndexOf('$') + 1) : name);
+        }
+        return ids;
+    }
+
+    private record Subtype(TypeElement element, List<String> names) {}
+}
@@ -0,0 +1,78 @@
+package net.kilink.jackson;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonMappingException;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+
+/**
+ * Reports failures to read a property, or an element of a collection or map, as Jackson's deserializers do, with
+ * the property or element added to the path of the exception, so that generated deserializers fail with the same
+ * exceptions as the ones they replace.
+ */
+public final class PropertyErrors {
+
+    private PropertyErrors() {}
+
+    /**
+     * As {@code BeanDeserializerBase.wrapAndThrow}, rethrows the given failure to read the named property of the
+     * given class. Errors, I/O exceptions other than Jackson's own and, with
+     * {@link DeserializationFeature#WRAP_EXCEPTIONS} disabled, runtime exceptions are rethrown as they are; anything
+     * else is wrapped in (or has its path extended as) a {@link JsonMappingException}. Declared to return the
+     * exception so callers can {@code throw} it.
+     */
+    public static IOException wrap(Throwable t, DeserializationContext ctxt, Class<?> type, String propertyName)
+            throws IOException {
+        while (t instanceof InvocationTargetException && t.getCause() != null) {
+            t = t.getCause();
+        }
+        if (t instanceof Error error) {
+            throw error;
+        }
+        boolean wrap = ctxt.isEnabled(DeserializationFeature.WRAP_EXCEPTIONS);
+        if (t instanceof IOException exc) {
+            if (!wrap || !(t instanceof JsonProcessingException)) {
+                throw exc;
+            }
+        } else if (!wrap && t instanceof RuntimeException exc) {
+            throw exc;
+        }
+        return JsonMappingException.wrapWithPath(t, type, propertyName);
+    }
+
+    /**
+     * As {@code CollectionDeserializer}, wraps the given failure to read the element at the given index, or rethrows
+     * it as it is if it is a runtime exception and {@link DeserializationFeature#WRAP_EXCEPTIONS} is disabled.
+     */
+    public static IOException wrapElement(Exception e, DeserializationContext ctxt, Object collection, int index) {
+        if (e instanceof RuntimeException exc && !ctxt.isEnabled(DeserializationFeature.WRAP_EXCEPTIONS)) {
+            throw exc;
+        }
+        return JsonMappingException.wrapWithPath(e, collection, index);
+    }
+
+    /**
+     * As {@code ContainerDeserializerBase.wrapAndThrow}, rethrows the given failure to read the value of the given
+     * map key. Unlike for properties, any I/O exception other than a {@link JsonMappingException} is rethrown as it
+     * is.
+     */
+    public static IOException wrapEntry(Throwable t, DeserializationContext ctxt, Object map, String key)
+            throws IOException {
+        while (t instanceof InvocationTargetException && t.getCause() != null) {
+            t = t.getCause();
+        }
+        if (t instanceof Error error) {
+            throw error;
+        }
+        if (t instanceof IOException exc && !(t instanceof JsonMappingException)) {
+            throw exc;
+        }
+        if (t instanceof RuntimeException exc && !ctxt.isEnabled(DeserializationFeature.WRAP_EXCEPTIONS)) {
+            throw exc;
+        }
+        return JsonMappingException.wrapWithPath(t, map, key);
+    }
+}
@@ -0,0 +1,209 @@
+package net.kilink.jackson;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.deser.std.NumberDeserializers;
+import com.fasterxml.jackson.databind.deser.std.PrimitiveArrayDeserializers;
+import com.fasterxml.jackson.databind.deser.std.StringDeserializer;
+
+import java.io.IOException;
+
+/**
+ * Reads strings and primitives (and their wrappers) the way Jackson's own scalar deserializers do. The token each
+ * type is normally written as is read directly from the parser; anything else ({@code null} for a primitive, a
+ * number as a string, a string to coerce, an object or array) is handed to Jackson's deserializer for the type,
+ * which applies the mapper's coercion settings, {@code FAIL_ON_NULL_FOR_PRIMITIVES} and the like, and reports
+ * invalid values through the context. {@code null} for a wrapper or string is expected to be handled by the caller.
+ * Binary values and {@code char[]}, both written as strings, are read here as well.
+ */
+public final class ScalarValues {
+
+    private static final JsonDeserializer<?> BOOLEAN = deserializer(Boolean.TYPE);
+    private static final JsonDeserializer<?> BOOLEAN_WRAPPER = deserializer(Boolean.class);
+    private static final JsonDeserializer<?> BYTE = deserializer(Byte.TYPE);
+    private static final JsonDeserializer<?> BYTE_WRAPPER = deserializer(Byte.class);
+    private static final JsonDeserializer<?> SHORT = deserializer(Short.TYPE);
+    private static final JsonDeserializer<?> SHORT_WRAPPER = deserializer(Short.class);
+    private static final JsonDeserializer<?> INT = deserializer(Integer.TYPE);
+    private static final JsonDeserializer<?> INT_WRAPPER = deserializer(Integer.class);
+    private static final JsonDeserializer<?> LONG = deserializer(Long.TYPE);
+    private static final JsonDeserializer<?> LONG_WRAPPER = deserializer(Long.class);
+    private static final JsonDeserializer<?> CHAR = deserializer(Character.TYPE);
+    private static final JsonDeserializer<?> CHAR_WRAPPER = deserializer(Character.class);
+    private static final JsonDeserializer<?> FLOAT = deserializer(Float.TYPE);
+    private static final JsonDeserializer<?> FLOAT_WRAPPER = deserializer(Float.class);
+    private static final JsonDeserializer<?> DOUBLE = deserializer(Double.TYPE);
+    private static final JsonDeserializer<?> DOUBLE_WRAPPER = deserializer(Double.class);
+    private static final JsonDeserializer<?> BINARY = PrimitiveArrayDeserializers.forType(Byte.TYPE);
+    private static final JsonDeserializer<?> CHARS = PrimitiveArrayDeserializers.forType(Character.TYPE);
+
+    private ScalarValues() {}
+
+    private static JsonDeserializer<?> deserializer(Class<?> type) {
+        return NumberDeserializers.find(type, type.getName());
+    }
+
+    /**
+     * Reads a string as {@code StringDeserializer}: scalars are coerced to their text, while objects go through
+     * {@link DeserializationContext#extractScalarFromObject} and arrays are unwrapped or reported as unexpected.
+     */
+    public static String readString(JsonParser p, DeserializationContext ctxt) throws IOException {
+        if (p.hasToken(JsonToken.VALUE_STRING)) {
+            return p.getText();
+        }
+        return StringDeserializer.instance.deserialize(p, ctxt);
+    }
+
+    public static boolean readBoolean(JsonParser p, DeserializationContext ctxt) throws IOException {
+        JsonToken token = p.currentToken();
+        if (token == JsonToken.VALUE_TRUE) {
+            return true;
+        } else if (token == JsonToken.VALUE_FALSE) {
+            return false;
+        }
+        return (Boolean) BOOLEAN.deserialize(p, ctxt);
+    }
+
+    public static Boolean readBoxedBoolean(JsonParser p, DeserializationContext ctxt) throws IOException {
+        JsonToken token = p.currentToken();
+        if (token == JsonToken.VALUE_TRUE) {
+            return Boolean.TRUE;
+        } else if (token == JsonToken.VALUE_FALSE) {
+            return Boolean.FALSE;
+        }
+        return (Boolean) BOOLEAN_WRAPPER.deserialize(p, ctxt);
+    }
+
+    // Bytes and shorts are range checked by Jackson, and rare enough not to bother doing that here as well
+
+    public static byte readByte(JsonParser p, DeserializationContext ctxt) throws IOException {
+        return (Byte) BYTE.deserialize(p, ctxt);
+    }
+
+    public static Byte readBoxedByte(JsonParser p, DeserializationContext ctxt) throws IOException {
+        return (Byte) BYTE_WRAPPER.deserialize(p, ctxt);
+    }
+
+    public static short readShort(JsonParser p, DeserializationContext ctxt) throws IOException {
+        return (Short) SHORT.deserialize(p, ctxt);
+    }
+
+    public static Short readBoxedShort(JsonParser p, DeserializationContext ctxt) throws IOException {
+        return (Short) SHORT_WRAPPER.deserialize(p, ctxt);
+    }
+
+    public static int readInt(JsonParser p, DeserializationContext ctxt) throws IOException {
+        if (p.isExpectedNumberIntToken()) {
+            return p.getIntValue();
+        }
+        return (Integer) INT.deserialize(p, ctxt);
+    }
+
+    public static Integer readBoxedInt(JsonParser p, DeserializationContext ctxt) throws IOException {
+        if (p.isExpectedNumberIntToken()) {
+            return p.getIntValue();
+        }
+        return (Integer) INT_WRAPPER.deserialize(p, ctxt);
+    }
+
+    public static long readLong(JsonParser p, DeserializationContext ctxt) throws IOException {
+        if (p.isExpectedNumberIntToken()) {
+            return p.getLongValue();
+        }
+        return (Long) LONG.deserialize(p, ctxt);
+    }
+
+    public static Long readBoxedLong(JsonParser p, DeserializationContext ctxt) throws IOException {
+        if (p.isExpectedNumberIntToken()) {
+            return p.getLongValue();
+        }
+        return (Long) LONG_WRAPPER.deserialize(p, ctxt);
+    }
+
+    /**
+     * Reads a char from a single character string. Empty and longer strings, as well as character codes, are left
+     * to {@code CharacterDeserializer}, which reports invalid ones through
+     * {@link DeserializationContext#handleWeirdStringValue}.
+     */
+    public static char readChar(JsonParser p, DeserializationContext ctxt) throws IOException {
+        if (p.hasToken(JsonToken.VALUE_STRING) && p.getTextLength() == 1) {
+            return p.getTextCharacters()[p.getTextOffset()];
+        }
+        return (Character) CHAR.deserialize(p, ctxt);
+    }
+
+    public static Character readBoxedChar(JsonParser p, DeserializationContext ctxt) throws IOException {
+        if (p.hasToken(JsonToken.VALUE_STRING) && p.getTextLength() == 1) {
+            return p.getTextCharacters()[p.getTextOffset()];
+        }
+        return (Character) CHAR_WRAPPER.deserialize(p, ctxt);
+    }
+
+    // Integers are subject to the int-to-float coercion settings, so only floating point numbers are read directly
+
+    public static float readFloat(JsonParser p, DeserializationContext ctxt) throws IOException {
+        if (p.hasToken(JsonToken.VALUE_NUMBER_FLOAT)) {
+            return p.getFloatValue();
+        }
+        return (Float) FLOAT.deserialize(p, ctxt);
+    }
+
+    public static Float readBoxedFloat(JsonParser p, DeserializationContext ctxt) throws IOException {
+        if (p.hasToken(JsonToken.VALUE_NUMBER_FLOAT)) {
+            return p.getFloatValue();
+        }
+        return (Float) FLOAT_WRAPPER.deserialize(p, ctxt);
+    }
+
+    public static double readDouble(JsonParser p, DeserializationContext ctxt) throws IOException {
+        if (p.hasToken(JsonToken.VALUE_NUMBER_FLOAT)) {
+            return p.getDoubleValue();
+        }
+        return (Double) DOUBLE.deserialize(p, ctxt);
+    }
+
+    public static Double readBoxedDouble(JsonParser p, DeserializationContext ctxt) throws IOException {
+        if (p.hasToken(JsonToken.VALUE_NUMBER_FLOAT)) {
+            return p.getDoubleValue();
+        }
+        return (Double) DOUBLE_WRAPPER.deserialize(p, ctxt);
+    }
+
+    /**
+     * Reads a {@code byte[]} from a Base64 string (or an embedded binary value) as Jackson does, reporting invalid
+     * Base64 through {@link DeserializationContext#handleWeirdStringValue}.
+     */
+    public static byte[] readBinary(JsonParser p, DeserializationContext ctxt) throws IOException {
+        return (byte[]) BINARY.deserialize(p, ctxt);
+    }
+
+    /**
+     * Reads a {@code char[]} from a string, or from anything else Jackson accepts, such as an array of single
+     * character strings.
+     */
+    public static char[] readChars(JsonParser p, DeserializationContext ctxt) throws IOException {
+        if (p.hasToken(JsonToken.VALUE_STRING)) {
+            return p.getText().toCharArray();
+        }
+        return (char[]) CHARS.deserialize(p, ctxt);
+    }
+
+    /**
+     * Returns the enum index a string matching none of the constants' names holds, or -1 if it holds none. As in
+     * {@code EnumDeserializer}, that is a non-negative {@code int}, once trimmed, without a sign or leading zeros.
+     */
+    public static int parseEnumIndex(String text) {
+        String name = text.trim();
+        if (name.isEmpty() || name.charAt(0) < '0' || name.charAt(0) > '9'
+                || (name.charAt(0) == '0' && name.length() > 1)) {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(name);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
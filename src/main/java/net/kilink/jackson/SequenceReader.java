@@ -0,0 +1,119 @@
+package net.kilink.jackson;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.deser.ContextualDeserializer;
+import com.fasterxml.jackson.databind.deser.DefaultDeserializationContext;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads the elements of a top-level JSON array, or a sequence of root-level values such as newline-delimited JSON, one
+ * at a time through a single parser and deserialization context, so that inputs of any size are processed in bounded
+ * memory. Subclasses are generated along with each deserializer, see its {@code arrayReader} and {@code valuesReader}
+ * methods; they call the deserializer from a call site of their own, which the JIT then sees a single type at.
+ *
+ * <p>The {@link Iterator} methods wrap I/O errors in {@link UncheckedIOException}s, whereas {@link #hasNextValue()} and
+ * {@link #nextValue()} throw them as is.
+ */
+public abstract class SequenceReader<T> implements Iterator<T>, Closeable {
+
+    private final JsonParser parser;
+    private final DeserializationContext context;
+    private final JsonDeserializer<T> deserializer;
+    private final boolean array;
+    private boolean started;
+    private boolean positioned;
+    private boolean done;
+
+    @SuppressWarnings("unchecked")
+    protected SequenceReader(ObjectMapper mapper, JsonParser parser, JsonDeserializer<T> deserializer, boolean array)
+            throws IOException {
+        this.parser = parser;
+        this.context = ((DefaultDeserializationContext) mapper.getDeserializationContext())
+                .createInstance(mapper.getDeserializationConfig(), parser, mapper.getInjectableValues());
+        // Resolved once for the whole sequence, possibly to Jackson's own deserializer if the mapper's configuration
+        // does not match the generated one
+        this.deserializer = (deserializer instanceof ContextualDeserializer contextual)
+                ? (JsonDeserializer<T>) contextual.createContextual(context, null)
+                : deserializer;
+        this.array = array;
+    }
+
+    /**
+     * Reads the value the parser is positioned on, which is neither {@code null} nor the end of the sequence.
+     */
+    protected abstract T read(JsonDeserializer<T> deserializer, JsonParser p, DeserializationContext ctxt)
+            throws IOException;
+
+    public boolean hasNextValue() throws IOException {
+        if (positioned) {
+            return true;
+        }
+        if (done) {
+            return false;
+        }
+        JsonToken token = (!started && parser.hasCurrentToken()) ? parser.currentToken() : parser.nextToken();
+        if (!started) {
+            started = true;
+            if (array) {
+                if (token != JsonToken.START_ARRAY) {
+                    throw MismatchedInputException.from(parser, (Class<?>) null,
+                            "Expected a JSON array, found " + token);
+                }
+                token = parser.nextToken();
+            }
+        }
+        if (token == null || (array && token == JsonToken.END_ARRAY)) {
+            done = true;
+            return false;
+        }
+        positioned = true;
+        return true;
+    }
+
+    public T nextValue() throws IOException {
+        if (!hasNextValue()) {
+            throw new NoSuchElementException();
+        }
+        positioned = false;
+        if (parser.hasToken(JsonToken.VALUE_NULL)) {
+            return deserializer.getNullValue(context);
+        }
+        return read(deserializer, parser, context);
+    }
+
+    @Override
+    public boolean hasNext() {
+        try {
+            return hasNextValue();
+        } catch (IOException exc) {
+            throw new UncheckedIOException(exc);
+        }
+    }
+
+    @Override
+    public T next() {
+        try {
+            return nextValue();
+        } catch (IOException exc) {
+            throw new UncheckedIOException(exc);
+        }
+    }
+
+    /**
+     * Closes the parser, and with it the underlying input if {@code AUTO_CLOSE_SOURCE} is enabled (the default).
+     */
+    @Override
+    public void close() throws IOException {
+        parser.close();
+    }
+}
@@ -0,0 +1,92 @@
+package net.kilink.jackson;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.ContextualSerializer;
+import org.jspecify.annotations.Nullable;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+
+/**
+ * Writes values one at a time through a single generator, either as the elements of a top-level JSON array or as
+ * newline-delimited JSON, flushing to the underlying output as the generator's buffer fills up. The counterpart of
+ * {@link SequenceReader}; subclasses are generated along with each serializer, see its {@code arrayWriter} and
+ * {@code valuesWriter} methods.
+ */
+public abstract class SequenceWriter<T> implements Closeable, Flushable {
+
+    private final JsonGenerator generator;
+    private final SerializerProvider provider;
+    private final JsonSerializer<T> serializer;
+    private final boolean array;
+    private boolean closed;
+
+    @SuppressWarnings("unchecked")
+    protected SequenceWriter(ObjectMapper mapper, JsonGenerator generator, JsonSerializer<T> serializer, boolean array)
+            throws IOException {
+        this.generator = generator;
+        this.provider = mapper.getSerializerProviderInstance();
+        // Resolved once for the whole sequence, possibly to Jackson's own serializer if the mapper's configuration
+        // does not match the generated one
+        this.serializer = (serializer instanceof ContextualSerializer contextual)
+                ? (JsonSerializer<T>) contextual.createContextual(provider, null)
+                : serializer;
+        this.array = array;
+        if (array) {
+            generator.writeStartArray();
+        } else {
+            // Each value is terminated by a newline instead
+            generator.setRootValueSeparator(null);
+        }
+    }
+
+    /**
+     * Writes a value other than {@code null}.
+     */
+    protected abstract void write(JsonSerializer<T> serializer, T value, JsonGenerator gen, SerializerProvider provider)
+            throws IOException;
+
+    public SequenceWriter<T> write(@Nullable T value) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+        } else {
+            write(serializer, value, generator, provider);
+        }
+        if (!array) {
+            generator.writeRaw('\n');
+        }
+        return this;
+    }
+
+    public SequenceWriter<T> writeAll(Iterable<? extends T> values) throws IOException {
+        for (T value : values) {
+            write(value);
+        }
+        return this;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        generator.flush();
+    }
+
+    /**
+     * Ends the array if writing one and closes the generator, and with it the underlying output if
+     * {@code AUTO_CLOSE_TARGET} is enabled (the default).
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (array) {
+            generator.writeEndArray();
+        }
+        generator.close();
+    }
+}
@@ -0,0 +1,85 @@
+package net.kilink.jackson;
+
+import com.fasterxml.jackson.core.JsonLocation;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DatabindContext;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.cfg.ContextAttributes;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * The hooks called by generated classes compiled with metrics. Every call is guarded by {@link #ENABLED}, a constant
+ * as far as the JIT is concerned, so with {@code -Dautoserde.metrics=false} the instrumentation is compiled away
+ * entirely.
+ *
+ * <p>Listeners are kept in the default attributes of the mappers the generated module is registered with, so values
+ * are only reported to the listeners of the module registered with the mapper (de)serializing them.
+ */
+public final class SerdeMetrics {
+
+    public static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("autoserde.metrics", "true"));
+
+    private static final Object LISTENERS = new Object();
+    private static final SerdeMetricsListener[] NO_LISTENERS = new SerdeMetricsListener[0];
+
+    private SerdeMetrics() {}
+
+    /**
+     * Registers listeners with a mapper, skipping those already registered (e.g. along with a module registered
+     * twice). Readers and writers created with attributes of their own do not report.
+     */
+    public static synchronized void addListeners(ObjectMapper mapper, Collection<SerdeMetricsListener> listeners) {
+        ContextAttributes attributes = mapper.getDeserializationConfig().getAttributes();
+        SerdeMetricsListener[] current = (SerdeMetricsListener[]) attributes.getAttribute(LISTENERS);
+        SerdeMetricsListener[] updated = (current == null) ? NO_LISTENERS : current;
+        for (SerdeMetricsListener listener : listeners) {
+            if (!Arrays.asList(updated).contains(listener)) {
+                updated = Arrays.copyOf(updated, updated.length + 1);
+                updated[updated.length - 1] = listener;
+            }
+        }
+        mapper.setDefaultAttributes(attributes.withSharedAttribute(LISTENERS, updated));
+    }
+
+    /**
+     * Returns the input offset of the parser's current token, i.e. where the value about to be read starts.
+     */
+    public static long startOffset(JsonParser p) {
+        return offset(p.currentTokenLocation());
+    }
+
+    public static void serialized(SerializerProvider provider, Class<?> type, long startNanos) {
+        long nanos = System.nanoTime() - startNanos;
+        for (SerdeMetricsListener listener : listeners(provider)) {
+            listener.serialized(type, nanos);
+        }
+    }
+
+    public static void deserialized(DeserializationContext ctxt, Class<?> type, JsonParser p, long startOffset,
+                                    long startNanos) {
+        long nanos = System.nanoTime() - startNanos;
+        SerdeMetricsListener[] current = listeners(ctxt);
+        if (current.length == 0) {
+            return;
+        }
+        long endOffset = offset(p.currentLocation());
+        long length = (startOffset < 0 || endOffset < 0) ? -1 : endOffset - startOffset;
+        for (SerdeMetricsListener listener : current) {
+            listener.deserialized(type, length, nanos);
+        }
+    }
+
+    private static SerdeMetricsListener[] listeners(DatabindContext context) {
+        SerdeMetricsListener[] listeners = (SerdeMetricsListener[]) context.getAttribute(LISTENERS);
+        return (listeners == null) ? NO_LISTENERS : listeners;
+    }
+
+    private static long offset(JsonLocation location) {
+        long byteOffset = location.getByteOffset();
+        return (byteOffset >= 0) ? byteOffset : location.getCharOffset();
+    }
+}
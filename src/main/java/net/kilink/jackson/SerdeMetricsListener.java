@@ -0,0 +1,23 @@
+package net.kilink.jackson;
+
+/**
+ * Receives a callback for every value read or written by generated classes compiled with metrics
+ * ({@code -Aautoserde.metrics=true}); registered through the generated module's {@code withMetricsListener}.
+ *
+ * <p>Callbacks are made on the (de)serializing thread, so implementations should be cheap and thread-safe (e.g.
+ * {@code LongAdder}s per type). Times include those of nested values, which are reported for their own types as
+ * well.
+ */
+public interface SerdeMetricsListener {
+
+    /**
+     * Called after a value of the given type has been written.
+     */
+    void serialized(Class<?> type, long nanos);
+
+    /**
+     * Called after a value of the given type has been read, from {@code length} bytes of input (or characters, for
+     * character-based input), or {@code -1} if the parser does not track its input offset.
+     */
+    void deserialized(Class<?> type, long length, long nanos);
+}
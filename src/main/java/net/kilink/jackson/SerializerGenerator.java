@@ -1,74 +1,140 @@
 package net.kilink.jackson;
 
 import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonFormat;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
-import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.PropertyAccessor;
 import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
 import com.fasterxml.jackson.databind.MapperFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.PropertyNamingStrategies;
 import com.fasterxml.jackson.databind.PropertyNamingStrategy;
 import com.fasterxml.jackson.databind.SerializationConfig;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.SerializerProvider;
-import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.fasterxml.jackson.databind.ser.ContextualSerializer;
 import com.fasterxml.jackson.databind.ser.std.StdSerializer;
 import com.squareup.javapoet.ClassName;
 import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.FieldSpec;
 import com.squareup.javapoet.JavaFile;
 import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.NameAllocator;
 import com.squareup.javapoet.ParameterSpec;
 import com.squareup.javapoet.ParameterizedTypeName;
 import com.squareup.javapoet.TypeName;
 import com.squareup.javapoet.TypeSpec;
+import com.squareup.javapoet.WildcardTypeName;
 import org.checkerframework.javacutil.TypesUtils;
 import org.jspecify.annotations.Nullable;
 
 import javax.annotation.processing.ProcessingEnvironment;
-import javax.lang.model.element.AnnotationMirror;
-import javax.lang.model.element.AnnotationValue;
 import javax.lang.model.element.Element;
 import javax.lang.model.element.ElementKind;
 import javax.lang.model.element.ExecutableElement;
 import javax.lang.model.element.Modifier;
+import javax.lang.model.element.RecordComponentElement;
 import javax.lang.model.element.TypeElement;
 import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
 import javax.lang.model.type.DeclaredType;
 import javax.lang.model.type.NoType;
+import javax.lang.model.type.TypeKind;
 import javax.lang.model.type.TypeMirror;
 import javax.lang.model.util.Elements;
 import javax.lang.model.util.Types;
 import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Duration;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.OptionalLong;
 import java.util.Set;
+import java.util.UUID;
 
+import static net.kilink.jackson.Utils.configMismatch;
+import static net.kilink.jackson.Utils.constantName;
+import static net.kilink.jackson.Utils.formatterOf;
+import static net.kilink.jackson.Utils.getExplicitPropertyName;
+import static net.kilink.jackson.Utils.getOptionalType;
+import static net.kilink.jackson.Utils.getTimeType;
+import static net.kilink.jackson.Utils.hasTimePattern;
+import static net.kilink.jackson.Utils.isArrayShaped;
 import static net.kilink.jackson.Utils.nameForGetter;
+import static net.kilink.jackson.Utils.reportingMetrics;
 
 public final class SerializerGenerator {
 
+    /**
+     * Mapper features deciding which properties get serialized; if a mapper's settings differ from those the code
+     * was generated with, the generated serializers hand over to Jackson's own.
+     */
+    private static final List<MapperFeature> PROPERTY_FEATURES = List.of(
+            MapperFeature.PROPAGATE_TRANSIENT_MARKER,
+            MapperFeature.AUTO_DETECT_GETTERS,
+            MapperFeature.AUTO_DETECT_IS_GETTERS,
+            MapperFeature.ALLOW_IS_GETTERS_FOR_NON_BOOLEAN);
+
+    /**
+     * The names of the serializer instances writing enums as text (names or {@code toString()}, depending on the
+     * configuration generated for) and as indexes; every generated serializer declares both, so that nested
+     * serializers are called in the same mode as the calling one.
+     */
+    private static final String ENUMS_AS_TEXT = "ENUMS_AS_TEXT";
+    private static final String ENUMS_AS_INDEX = "ENUMS_AS_INDEX";
+
     private final TypeElement typeElement;
     private final ProcessingEnvironment processingEnv;
+    private final ModelCache cache;
     private final ClassName className;
     private final ClassName serializerClassName;
-    private final SerializationConfig serializationConfig;
+    private final SerializationConfig profile;
+    private final boolean metrics;
+    private final NameAllocator names = new NameAllocator();
+    private final Map<String, String> serializedNames = new LinkedHashMap<>();
+    private final Map<String, String> locals = new HashMap<>();
+    private final Map<String, String> loopVariables = new HashMap<>();
+    private final Map<String, String> enumNameMethods = new HashMap<>();
+    private final List<MethodSpec> enumNameMethodSpecs = new ArrayList<>();
+    private final Map<String, String> formatters = new HashMap<>();
+    private final List<FieldSpec> formatterFields = new ArrayList<>();
+    @Nullable
+    private final PolymorphicType polymorphicType;
+    private SerializationConfig serializationConfig;
+    private int depth;
 
-    public SerializerGenerator(TypeElement typeElement, ProcessingEnvironment processingEnv) {
+    public SerializerGenerator(TypeElement typeElement, ProcessingEnvironment processingEnv, ModelCache cache,
+                               SerializationConfig profile, boolean metrics) {
         this.typeElement = typeElement;
         this.processingEnv = processingEnv;
+        this.cache = cache;
         this.className = ClassName.get(typeElement);
-        this.serializerClassName = getSerializerName(typeElement);
-        this.serializationConfig = new ObjectMapper().getSerializationConfig();
+        this.serializerClassName = getSerializerName(typeElement, elements());
+        this.profile = profile;
+        this.serializationConfig = profile;
+        this.metrics = metrics;
+        this.polymorphicType = cache.polymorphicType(typeElement);
     }
 
-    private ClassName getSerializerName(TypeElement element) {
+    static ClassName getSerializerName(TypeElement element, Elements elements) {
         AutoSerde anno = element.getAnnotation(AutoSerde.class);
         String serializerName = "";
         String packageName = "";
@@ -78,7 +144,7 @@ public final class SerializerGenerator {
             packageName = anno.packageName();
         }
         if (packageName.isEmpty()) {
-            packageName = elements().getPackageOf(element).getQualifiedName().toString();
+            packageName = elements.getPackageOf(element).getQualifiedName().toString();
         }
         if (serializerName.isEmpty()) {
             serializerName = element.getSimpleName() + "Serializer";
@@ -86,34 +152,414 @@ public final class SerializerGenerator {
         return ClassName.get(packageName, serializerName);
     }
 
+    /**
+     * Whether the generated serializer only dispatches to those of the subtypes, for an abstract polymorphic type;
+     * such serializers are meant to be called directly and must not be registered, as Jackson would otherwise pick
+     * them for every subtype lacking a serializer of its own.
+     */
+    public boolean isDispatching() {
+        return polymorphicType != null && isAbstract(typeElement);
+    }
+
     public JavaFile generate() {
         return JavaFile.builder(serializerClassName.packageName(), buildClass()).build();
     }
 
     private TypeSpec buildClass() {
-        return TypeSpec.classBuilder(serializerClassName)
+        names.newName("value");
+        names.newName("gen");
+        names.newName("provider");
+        names.newName("INSTANCE");
+        names.newName(ENUMS_AS_TEXT);
+        names.newName(ENUMS_AS_INDEX);
+
+        // WRITE_ENUMS_USING_INDEX changes how every enum value is written, so rather than checking it on each write
+        // the serialize method is generated both ways, the variant not matching the compile-time configuration going
+        // into a subclass; createContextual then picks the one matching the mapper, once
+        boolean indexByDefault = profile.isEnabled(SerializationFeature.WRITE_ENUMS_USING_INDEX);
+        MethodSpec serializeMethod = buildSerializeMethod(profile);
+        MethodSpec variantMethod = buildSerializeMethod(indexByDefault
+                ? profile.without(SerializationFeature.WRITE_ENUMS_USING_INDEX)
+                : profile.with(SerializationFeature.WRITE_ENUMS_USING_INDEX));
+        boolean hasVariant = !variantMethod.equals(serializeMethod);
+        String variantName = indexByDefault ? "EnumsAsText" : "EnumsAsIndex";
+
+        TypeSpec.Builder classSpec = TypeSpec.classBuilder(serializerClassName)
+                .addOriginatingElement(typeElement)
                 .addModifiers(Modifier.PUBLIC)
-                .superclass(ParameterizedTypeName.get(ClassName.get(StdSerializer.class), className))
+                .superclass(ParameterizedTypeName.get(ClassName.get(StdSerializer.class), className));
+        if (!isDispatching()) {
+            classSpec.addSuperinterface(ContextualSerializer.class);
+        }
+
+        classSpec.addField(FieldSpec.builder(serializerClassName, "INSTANCE",
+                        Modifier.PUBLIC, Modifier.STATIC, Modifier.FINAL)
+                .initializer("new $T()", serializerClassName)
+                .build());
+        CodeBlock variant = hasVariant
+                ? CodeBlock.of("new $L()", variantName)
+                : CodeBlock.of("INSTANCE");
+        classSpec.addField(FieldSpec.builder(serializerClassName, ENUMS_AS_TEXT,
+                        Modifier.PUBLIC, Modifier.STATIC, Modifier.FINAL)
+                .initializer(indexByDefault ? variant : CodeBlock.of("INSTANCE"))
+                .build());
+        classSpec.addField(FieldSpec.builder(serializerClassName, ENUMS_AS_INDEX,
+                        Modifier.PUBLIC, Modifier.STATIC, Modifier.FINAL)
+                .initializer(indexByDefault ? CodeBlock.of("INSTANCE") : variant)
+                .build());
+
+        for (Map.Entry<String, String> entry : serializedNames.entrySet()) {
+            classSpec.addField(FieldSpec.builder(SerializedString.class, entry.getValue(),
+                            Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                    .initializer("new $T($S)", SerializedString.class, entry.getKey())
+                    .build());
+        }
+        classSpec.addFields(formatterFields);
+
+        classSpec
                 .addMethod(MethodSpec.constructorBuilder()
                         .addModifiers(Modifier.PUBLIC)
                         .addStatement("super($T.class)", className)
                         .build())
-                .addMethod(buildSerializeMethod())
+                .addMethod(serializeMethod)
+                .addMethods(polymorphicType == null ? List.of() : List.of(buildSerializeWithTypeMethod()));
+        if (!isDispatching()) {
+            classSpec.addMethod(buildCreateContextualMethod());
+        }
+        classSpec.addMethods(enumNameMethodSpecs);
+        addSequenceWriters(classSpec);
+        if (hasVariant) {
+            classSpec.addType(TypeSpec.classBuilder(variantName)
+                    .addModifiers(Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                    .superclass(serializerClassName)
+                    .addMethod(variantMethod)
+                    .build());
+        }
+        return classSpec.build();
+    }
+
+    /**
+     * Adds factories for {@link SequenceWriter}s of the type, writing a top-level array or newline-delimited JSON,
+     * through a subclass whose call to {@code serialize} is specific to this type.
+     */
+    private void addSequenceWriters(TypeSpec.Builder classSpec) {
+        TypeName writerType = ParameterizedTypeName.get(ClassName.get(SequenceWriter.class), className);
+        ClassName sequenceName = serializerClassName.nestedClass(names.newName("Sequence"));
+        classSpec.addMethod(MethodSpec.methodBuilder(names.newName("arrayWriter"))
+                .addJavadoc("Writes values one at a time as the elements of a top-level JSON array.\n")
+                .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+                .returns(writerType)
+                .addParameter(ObjectMapper.class, "mapper")
+                .addParameter(JsonGenerator.class, "gen")
+                .addException(IOException.class)
+                .addStatement("return new $T(mapper, gen, true)", sequenceName)
+                .build());
+        classSpec.addMethod(MethodSpec.methodBuilder(names.newName("valuesWriter"))
+                .addJavadoc("Writes values one at a time as newline-delimited JSON.\n")
+                .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+                .returns(writerType)
+                .addParameter(ObjectMapper.class, "mapper")
+                .addParameter(JsonGenerator.class, "gen")
+                .addException(IOException.class)
+                .addStatement("return new $T(mapper, gen, false)", sequenceName)
+                .build());
+        classSpec.addType(TypeSpec.classBuilder(sequenceName)
+                .addModifiers(Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                .superclass(writerType)
+                .addMethod(MethodSpec.constructorBuilder()
+                        .addParameter(ObjectMapper.class, "mapper")
+                        .addParameter(JsonGenerator.class, "gen")
+                        .addParameter(boolean.class, "array")
+                        .addException(IOException.class)
+                        .addStatement("super(mapper, gen, INSTANCE, array)")
+                        .build())
+                .addMethod(MethodSpec.methodBuilder("write")
+                        .addAnnotation(Override.class)
+                        .addModifiers(Modifier.PROTECTED)
+                        .addParameter(ParameterizedTypeName.get(ClassName.get(JsonSerializer.class), className),
+                                "serializer")
+                        .addParameter(className, "value")
+                        .addParameter(JsonGenerator.class, "gen")
+                        .addParameter(SerializerProvider.class, "provider")
+                        .addException(IOException.class)
+                        .addStatement("serializer.serialize(value, gen, provider)")
+                        .build())
+                .build());
+    }
+
+    /**
+     * Builds the {@code serialize} method for the given configuration.
+     */
+    private MethodSpec buildSerializeMethod(SerializationConfig config) {
+        serializationConfig = config;
+        try {
+            if (isDispatching()) {
+                return buildDispatchMethod();
+            }
+            return metrics ? withMetrics(buildSerializeMethod()) : buildSerializeMethod();
+        } finally {
+            serializationConfig = profile;
+        }
+    }
+
+    /**
+     * Reports each value written to {@link SerdeMetrics}; dispatching serializers are left alone, the serializers of
+     * the subtypes they call reporting already.
+     */
+    private MethodSpec withMetrics(MethodSpec method) {
+        String start = local("<metricsStart>", "metricsStart");
+        return reportingMetrics(method,
+                CodeBlock.builder()
+                        .addStatement("long $L = $T.ENABLED ? System.nanoTime() : 0L", start, SerdeMetrics.class)
+                        .build(),
+                local("<metricsFailed>", "metricsFailed"),
+                CodeBlock.builder()
+                        .addStatement("$T.serialized(provider, $T.class, $L)", SerdeMetrics.class, className, start)
+                        .build());
+    }
+
+    /**
+     * Picks the variant matching the mapper's configuration, or hands over to Jackson's own serializer if the mapper
+     * is configured to name or select properties differently than at compile time.
+     */
+    private MethodSpec buildCreateContextualMethod() {
+        Map<Enum<?>, Boolean> features = new LinkedHashMap<>();
+        features.put(SerializationFeature.WRITE_ENUMS_USING_TO_STRING,
+                profile.isEnabled(SerializationFeature.WRITE_ENUMS_USING_TO_STRING));
+        // Enum map keys are always written as text
+        features.put(SerializationFeature.WRITE_ENUM_KEYS_USING_INDEX, false);
+        for (MapperFeature feature : PROPERTY_FEATURES) {
+            features.put(feature, profile.isEnabled(feature));
+        }
+        if (isArrayShaped(typeElement)) {
+            // Jackson writes arrays of a single property as the bare value when asked to
+            features.put(SerializationFeature.WRITE_SINGLE_ELEM_ARRAYS_UNWRAPPED, false);
+        }
+        // Null checks are only generated for NON_NULL and NON_ABSENT, any other inclusion has to be left to Jackson
+        CodeBlock inclusionMismatch = (defaultInclusion() == JsonInclude.Include.NON_NULL
+                || defaultInclusion() == JsonInclude.Include.NON_ABSENT)
+                ? CodeBlock.of("inclusion != $T.$L", JsonInclude.Include.class, defaultInclusion())
+                : CodeBlock.of("(inclusion != $T.$L && inclusion != $T.$L)", JsonInclude.Include.class,
+                        JsonInclude.Include.ALWAYS, JsonInclude.Include.class, JsonInclude.Include.USE_DEFAULTS);
+        return MethodSpec.methodBuilder("createContextual")
+                .addAnnotation(Override.class)
+                .addModifiers(Modifier.PUBLIC)
+                .returns(ParameterizedTypeName.get(ClassName.get(JsonSerializer.class), WildcardTypeName.subtypeOf(Object.class)))
+                .addParameter(SerializerProvider.class, "provider")
+                .addParameter(BeanProperty.class, "property")
+                .addException(JsonMappingException.class)
+                .addStatement("$T config = provider.getConfig()", SerializationConfig.class)
+                .addStatement("$T inclusion = config.getDefaultPropertyInclusion().getValueInclusion()",
+                        JsonInclude.Include.class)
+                .beginControlFlow("if ($L)", configMismatch(profile.getPropertyNamingStrategy(), features, inclusionMismatch))
+                .addStatement("return $T.serializer(provider, $T.class, property)", BeanFallbacks.class, className)
+                .endControlFlow()
+                .addStatement("return config.isEnabled($T.$L) ? $L : $L", SerializationFeature.class,
+                        SerializationFeature.WRITE_ENUMS_USING_INDEX, ENUMS_AS_INDEX, ENUMS_AS_TEXT)
                 .build();
     }
 
-    private MethodSpec buildSerializeMethod() {
-        MethodSpec.Builder method = MethodSpec.methodBuilder("serialize")
+    /**
+     * Returns the name of the instance of a nested type's serializer to call, matching the enum handling of the
+     * method being generated.
+     */
+    private String variantInstance() {
+        return serializationConfig.isEnabled(SerializationFeature.WRITE_ENUMS_USING_INDEX) ? ENUMS_AS_INDEX : ENUMS_AS_TEXT;
+    }
+
+    /**
+     * Returns the name of a local variable, the same one for a given key in every variant of a method.
+     */
+    private String local(String key, String suggestion) {
+        return locals.computeIfAbsent(key, k -> names.newName(suggestion));
+    }
+
+    /**
+     * Returns the name of the {@code static final SerializedString} constant holding the given property name,
+     * so that the quoted / encoded form is computed once per class rather than on every write.
+     */
+    private String serializedName(String fieldName) {
+        return serializedNames.computeIfAbsent(fieldName, name -> names.newName(constantName(name)));
+    }
+
+    private MethodSpec.Builder serializeMethodBuilder() {
+        return MethodSpec.methodBuilder("serialize")
+                .addAnnotation(Override.class)
+                .addModifiers(Modifier.PUBLIC)
+                .addException(IOException.class)
+                .addParameter(ParameterSpec.builder(className, "value").build())
+                .addParameter(ParameterSpec.builder(JsonGenerator.class, "gen").build())
+                .addParameter(ParameterSpec.builder(SerializerProvider.class, "provider").build());
+    }
+
+    /**
+     * Dispatches on the runtime class to the serializers generated for the known subtypes, leaving any other class
+     * (and its type id) to the provider.
+     */
+    private MethodSpec buildDispatchMethod() {
+        MethodSpec.Builder method = serializeMethodBuilder();
+        String type = local("type", "type");
+        method.addStatement("$T<?> $L = value.getClass()", Class.class, type);
+
+        boolean first = true;
+        for (TypeElement subtype : polymorphicType.typeIds().keySet()) {
+            ClassName serializer = generatedSerializerOf(subtype.asType());
+            if (serializer == null) {
+                continue;
+            }
+            if (first) {
+                method.beginControlFlow("if ($L == $T.class)", type, ClassName.get(subtype));
+                first = false;
+            } else {
+                method.nextControlFlow("else if ($L == $T.class)", type, ClassName.get(subtype));
+            }
+            method.addStatement("$T.$L.serialize(($T) value, gen, provider)", serializer, variantInstance(),
+                    ClassName.get(subtype));
+        }
+        if (!first) {
+            method.nextControlFlow("else");
+        }
+        method.addStatement("provider.findTypedValueSerializer($L, true, null).serialize(value, gen, provider)", type);
+        if (!first) {
+            method.endControlFlow();
+        }
+        return method.build();
+    }
+
+    /**
+     * The type id is resolved at compile time and always written by {@link #buildSerializeMethod()}, so the
+     * {@code TypeSerializer} Jackson derives from the very same annotations is not needed.
+     */
+    private MethodSpec buildSerializeWithTypeMethod() {
+        return MethodSpec.methodBuilder("serializeWithType")
                 .addAnnotation(Override.class)
                 .addModifiers(Modifier.PUBLIC)
                 .addException(IOException.class)
                 .addParameter(ParameterSpec.builder(className, "value").build())
                 .addParameter(ParameterSpec.builder(JsonGenerator.class, "gen").build())
                 .addParameter(ParameterSpec.builder(SerializerProvider.class, "provider").build())
+                .addParameter(ParameterSpec.builder(TypeSerializer.class, "typeSer").build())
+                .addStatement("serialize(value, gen, provider)")
+                .build();
+    }
+
+    private MethodSpec buildSerializeMethod() {
+        if (isArrayShaped(typeElement)) {
+            return buildArraySerializeMethod();
+        }
+        MethodSpec.Builder method = serializeMethodBuilder()
                 .addStatement("gen.writeStartObject(value)");
 
+        if (polymorphicType != null && !polymorphicType.isExistingProperty()) {
+            // The type id goes first, which lets deserializers dispatch without buffering
+            method.addStatement("gen.writeFieldName($N)", serializedName(polymorphicType.propertyName()));
+            method.addStatement("gen.writeString($N)",
+                    serializedName(polymorphicType.typeIdOf(typeElement, processingEnv)));
+        }
+
+        for (Getter getter : getGetters()) {
+            String fieldName = propertyName(getter);
+
+            JsonInclude.Value inclusion = getInclusion(getter.element());
+
+            CodeBlock getValue = CodeBlock.of("value.$L()", getter.getName());
+            if (!TypesUtils.isPrimitive(getter.getReturnType())) {
+                // Read the getter once, rather than once for the null check and again for the write
+                String local = local(getter.getName(), getter.implicitName());
+                method.addStatement("$T $L = $L", getter.getReturnType(), local, getValue);
+                getValue = CodeBlock.of("$L", local);
+            }
+            CodeBlock genMethodCall = writePropertyValue(getter, getValue);
+            String nameConstant = serializedName(fieldName);
+            TypeMirror optionalValueType = cache.optionalValueType(getter.getReturnType());
+
+            if (optionalValueType != null && inclusion.getValueInclusion() == JsonInclude.Include.NON_ABSENT) {
+                // Empty optionals are left out along with nulls, and present values written unwrapped; as with
+                // Jdk8Module, that goes for an optional holding an empty optional too
+                CodeBlock.Builder present = CodeBlock.builder().add("$L != null", getValue);
+                TypeMirror valueType = getter.getReturnType();
+                CodeBlock unwrapped = getValue;
+                while (getOptionalType(valueType) != null) {
+                    present.add(" && $L.isPresent()", unwrapped);
+                    unwrapped = optionalValue(valueType, unwrapped);
+                    valueType = cache.optionalValueType(valueType);
+                }
+                method.beginControlFlow("if ($L)", present.build());
+                method.addStatement("gen.writeFieldName($N)", nameConstant);
+                method.addCode(writeSerializedValue(valueType, unwrapped));
+                method.endControlFlow();
+            } else if (skipsNulls(inclusion) && !TypesUtils.isPrimitive(getter.getReturnType())) {
+                method.beginControlFlow("if ($L != null)", getValue);
+                method.addStatement("gen.writeFieldName($N)", nameConstant);
+                method.addCode(genMethodCall);
+                method.endControlFlow();
+            } else {
+                method.addStatement("gen.writeFieldName($N)", nameConstant);
+                if (!TypesUtils.isPrimitive(getter.getReturnType())) {
+                    method.beginControlFlow("if ($L == null)", getValue);
+                    method.addStatement("gen.writeNull()");
+                    method.nextControlFlow("else");
+                    method.addCode(genMethodCall);
+                    method.endControlFlow();
+                } else {
+                    method.addCode(genMethodCall);
+                }
+            }
+        }
+        method.addStatement("gen.writeEndObject()");
+
+        return method.build();
+    }
+
+    /**
+     * Writes the property values of a type with {@code @JsonFormat(shape = ARRAY)} as the elements of an array, in the
+     * order of {@link #getGetters()}. As with Jackson's own array serializer, every property takes its position even
+     * if {@code null}, so inclusion settings do not apply.
+     */
+    private MethodSpec buildArraySerializeMethod() {
+        List<Getter> getters = getGetters();
+        MethodSpec.Builder method = serializeMethodBuilder()
+                .addStatement("gen.writeStartArray(value, $L)", getters.size());
+        for (Getter getter : getters) {
+            TypeMirror type = getter.getReturnType();
+            if (TypesUtils.isPrimitive(type)) {
+                method.addCode(writePropertyValue(getter, CodeBlock.of("value.$L()", getter.getName())));
+                continue;
+            }
+            String local = local(getter.getName(), getter.implicitName());
+            method.addStatement("$T $L = value.$L()", type, local, getter.getName());
+            method.beginControlFlow("if ($L == null)", local);
+            method.addStatement("gen.writeNull()");
+            method.nextControlFlow("else");
+            method.addCode(writePropertyValue(getter, CodeBlock.of("$L", local)));
+            method.endControlFlow();
+        }
+        method.addStatement("gen.writeEndArray()");
+        return method.build();
+    }
+
+    /**
+     * Returns the names of the properties written, in order: the positions of the elements of array-shaped types.
+     */
+    List<String> getPropertyNames() {
+        return getGetters().stream()
+                .map(this::propertyName)
+                .toList();
+    }
+
+    /**
+     * Returns the getters of the properties to write, in the order Jackson writes them.
+     */
+    private List<Getter> getGetters() {
         List<Getter> getters = new ArrayList<>();
 
+        for (RecordComponentElement component : typeElement.getRecordComponents()) {
+            ExecutableElement accessor = component.getAccessor();
+            if (accessor != null && !isIgnored(accessor) && !isIgnored(component)) {
+                getters.add(new Getter(PropertyAccessor.GETTER, accessor, component.getSimpleName().toString()));
+            }
+        }
+
         for (Element el : typeElement.getEnclosedElements()) {
             if (el.getKind() != ElementKind.METHOD || isIgnored(el)) {
                 continue;
@@ -126,144 +572,412 @@ public final class SerializerGenerator {
             String methodName = element.getSimpleName().toString();
             if (methodName.startsWith("get") && methodName.length() > 3) {
                 if (isVisible(PropertyAccessor.GETTER, element)) {
-                    getters.add(new Getter(PropertyAccessor.GETTER, element));
+                    getters.add(new Getter(PropertyAccessor.GETTER, element, nameForGetter(PropertyAccessor.GETTER, element)));
                 }
             }
             if (methodName.startsWith("is") && methodName.length() > 2) {
-                if (types().isSameType(returnType, elements().getTypeElement(Boolean.class.getCanonicalName()).asType())) {
+                // Jackson takes is-getters returning boolean or Boolean, and others only with
+                // ALLOW_IS_GETTERS_FOR_NON_BOOLEAN, which is left to its own serializers
+                if (TypesUtils.isBooleanType(returnType)) {
                     if (isVisible(PropertyAccessor.IS_GETTER, element)) {
-                        getters.add(new Getter(PropertyAccessor.IS_GETTER, element));
+                        getters.add(new Getter(PropertyAccessor.IS_GETTER, element,
+                                nameForGetter(PropertyAccessor.IS_GETTER, element)));
                     }
                 }
             }
         }
 
-        PropertyNamingStrategy namingStrategy = getPropertyNamingStrategy();
+        // Properties are written in Jackson's order (see POJOPropertiesCollector): those backed by a field come
+        // first, in field order; explicitly named ones are moved after all others, and creator properties before
+        List<Element> fields = typeElement.getEnclosedElements().stream()
+                .filter(member -> member.getKind() == ElementKind.FIELD)
+                .map(Element.class::cast)
+                .toList();
+        List<String> fieldNames = fields.stream()
+                .map(field -> field.getSimpleName().toString())
+                .toList();
+        List<String> creatorNames = getCreatorPropertyNames();
+        getters.sort(Comparator.<Getter>comparingInt(getter -> {
+                    int index = creatorNames.indexOf(propertyName(getter));
+                    return (index < 0) ? creatorNames.size() : index;
+                })
+                .thenComparing(getter -> getExplicitPropertyName(getter.element()) != null
+                        || (fieldNames.contains(getter.implicitName())
+                                && getExplicitPropertyName(fields.get(fieldNames.indexOf(getter.implicitName()))) != null))
+                .thenComparingInt(getter -> fieldNames.contains(getter.implicitName())
+                        ? fieldNames.indexOf(getter.implicitName())
+                        : fieldNames.size()));
+        return getters;
+    }
 
-        for (Getter getter : getters) {
-            String fieldName = getExplicitPropertyName(getter.element());
-            if (fieldName == null) {
-                fieldName = nameForGetter(getter.accessorType(), getter.element());
-                if (fieldName != null) {
-                    fieldName = namingStrategy.nameForField(serializationConfig, null, fieldName);
+    /**
+     * Returns the names of the properties passed to the creator, which Jackson writes first and in parameter order:
+     * the components of a record, or the named parameters of a {@code @JsonCreator}.
+     */
+    private List<String> getCreatorPropertyNames() {
+        if (typeElement.getKind() == ElementKind.RECORD) {
+            return typeElement.getRecordComponents().stream()
+                    .filter(component -> component.getAccessor() != null)
+                    .map(component -> propertyName(new Getter(
+                            PropertyAccessor.GETTER, component.getAccessor(), component.getSimpleName().toString())))
+                    .toList();
+        }
+        for (Element el : typeElement.getEnclosedElements()) {
+            JsonCreator anno = el.getAnnotation(JsonCreator.class);
+            if (anno != null && anno.mode() != JsonCreator.Mode.DISABLED && anno.mode() != JsonCreator.Mode.DELEGATING
+                    && el instanceof ExecutableElement creator) {
+                List<String> names = new ArrayList<>();
+                for (VariableElement parameter : creator.getParameters()) {
+                    String name = getExplicitPropertyName(parameter);
+                    if (name != null) {
+                        names.add(name);
+                    }
                 }
+                return names;
             }
+        }
+        return List.of();
+    }
 
-            JsonInclude.Value inclusion = getInclusion(getter.element());
+    private String propertyName(Getter getter) {
+        String fieldName = getExplicitPropertyName(getter.element());
+        if (fieldName != null) {
+            return fieldName;
+        }
+        PropertyNamingStrategy namingStrategy = cache.namingStrategy(typeElement, serializationConfig);
+        return (namingStrategy == null)
+                ? getter.implicitName()
+                : namingStrategy.nameForField(serializationConfig, null, getter.implicitName());
+    }
 
-            CodeBlock getValue = CodeBlock.of("value.$L()", getter.getName());
-            CodeBlock genMethodCall = writeSerializedValue(getter.getReturnType(), getValue);
+    /**
+     * Writes the value of a property, in the format set by {@code @JsonFormat} on its getter or field for
+     * {@code java.time} values.
+     */
+    private CodeBlock writePropertyValue(Getter getter, CodeBlock getValue) {
+        Class<?> timeType = getTimeType(getter.getReturnType());
+        JsonFormat format = (timeType == null) ? null : formatOf(getter);
+        return (format == null)
+                ? writeSerializedValue(getter.getReturnType(), getValue)
+                : writeTime(timeType, getValue, format);
+    }
 
-            if (inclusion.getValueInclusion() == JsonInclude.Include.NON_NULL && !TypesUtils.isPrimitive(getter.getReturnType())) {
-                method.beginControlFlow("if ($L != null)", getValue);
-                method.addStatement("gen.writeFieldName($S)", fieldName);
-                method.addCode(genMethodCall);
-                method.endControlFlow();
-            } else {
-                method.addStatement("gen.writeFieldName($S)", fieldName);
-                if (!TypesUtils.isPrimitive(getter.getReturnType())) {
-                    method.beginControlFlow("if ($L == null)", getValue);
-                    method.addStatement("gen.writeNull()");
-                    method.nextControlFlow("else");
-                    method.addCode(genMethodCall);
-                    method.endControlFlow();
-                } else {
-                    method.addCode(genMethodCall);
-                }
+    @Nullable
+    private JsonFormat formatOf(Getter getter) {
+        JsonFormat format = getter.element().getAnnotation(JsonFormat.class);
+        if (format != null) {
+            return format;
+        }
+        for (Element member : typeElement.getEnclosedElements()) {
+            if (member.getKind() == ElementKind.FIELD && member.getSimpleName().contentEquals(getter.implicitName())) {
+                return member.getAnnotation(JsonFormat.class);
             }
         }
-        method.addStatement("gen.writeEndObject()");
+        return null;
+    }
 
-        return method.build();
+    /**
+     * Writes a {@code java.time} value through {@link TimeValues}, as the JSR-310 module would for the shape and
+     * pattern of its {@code @JsonFormat}, if any, with a formatter precomputed for the pattern. Whether a timestamp
+     * is written otherwise depends on the provider's features, checked per value.
+     */
+    private CodeBlock writeTime(Class<?> timeType, CodeBlock getValue, @Nullable JsonFormat format) {
+        JsonFormat.Shape shape = (format == null) ? JsonFormat.Shape.ANY : format.shape();
+        if (timeType == Duration.class) {
+            return CodeBlock.builder()
+                    .addStatement("$T.writeDuration(gen, provider, $L, $T.$L)", TimeValues.class, getValue,
+                            JsonFormat.Shape.class, shape)
+                    .build();
+        }
+        CodeBlock formatter = (format != null && hasTimePattern(format, timeType))
+                ? CodeBlock.of("$N", formatter(format, timeType))
+                : CodeBlock.of("null");
+        return CodeBlock.builder()
+                .addStatement("$T.write$L(gen, provider, $L, $T.$L, $L)", TimeValues.class, timeType.getSimpleName(),
+                        getValue, JsonFormat.Shape.class, shape, formatter)
+                .build();
+    }
+
+    /**
+     * Returns the name of the {@code static final DateTimeFormatter} constant for a {@code @JsonFormat} pattern,
+     * shared by the properties using the same one.
+     */
+    private String formatter(JsonFormat format, Class<?> timeType) {
+        CodeBlock initializer = formatterOf(format, timeType);
+        return formatters.computeIfAbsent(initializer.toString(), key -> {
+            String name = names.newName("FORMAT_" + formatters.size());
+            formatterFields.add(FieldSpec.builder(DateTimeFormatter.class, name,
+                            Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                    .initializer(initializer)
+                    .build());
+            return name;
+        });
     }
 
     private CodeBlock writeSerializedValue(TypeMirror type, CodeBlock getValue) {
         if (TypesUtils.isPrimitive(type) || TypesUtils.isBoxedPrimitive(type)) {
-            if (TypesUtils.isBooleanType(type)) {
-                return CodeBlock.builder()
+            TypeKind kind = TypesUtils.isBoxedPrimitive(type) ? types().unboxedType(type).getKind() : type.getKind();
+            return switch (kind) {
+                case BOOLEAN -> CodeBlock.builder()
                         .addStatement("gen.writeBoolean($L)", getValue)
                         .build();
-            } else if (TypesUtils.isNumeric(type)) {
-                return CodeBlock.builder()
+                case CHAR -> CodeBlock.builder()
+                        .addStatement("gen.writeString($T.valueOf($L))", String.class, getValue)
+                        .build();
+                default -> CodeBlock.builder()
                         .addStatement("gen.writeNumber($L)", getValue)
                         .build();
-            }
+            };
         } else if (TypesUtils.isString(type)) {
             return CodeBlock.builder()
                     .addStatement("gen.writeString($L)", getValue)
                     .build();
-        } else if (types().isAssignable(types().erasure(type), elements().getTypeElement(Collection.class.getCanonicalName()).asType())) {
-            TypeMirror itemType = ((DeclaredType) type).getTypeArguments().get(0);
+        } else if (TypesUtils.isDeclaredOfName(type, BigDecimal.class.getCanonicalName())
+                || TypesUtils.isDeclaredOfName(type, BigInteger.class.getCanonicalName())) {
+            return CodeBlock.builder()
+                    .addStatement("gen.writeNumber($L)", getValue)
+                    .build();
+        } else if (TypesUtils.isDeclaredOfName(type, UUID.class.getCanonicalName())) {
             return CodeBlock.builder()
-                    .addStatement("gen.writeStartArray()")
-                    .beginControlFlow("for ($T item : $L)", itemType, getValue)
-                    .add(writeSerializedValue(itemType, CodeBlock.of("item")))
+                    .addStatement("$T.writeUuid(gen, $L)", UuidValues.class, getValue)
+                    .build();
+        } else if (cache.optionalValueType(type) != null) {
+            // Written as Jdk8Module does: the value if present, otherwise null
+            return CodeBlock.builder()
+                    .beginControlFlow("if ($L.isPresent())", getValue)
+                    .add(writeSerializedValue(cache.optionalValueType(type), optionalValue(type, getValue)))
+                    .nextControlFlow("else")
+                    .addStatement("gen.writeNull()")
                     .endControlFlow()
-                    .addStatement("gen.writeEndArray()")
                     .build();
-        } else if (types().isAssignable(types().erasure(type), elements().getTypeElement(Map.class.getCanonicalName()).asType())) {
-            TypeMirror keyType = ((DeclaredType) type).getTypeArguments().get(0);
-            TypeMirror valueType = ((DeclaredType) type).getTypeArguments().get(1);
-            TypeName mapEntry = ParameterizedTypeName.get(ClassName.get(Map.Entry.class),
-                    ClassName.get(keyType), ClassName.get(valueType));
+        } else if (type.getKind() == TypeKind.ARRAY) {
+            return writeArray((ArrayType) type, getValue);
+        } else if (cache.isSubtype(type, Collection.class)) {
+            TypeMirror itemType = cache.typeArgumentOf(type, Collection.class, 0);
+            String item = loopVariable("item");
             return CodeBlock.builder()
-                    .addStatement("gen.writeStartObject()")
-                    .beginControlFlow("for ($T entry : $L.entrySet())", mapEntry, getValue)
-                    .addStatement("gen.writeFieldName(entry.getKey())")
-                    .add(writeSerializedValue(valueType, CodeBlock.of("entry.getValue()")))
+                    .addStatement("gen.writeStartArray($L, $L.size())", getValue, getValue)
+                    .beginControlFlow("for ($T $L : $L)", itemType, item, getValue)
+                    .add(writeNested(itemType, CodeBlock.of("$L", item)))
                     .endControlFlow()
-                    .addStatement("gen.writeEndObject()")
+                    .addStatement("gen.writeEndArray()")
                     .build();
-        } else if (types().isAssignable(type,
-                types().erasure(elements().getTypeElement(Enum.class.getCanonicalName()).asType()))) {
-
+        } else if (cache.isSubtype(type, Map.class)) {
+            DeclaredType mapType = cache.asSupertype(type, Map.class);
+            if (mapType != null && !mapType.getTypeArguments().isEmpty()) {
+                TypeMirror keyType = cache.typeArgumentOf(type, Map.class, 0);
+                TypeMirror valueType = cache.typeArgumentOf(type, Map.class, 1);
+                // The entry keeps any wildcards of the declared type, so that it matches what entrySet() returns
+                TypeName mapEntry = ParameterizedTypeName.get(ClassName.get(Map.Entry.class),
+                        TypeName.get(mapType.getTypeArguments().get(0)), TypeName.get(mapType.getTypeArguments().get(1)));
+                String entry = loopVariable("entry");
+                String item = loopVariable("item");
+                return CodeBlock.builder()
+                        .addStatement("gen.writeStartObject($L, $L.size())", getValue, getValue)
+                        .beginControlFlow("for ($T $L : $L.entrySet())", mapEntry, entry, getValue)
+                        .addStatement("gen.writeFieldName($L)", fieldNameOf(keyType, CodeBlock.of("$L.getKey()", entry)))
+                        .addStatement("$T $L = $L.getValue()", valueType, item, entry)
+                        .add(writeNested(valueType, CodeBlock.of("$L", item)))
+                        .endControlFlow()
+                        .addStatement("gen.writeEndObject()")
+                        .build();
+            }
+        } else if (isEnum(type) && cache.isEnumReadByName((TypeElement) types().asElement(type))) {
             if (serializationConfig.isEnabled(SerializationFeature.WRITE_ENUMS_USING_INDEX)) {
-                return  CodeBlock.builder()
+                return CodeBlock.builder()
                         .addStatement("gen.writeNumber($L.ordinal())", getValue)
                         .build();
-                
             } else if (serializationConfig.isEnabled(SerializationFeature.WRITE_ENUMS_USING_TO_STRING)) {
-                return  CodeBlock.builder()
+                return CodeBlock.builder()
                         .addStatement("gen.writeString($L.toString())", getValue)
                         .build();
             } else {
-                List<VariableElement> enumValues = new ArrayList<>();
-                boolean hasAnyExplicitNames = false;
-                for (Element e : elements().getAllMembers((TypeElement) types().asElement(type))) {
-                    if (e.getKind() == ElementKind.ENUM_CONSTANT) {
-                        if (!hasAnyExplicitNames && getExplicitPropertyName(e) != null) {
-                            hasAnyExplicitNames = true;
-                        }
-                        enumValues.add((VariableElement) e);
-                    }
-                }
+                return CodeBlock.builder()
+                        .addStatement("gen.writeString($N($L))", enumNameMethod((TypeElement) types().asElement(type)),
+                                getValue)
+                        .build();
+            }
+        }
+        Class<?> timeType = getTimeType(type);
+        if (timeType != null) {
+            return writeTime(timeType, getValue, null);
+        }
+        ClassName serializer = generatedSerializerOf(type);
+        if (serializer != null) {
+            // Call the nested type's generated serializer directly, skipping the provider lookup; unless the type is
+            // final the runtime class still has to be checked, as a subclass may well serialize differently
+            TypeElement element = (TypeElement) types().asElement(type);
+            if (element.getModifiers().contains(Modifier.FINAL)
+                    || (isAbstract(element) && cache.polymorphicType(element) != null)) {
+                return CodeBlock.builder()
+                        .addStatement("$T.$L.serialize($L, gen, provider)", serializer, variantInstance(), getValue)
+                        .build();
+            }
+            return CodeBlock.builder()
+                    .beginControlFlow("if ($L.getClass() == $T.class)", getValue, types().erasure(type))
+                    .addStatement("$T.$L.serialize($L, gen, provider)", serializer, variantInstance(), getValue)
+                    .nextControlFlow("else")
+                    .addStatement("gen.writeObject($L)", getValue)
+                    .endControlFlow()
+                    .build();
+        }
+        return CodeBlock.builder()
+                .addStatement("gen.writeObject($L)", getValue)
+                .build();
+    }
 
-                if (hasAnyExplicitNames) {
-                    CodeBlock.Builder enumSwitch = CodeBlock.builder()
-                            .beginControlFlow("switch ($L)", getValue);
-                    for (VariableElement e : enumValues) {
-                        enumSwitch.add("case $L:\n", e.getSimpleName());
-                        String explicitName = getExplicitPropertyName(e);
-                        if (explicitName != null) {
-                            enumSwitch.addStatement("$>gen.writeString($S)$<", explicitName);
-                        } else {
-                            enumSwitch.addStatement("$>gen.writeString($L.name())$<", getValue);
-                        }
-                    }
+    private static CodeBlock optionalValue(TypeMirror type, CodeBlock getValue) {
+        Class<?> optionalType = getOptionalType(type);
+        if (optionalType == Optional.class) {
+            return CodeBlock.of("$L.get()", getValue);
+        } else if (optionalType == OptionalInt.class) {
+            return CodeBlock.of("$L.getAsInt()", getValue);
+        } else if (optionalType == OptionalLong.class) {
+            return CodeBlock.of("$L.getAsLong()", getValue);
+        }
+        return CodeBlock.of("$L.getAsDouble()", getValue);
+    }
 
-                    enumSwitch.endControlFlow();
-                    return enumSwitch.build();
-                }
+    /**
+     * Writes arrays without a runtime serializer lookup: {@code int[]}, {@code long[]} and {@code double[]} through
+     * the generator's bulk {@code writeArray}, {@code byte[]} as Base64 and {@code char[]} as a string (as Jackson
+     * does by default), and anything else element by element.
+     */
+    private CodeBlock writeArray(ArrayType type, CodeBlock getValue) {
+        TypeMirror componentType = type.getComponentType();
+        switch (componentType.getKind()) {
+            case INT, LONG, DOUBLE -> {
                 return CodeBlock.builder()
-                        .addStatement("gen.writeString($L.name())", getValue)
+                        .addStatement("gen.writeArray($L, 0, $L.length)", getValue, getValue)
                         .build();
             }
+            case BYTE -> {
+                return CodeBlock.builder()
+                        .addStatement("gen.writeBinary(provider.getConfig().getBase64Variant(), $L, 0, $L.length)",
+                                getValue, getValue)
+                        .build();
+            }
+            case CHAR -> {
+                return CodeBlock.builder()
+                        .addStatement("gen.writeString($L, 0, $L.length)", getValue, getValue)
+                        .build();
+            }
+            default -> {
+                String item = loopVariable("item");
+                return CodeBlock.builder()
+                        .addStatement("gen.writeStartArray($L, $L.length)", getValue, getValue)
+                        .beginControlFlow("for ($T $L : $L)", componentType, item, getValue)
+                        .add(writeNested(componentType, CodeBlock.of("$L", item)))
+                        .endControlFlow()
+                        .addStatement("gen.writeEndArray()")
+                        .build();
+            }
+        }
+    }
+
+    /**
+     * Writes an element of an array, collection or map, which unlike a property may be {@code null} regardless of
+     * any inclusion settings.
+     */
+    private CodeBlock writeElement(TypeMirror type, CodeBlock getValue) {
+        if (TypesUtils.isPrimitive(type)) {
+            return writeSerializedValue(type, getValue);
         }
         return CodeBlock.builder()
-                .addStatement("gen.writeObject($L)", getValue)
+                .beginControlFlow("if ($L == null)", getValue)
+                .addStatement("gen.writeNull()")
+                .nextControlFlow("else")
+                .add(writeSerializedValue(type, getValue))
+                .endControlFlow()
                 .build();
     }
 
+    /**
+     * Writes an element from within a loop, one level deeper than the current one.
+     */
+    private CodeBlock writeNested(TypeMirror type, CodeBlock getValue) {
+        depth++;
+        try {
+            return writeElement(type, getValue);
+        } finally {
+            depth--;
+        }
+    }
+
+    /**
+     * Returns the name of a loop variable for the current nesting depth ({@code item}, {@code item2}, ...); loops
+     * at the same depth never overlap, so they share a name.
+     */
+    private String loopVariable(String base) {
+        String key = base + depth;
+        return loopVariables.computeIfAbsent(key, k -> names.newName(depth == 0 ? base : base + (depth + 1)));
+    }
+
+    private CodeBlock fieldNameOf(TypeMirror keyType, CodeBlock key) {
+        if (TypesUtils.isString(keyType)) {
+            return key;
+        } else if (isEnum(keyType)) {
+            TypeElement enumType = (TypeElement) types().asElement(keyType);
+            return cache.isEnumReadByName(enumType)
+                    ? CodeBlock.of("$N($L)", enumNameMethod(enumType), key)
+                    : CodeBlock.of("$L.name()", key);
+        }
+        return CodeBlock.of("$T.valueOf($L)", String.class, key);
+    }
+
+    /**
+     * Adds a method returning the pre-encoded name of an enum constant (honoring {@code @JsonProperty} renames), for
+     * writing both values and map keys.
+     */
+    private String enumNameMethod(TypeElement enumType) {
+        return enumNameMethods.computeIfAbsent(enumType.getQualifiedName().toString(), key -> {
+            String methodName = names.newName("nameOf" + enumType.getSimpleName());
+            MethodSpec.Builder method = MethodSpec.methodBuilder(methodName)
+                    .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+                    .returns(SerializedString.class)
+                    .addParameter(ClassName.get(enumType), "value");
+            method.beginControlFlow("switch (value)");
+            for (VariableElement constant : cache.enumConstants(enumType)) {
+                String name = getExplicitPropertyName(constant);
+                method.addCode("case $L:\n$>", constant.getSimpleName());
+                method.addStatement("return $N$<",
+                        serializedName((name == null) ? constant.getSimpleName().toString() : name));
+            }
+            // Constants added since this class was generated
+            method.addCode("default:\n$>");
+            method.addStatement("return new $T(value.name())$<", SerializedString.class);
+            method.endControlFlow();
+            enumNameMethodSpecs.add(method.build());
+            return methodName;
+        });
+    }
+
+    private boolean isEnum(TypeMirror type) {
+        return type.getKind() == TypeKind.DECLARED && types().asElement(type).getKind() == ElementKind.ENUM;
+    }
+
+    /**
+     * Returns the serializer generated for the given type if it is itself an {@link AutoSerde} type in this
+     * compilation, or {@code null} if it has to be serialized through the provider.
+     */
+    @Nullable
+    private ClassName generatedSerializerOf(TypeMirror type) {
+        if (type.getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+        TypeElement element = (TypeElement) types().asElement(type);
+        AutoSerde anno = element.getAnnotation(AutoSerde.class);
+        if (anno == null || anno.value() == AutoSerde.AutoGenerate.DESERIALIZER
+                || (cache.hasTypeInfo(element) && cache.polymorphicType(element) == null)) {
+            return null;
+        }
+        return getSerializerName(element, elements());
+    }
+
+    private static boolean isAbstract(TypeElement element) {
+        return element.getKind() == ElementKind.INTERFACE || element.getModifiers().contains(Modifier.ABSTRACT);
+    }
+
     private boolean isIgnored(Element element) {
         if (serializationConfig.isEnabled(MapperFeature.PROPAGATE_TRANSIENT_MARKER)
                 && element.getModifiers().contains(Modifier.TRANSIENT)) {
@@ -276,18 +990,33 @@ public final class SerializerGenerator {
         return false;
     }
 
-    private static JsonInclude.Value getInclusion(Element element) {
-        JsonInclude anno = element.getAnnotation(JsonInclude.class);
-        return (anno == null) ? JsonInclude.Value.empty() : JsonInclude.Value.construct(anno.value(), anno.content());
+    /**
+     * Returns the inclusion of a property: the default inclusion of the configuration, overridden by
+     * {@code @JsonInclude} on the type and then on the property itself.
+     */
+    private JsonInclude.Value getInclusion(Element element) {
+        return profile.getDefaultPropertyInclusion()
+                .withOverrides(inclusionOf(typeElement))
+                .withOverrides(inclusionOf(element));
     }
 
-    @Nullable
-    private String getExplicitPropertyName(Element element) {
-        JsonProperty anno = element.getAnnotation(JsonProperty.class);
-        if (anno != null && !anno.value().equals(JsonProperty.USE_DEFAULT_NAME)) {
-            return anno.value();
-        }
-        return null;
+    /**
+     * Whether {@code null} values of a property are left out: with {@code NON_NULL}, and with {@code NON_ABSENT}
+     * which also leaves out empty optionals.
+     */
+    private static boolean skipsNulls(JsonInclude.Value inclusion) {
+        return inclusion.getValueInclusion() == JsonInclude.Include.NON_NULL
+                || inclusion.getValueInclusion() == JsonInclude.Include.NON_ABSENT;
+    }
+
+    private JsonInclude.Include defaultInclusion() {
+        JsonInclude.Include inclusion = profile.getDefaultPropertyInclusion().getValueInclusion();
+        return (inclusion == JsonInclude.Include.USE_DEFAULTS) ? JsonInclude.Include.ALWAYS : inclusion;
+    }
+
+    private static JsonInclude.Value inclusionOf(Element element) {
+        JsonInclude anno = element.getAnnotation(JsonInclude.class);
+        return (anno == null) ? JsonInclude.Value.empty() : JsonInclude.Value.construct(anno.value(), anno.content());
     }
 
     private boolean isVisible(PropertyAccessor accessorType, Element element) {
@@ -335,38 +1064,6 @@ public final class SerializerGenerator {
         };
     }
 
-    private final List<PropertyNamingStrategy> propertyNamingStrategies = List.of(
-            PropertyNamingStrategy.KEBAB_CASE,
-            PropertyNamingStrategy.LOWER_CAMEL_CASE,
-            PropertyNamingStrategy.LOWER_DOT_CASE,
-            PropertyNamingStrategy.SNAKE_CASE,
-            PropertyNamingStrategy.UPPER_CAMEL_CASE,
-            PropertyNamingStrategies.KEBAB_CASE,
-            PropertyNamingStrategies.LOWER_CAMEL_CASE,
-            PropertyNamingStrategies.LOWER_DOT_CASE,
-            PropertyNamingStrategies.SNAKE_CASE,
-            PropertyNamingStrategies.UPPER_CAMEL_CASE);
-
-    private PropertyNamingStrategy getPropertyNamingStrategy() {
-        TypeMirror jsonNaming = elements().getTypeElement(JsonNaming.class.getCanonicalName()).asType();
-        for (AnnotationMirror anno : elements().getAllAnnotationMirrors(typeElement)) {
-            if (types().isSameType(anno.getAnnotationType(), jsonNaming)) {
-                for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : elements().getElementValuesWithDefaults(anno).entrySet()) {
-                    if (entry.getKey().getSimpleName().toString().equals("value")) {
-                        AnnotationValue value = entry.getValue();
-                        TypeMirror t = (TypeMirror) value.getValue();
-                        for (PropertyNamingStrategy strategy : propertyNamingStrategies) {
-                           if (types().isSameType(t, elements().getTypeElement(strategy.getClass().getCanonicalName()).asType())) {
-                               return strategy;
-                            }
-                        }
-                    }
-                }
-            }
-        }
-        return serializationConfig.getPropertyNamingStrategy();
-    }
-
     private Elements elements() {
         return processingEnv.getElementUtils();
     }
@@ -375,7 +1072,7 @@ public final class SerializerGenerator {
         return processingEnv.getTypeUtils();
     }
 
-    private record Getter(PropertyAccessor accessorType, ExecutableElement element) {
+    private record Getter(PropertyAccessor accessorType, ExecutableElement element, String implicitName) {
 
         public String getName() {
             return element.getSimpleName().toString();
@@ -0,0 +1,675 @@
+package net.kilink.jackson;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import org.jspecify.annotations.Nullable;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.OffsetDateTime;
+import java.time.Year;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.function.BiFunction;
+
+/**
+ * Reads and writes the {@code java.time} values generated code handles itself, as the JSR-310 module does for the
+ * same configuration and {@code @JsonFormat}. With {@code WRITE_DATES_AS_TIMESTAMPS} disabled, or a string shape, they
+ * are written in ISO-8601: {@link Instant} as {@code 2024-01-15T10:30:00Z}, {@link LocalDate} as {@code 2024-01-15}
+ * and {@link OffsetDateTime} as {@code 2024-01-15T10:30:00+01:00}. Timestamps, Jackson's default, are decimal seconds
+ * ({@code 1705314600.000000000}, or epoch milliseconds without {@code WRITE_DATE_TIMESTAMPS_AS_NANOSECONDS}) and
+ * {@code [2024,1,15]} arrays for {@code LocalDate}; {@link Duration} likewise follows
+ * {@code WRITE_DURATIONS_AS_TIMESTAMPS}, or else is written as {@code PT1H30M}. Dates in the years 0 to 9999 are
+ * formatted and parsed on the parser's and generator's character buffers, without intermediate strings; anything
+ * else goes through {@code java.time} itself.
+ */
+public final class TimeValues {
+
+    private static final long SECONDS_PER_DAY = 86_400;
+    private static final long DAYS_0000_TO_1970 = 719_528;
+    private static final long MIN_EPOCH_DAY = LocalDate.of(0, 1, 1).toEpochDay();
+    private static final long MAX_EPOCH_DAY = LocalDate.of(9999, 12, 31).toEpochDay();
+
+    // Long enough for the longest value formatted here, e.g. 2024-01-15T10:30:00.123456789+01:00
+    private static final ThreadLocal<char[]> BUFFERS = ThreadLocal.withInitial(() -> new char[40]);
+
+    private TimeValues() {}
+
+    /**
+     * Writes an {@code Instant} as {@code InstantSerializer}, for a property with the given {@code @JsonFormat}
+     * shape and pattern ({@code ANY} and {@code null} if not annotated).
+     */
+    public static void writeInstant(JsonGenerator gen, SerializerProvider provider, Instant value,
+                                    JsonFormat.Shape shape, @Nullable DateTimeFormatter format) throws IOException {
+        if (!useTimestamp(provider, shape, format, SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)) {
+            if (format == null) {
+                writeIsoInstant(gen, value);
+            } else {
+                gen.writeString(inContextZone(provider, format).format(value));
+            }
+        } else if (useNanoseconds(provider, shape)) {
+            gen.writeNumber(decimalSeconds(value.getEpochSecond(), value.getNano()));
+        } else {
+            gen.writeNumber(value.toEpochMilli());
+        }
+    }
+
+    /**
+     * Writes a {@code LocalDate} as {@code LocalDateSerializer}: timestamps are {@code [year,month,day]} arrays,
+     * except for {@code NUMBER_INT} which writes the epoch day.
+     */
+    public static void writeLocalDate(JsonGenerator gen, SerializerProvider provider, LocalDate value,
+                                      JsonFormat.Shape shape, @Nullable DateTimeFormatter format) throws IOException {
+        if (!useTimestamp(provider, shape, format, SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)) {
+            if (format == null) {
+                writeIsoLocalDate(gen, value);
+            } else {
+                gen.writeString(value.format(format));
+            }
+        } else if (shape == JsonFormat.Shape.NUMBER_INT) {
+            gen.writeNumber(value.toEpochDay());
+        } else {
+            gen.writeStartArray();
+            gen.writeNumber(value.getYear());
+            gen.writeNumber(value.getMonthValue());
+            gen.writeNumber(value.getDayOfMonth());
+            gen.writeEndArray();
+        }
+    }
+
+    /**
+     * Writes an {@code OffsetDateTime} as {@code OffsetDateTimeSerializer}; as text it is moved to the mapper's time
+     * zone if one was set explicitly and {@code WRITE_DATES_WITH_CONTEXT_TIME_ZONE} is enabled.
+     */
+    public static void writeOffsetDateTime(JsonGenerator gen, SerializerProvider provider, OffsetDateTime value,
+                                           JsonFormat.Shape shape, @Nullable DateTimeFormatter format)
+            throws IOException {
+        if (!useTimestamp(provider, shape, format, SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)) {
+            if (format != null) {
+                gen.writeString(inContextZone(provider, format).format(value));
+            } else if (usesContextZone(provider)) {
+                writeIsoOffsetDateTime(gen, value.atZoneSameInstant(provider.getTimeZone().toZoneId())
+                        .toOffsetDateTime());
+            } else {
+                writeIsoOffsetDateTime(gen, value);
+            }
+        } else if (useNanoseconds(provider, shape)) {
+            gen.writeNumber(decimalSeconds(value.toEpochSecond(), value.getNano()));
+        } else {
+            gen.writeNumber(value.toInstant().toEpochMilli());
+        }
+    }
+
+    /**
+     * Writes a {@code Duration} as {@code DurationSerializer}, which leaves the choice between seconds and
+     * milliseconds to the provider whatever the shape.
+     */
+    public static void writeDuration(JsonGenerator gen, SerializerProvider provider, Duration value,
+                                     JsonFormat.Shape shape) throws IOException {
+        if (!useTimestamp(provider, shape, null, SerializationFeature.WRITE_DURATIONS_AS_TIMESTAMPS)) {
+            gen.writeString(value.toString());
+        } else if (provider.isEnabled(SerializationFeature.WRITE_DATE_TIMESTAMPS_AS_NANOSECONDS)) {
+            // Unlike instants, negative durations are written as their actual value
+            Duration abs = value.abs();
+            BigDecimal seconds = decimalSeconds(abs.getSeconds(), abs.getNano());
+            gen.writeNumber(value.isNegative() ? seconds.negate() : seconds);
+        } else {
+            gen.writeNumber(value.toMillis());
+        }
+    }
+
+    /**
+     * As {@code JSR310FormattedSerializerBase.useTimestamp}: numeric and array shapes always write a timestamp,
+     * string shapes and patterns never do, anything else as the provider is configured.
+     */
+    private static boolean useTimestamp(SerializerProvider provider, JsonFormat.Shape shape,
+                                        @Nullable DateTimeFormatter format, SerializationFeature feature) {
+        if (shape == JsonFormat.Shape.ARRAY || shape.isNumeric()) {
+            return true;
+        } else if (shape == JsonFormat.Shape.STRING) {
+            return false;
+        }
+        return format == null && provider.isEnabled(feature);
+    }
+
+    private static boolean useNanoseconds(SerializerProvider provider, JsonFormat.Shape shape) {
+        if (shape == JsonFormat.Shape.NUMBER_INT) {
+            return false;
+        } else if (shape == JsonFormat.Shape.NUMBER_FLOAT) {
+            return true;
+        }
+        return provider.isEnabled(SerializationFeature.WRITE_DATE_TIMESTAMPS_AS_NANOSECONDS);
+    }
+
+    private static boolean usesContextZone(SerializerProvider provider) {
+        return provider.getConfig().hasExplicitTimeZone()
+                && provider.isEnabled(SerializationFeature.WRITE_DATES_WITH_CONTEXT_TIME_ZONE);
+    }
+
+    private static DateTimeFormatter inContextZone(SerializerProvider provider, DateTimeFormatter format) {
+        return (format.getZone() == null && usesContextZone(provider))
+                ? format.withZone(provider.getTimeZone().toZoneId())
+                : format;
+    }
+
+    /**
+     * As {@code DecimalUtils.toBigDecimal}, which writes the seconds and nanoseconds side by side, so that negative
+     * instants with a fraction come out as {@code -2.500000000} for {@code Instant.ofEpochSecond(-2, 500_000_000)}.
+     */
+    private static BigDecimal decimalSeconds(long seconds, int nanos) {
+        if (nanos == 0) {
+            return (seconds == 0) ? BigDecimal.ZERO.setScale(1) : BigDecimal.valueOf(seconds).setScale(9);
+        }
+        BigDecimal fraction = BigDecimal.valueOf(nanos, 9);
+        BigDecimal whole = BigDecimal.valueOf(seconds);
+        return (seconds < 0) ? whole.subtract(fraction) : whole.add(fraction);
+    }
+
+    private static void writeIsoInstant(JsonGenerator gen, Instant value) throws IOException {
+        long epochDay = Math.floorDiv(value.getEpochSecond(), SECONDS_PER_DAY);
+        if (epochDay < MIN_EPOCH_DAY || epochDay > MAX_EPOCH_DAY) {
+            gen.writeString(value.toString());
+            return;
+        }
+        char[] buf = BUFFERS.get();
+        int pos = formatDate(buf, epochDay);
+        buf[pos++] = 'T';
+        pos = formatTime(buf, pos, (int) Math.floorMod(value.getEpochSecond(), SECONDS_PER_DAY));
+        // As DateTimeFormatter.ISO_INSTANT: the fraction in groups of three digits, as many as needed
+        int nano = value.getNano();
+        if (nano != 0) {
+            buf[pos++] = '.';
+            if (nano % 1_000_000 == 0) {
+                pos = formatDigits(buf, pos, nano / 1_000_000, 3);
+            } else if (nano % 1_000 == 0) {
+                pos = formatDigits(buf, pos, nano / 1_000, 6);
+            } else {
+                pos = formatDigits(buf, pos, nano, 9);
+            }
+        }
+        buf[pos++] = 'Z';
+        gen.writeString(buf, 0, pos);
+    }
+
+    private static void writeIsoLocalDate(JsonGenerator gen, LocalDate value) throws IOException {
+        if (value.getYear() < 0 || value.getYear() > 9999) {
+            gen.writeString(value.toString());
+            return;
+        }
+        char[] buf = BUFFERS.get();
+        int pos = formatDate(buf, value.getYear(), value.getMonthValue(), value.getDayOfMonth());
+        gen.writeString(buf, 0, pos);
+    }
+
+    private static void writeIsoOffsetDateTime(JsonGenerator gen, OffsetDateTime value) throws IOException {
+        int offset = value.getOffset().getTotalSeconds();
+        if (value.getYear() < 0 || value.getYear() > 9999 || offset % 60 != 0) {
+            gen.writeString(DateTimeFormatter.ISO_OFFSET_DATE_TIME.format(value));
+            return;
+        }
+        char[] buf = BUFFERS.get();
+        int pos = formatDate(buf, value.getYear(), value.getMonthValue(), value.getDayOfMonth());
+        buf[pos++] = 'T';
+        pos = formatTime(buf, pos, value.toLocalTime().toSecondOfDay());
+        // As DateTimeFormatter.ISO_OFFSET_DATE_TIME: the fraction without trailing zeros
+        int nano = value.getNano();
+        if (nano != 0) {
+            int digits = 9;
+            while (nano % 10 == 0) {
+                nano /= 10;
+                digits--;
+            }
+            buf[pos++] = '.';
+            pos = formatDigits(buf, pos, nano, digits);
+        }
+        if (offset == 0) {
+            buf[pos++] = 'Z';
+        } else {
+            buf[pos++] = (offset < 0) ? '-' : '+';
+            int minutes = Math.abs(offset) / 60;
+            pos = formatDigits(buf, pos, minutes / 60, 2);
+            buf[pos++] = ':';
+            pos = formatDigits(buf, pos, minutes % 60, 2);
+        }
+        gen.writeString(buf, 0, pos);
+    }
+
+    /**
+     * Reads an {@code Instant} from a string, in the given format or else ISO-8601, or from a timestamp as
+     * {@code InstantDeserializer}; empty strings are read as {@code null}.
+     */
+    @Nullable
+    public static Instant readInstant(JsonParser p, DeserializationContext ctxt, @Nullable DateTimeFormatter format)
+            throws IOException {
+        if (p.hasToken(JsonToken.VALUE_NUMBER_INT)) {
+            return instantOf(ctxt, p.getLongValue());
+        } else if (p.hasToken(JsonToken.VALUE_NUMBER_FLOAT)) {
+            return fromDecimalSeconds(p.getDecimalValue(), true, Instant::ofEpochSecond);
+        } else if (!p.hasToken(JsonToken.VALUE_STRING)) {
+            return (Instant) ctxt.handleUnexpectedToken(Instant.class, p);
+        }
+        if (format == null) {
+            char[] text = p.getTextCharacters();
+            int offset = p.getTextOffset();
+            int length = p.getTextLength();
+            long dateTime = parseDateTime(text, offset, length);
+            long fraction = (dateTime < 0) ? -1 : parseFraction(text, offset + 19, offset + length);
+            if (fraction >= 0 && length == 20 + lengthOf(fraction) && text[offset + length - 1] == 'Z') {
+                long seconds = epochDay(dateOf(dateTime)) * SECONDS_PER_DAY + secondOfDay(dateTime);
+                return Instant.ofEpochSecond(seconds, nanoOf(fraction));
+            }
+        }
+        String text = p.getText().trim();
+        if (text.isEmpty()) {
+            return null;
+        }
+        Instant timestamp = (format == null) ? parseTimestamp(ctxt, text) : null;
+        if (timestamp != null) {
+            return timestamp;
+        }
+        try {
+            return (format == null) ? Instant.parse(text) : format.parse(text, Instant::from);
+        } catch (DateTimeException e) {
+            return (Instant) handleInvalid(ctxt, Instant.class, text, e);
+        }
+    }
+
+    /**
+     * Reads a {@code LocalDate} from a string, in the given format or else ISO-8601, from an epoch day, or from a
+     * {@code [year,month,day]} array as {@code LocalDateDeserializer}; empty strings and arrays are read as
+     * {@code null}.
+     */
+    @Nullable
+    public static LocalDate readLocalDate(JsonParser p, DeserializationContext ctxt, @Nullable DateTimeFormatter format)
+            throws IOException {
+        if (p.hasToken(JsonToken.VALUE_NUMBER_INT)) {
+            return LocalDate.ofEpochDay(p.getLongValue());
+        } else if (p.isExpectedStartArrayToken()) {
+            return readLocalDateArray(p, ctxt, format);
+        } else if (!p.hasToken(JsonToken.VALUE_STRING)) {
+            return (LocalDate) ctxt.handleUnexpectedToken(LocalDate.class, p);
+        }
+        if (format == null && p.getTextLength() == 10) {
+            int date = parseDate(p.getTextCharacters(), p.getTextOffset());
+            if (date >= 0) {
+                return LocalDate.of(yearOf(date), monthOf(date), dayOf(date));
+            }
+        }
+        String text = p.getText().trim();
+        if (text.isEmpty()) {
+            return null;
+        }
+        try {
+            return (format == null) ? LocalDate.parse(text) : LocalDate.parse(text, format);
+        } catch (DateTimeException e) {
+            return (LocalDate) handleInvalid(ctxt, LocalDate.class, text, e);
+        }
+    }
+
+    /**
+     * Reads an {@code OffsetDateTime} from a string, in the given format or else ISO-8601, or from a timestamp in
+     * the context's time zone; empty strings are read as {@code null}. As {@code InstantDeserializer}, values read
+     * from strings are moved to the context's time zone unless {@code ADJUST_DATES_TO_CONTEXT_TIME_ZONE} is disabled.
+     */
+    @Nullable
+    public static OffsetDateTime readOffsetDateTime(JsonParser p, DeserializationContext ctxt,
+                                                    @Nullable DateTimeFormatter format) throws IOException {
+        if (p.hasToken(JsonToken.VALUE_NUMBER_INT)) {
+            return atContextZone(ctxt, instantOf(ctxt, p.getLongValue()));
+        } else if (p.hasToken(JsonToken.VALUE_NUMBER_FLOAT)) {
+            return atContextZone(ctxt, fromDecimalSeconds(p.getDecimalValue(), true, Instant::ofEpochSecond));
+        } else if (!p.hasToken(JsonToken.VALUE_STRING)) {
+            return (OffsetDateTime) ctxt.handleUnexpectedToken(OffsetDateTime.class, p);
+        }
+        if (format == null) {
+            char[] text = p.getTextCharacters();
+            int offset = p.getTextOffset();
+            int length = p.getTextLength();
+            long dateTime = parseDateTime(text, offset, length);
+            long fraction = (dateTime < 0) ? -1 : parseFraction(text, offset + 19, offset + length);
+            int zone = (fraction < 0) ? Integer.MIN_VALUE
+                    : parseOffset(text, offset + 19 + lengthOf(fraction), offset + length);
+            if (zone != Integer.MIN_VALUE) {
+                int date = dateOf(dateTime);
+                int seconds = secondOfDay(dateTime);
+                return adjust(ctxt, OffsetDateTime.of(yearOf(date), monthOf(date), dayOf(date),
+                        seconds / 3600, (seconds / 60) % 60, seconds % 60, nanoOf(fraction),
+                        ZoneOffset.ofTotalSeconds(zone)));
+            }
+        }
+        String text = p.getText().trim();
+        if (text.isEmpty()) {
+            return null;
+        }
+        Instant timestamp = (format == null) ? parseTimestamp(ctxt, text) : null;
+        if (timestamp != null) {
+            return atContextZone(ctxt, timestamp);
+        }
+        try {
+            return adjust(ctxt,
+                    OffsetDateTime.parse(text, (format == null) ? DateTimeFormatter.ISO_OFFSET_DATE_TIME : format));
+        } catch (DateTimeException e) {
+            return (OffsetDateTime) handleInvalid(ctxt, OffsetDateTime.class, text, e);
+        }
+    }
+
+    /**
+     * Reads a {@code Duration} from an ISO-8601 string or from a number of seconds, or of milliseconds if
+     * {@code READ_DATE_TIMESTAMPS_AS_NANOSECONDS} is disabled for integers; empty strings are read as {@code null}.
+     */
+    @Nullable
+    public static Duration readDuration(JsonParser p, DeserializationContext ctxt) throws IOException {
+        if (p.hasToken(JsonToken.VALUE_NUMBER_INT)) {
+            long value = p.getLongValue();
+            return ctxt.isEnabled(DeserializationFeature.READ_DATE_TIMESTAMPS_AS_NANOSECONDS)
+                    ? Duration.ofSeconds(value)
+                    : Duration.ofMillis(value);
+        } else if (p.hasToken(JsonToken.VALUE_NUMBER_FLOAT)) {
+            return fromDecimalSeconds(p.getDecimalValue(), false, Duration::ofSeconds);
+        } else if (!p.hasToken(JsonToken.VALUE_STRING)) {
+            return (Duration) ctxt.handleUnexpectedToken(Duration.class, p);
+        }
+        String text = p.getText().trim();
+        if (text.isEmpty()) {
+            return null;
+        }
+        try {
+            return Duration.parse(text);
+        } catch (DateTimeException e) {
+            return (Duration) handleInvalid(ctxt, Duration.class, text, e);
+        }
+    }
+
+    /**
+     * Reads the rest of a {@code [year,month,day]} array, or with {@code UNWRAP_SINGLE_VALUE_ARRAYS} a single
+     * string, reporting anything else as {@code LocalDateDeserializer} does.
+     */
+    @Nullable
+    private static LocalDate readLocalDateArray(JsonParser p, DeserializationContext ctxt,
+                                                @Nullable DateTimeFormatter format) throws IOException {
+        JsonToken token = p.nextToken();
+        if (token == JsonToken.END_ARRAY) {
+            return null;
+        } else if (token == JsonToken.VALUE_STRING
+                && ctxt.isEnabled(DeserializationFeature.UNWRAP_SINGLE_VALUE_ARRAYS)) {
+            LocalDate value = readLocalDate(p, ctxt, format);
+            if (p.nextToken() != JsonToken.END_ARRAY) {
+                ctxt.reportWrongTokenException(LocalDate.class, JsonToken.END_ARRAY,
+                        "Attempted to unwrap '%s' value from an array (with `DeserializationFeature"
+                                + ".UNWRAP_SINGLE_VALUE_ARRAYS`) but it contains more than one value",
+                        LocalDate.class.getName());
+            }
+            return value;
+        } else if (token != JsonToken.VALUE_NUMBER_INT) {
+            return (LocalDate) ctxt.reportInputMismatch(LocalDate.class,
+                    "Unexpected token (%s) within Array, expected VALUE_NUMBER_INT", token);
+        }
+        int year = p.getIntValue();
+        int month = p.nextIntValue(-1);
+        int day = p.nextIntValue(-1);
+        if (p.nextToken() != JsonToken.END_ARRAY) {
+            ctxt.reportWrongTokenException(LocalDate.class, JsonToken.END_ARRAY, "Expected array to end");
+        }
+        return LocalDate.of(year, month, day);
+    }
+
+    /**
+     * Reads an integer timestamp in seconds, or in milliseconds if {@code READ_DATE_TIMESTAMPS_AS_NANOSECONDS} is
+     * disabled.
+     */
+    private static Instant instantOf(DeserializationContext ctxt, long value) {
+        return ctxt.isEnabled(DeserializationFeature.READ_DATE_TIMESTAMPS_AS_NANOSECONDS)
+                ? Instant.ofEpochSecond(value)
+                : Instant.ofEpochMilli(value);
+    }
+
+    /**
+     * As {@code InstantDeserializer}, reads a string of digits with at most one period, and nothing else, as a
+     * timestamp; returns {@code null} for any other string.
+     */
+    @Nullable
+    private static Instant parseTimestamp(DeserializationContext ctxt, String text) {
+        int periods = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '.') {
+                periods++;
+            } else if (c < '0' || c > '9') {
+                return null;
+            }
+        }
+        try {
+            if (periods == 0) {
+                return instantOf(ctxt, Long.parseLong(text));
+            } else if (periods == 1) {
+                return fromDecimalSeconds(new BigDecimal(text), true, Instant::ofEpochSecond);
+            }
+        } catch (NumberFormatException e) {
+            // Left to the parse of the text, which fails in turn
+        }
+        return null;
+    }
+
+    /**
+     * As {@code DecimalUtils.extractSecondsAndNanos}, including its handling of negative instants, whose fraction
+     * is taken as positive: {@code -1.5} is read as {@code Instant.ofEpochSecond(-1, 500_000_000)}. Values too
+     * small or too large to have any whole seconds in a {@code long} are read as zero.
+     */
+    private static <T> T fromDecimalSeconds(BigDecimal value, boolean positiveFraction,
+                                            BiFunction<Long, Integer, T> convert) {
+        BigDecimal nanos = value.scaleByPowerOfTen(9);
+        if (nanos.precision() - nanos.scale() <= 0 || value.scale() < -63) {
+            return convert.apply(0L, 0);
+        }
+        long seconds = value.longValue();
+        int nano = nanos.subtract(BigDecimal.valueOf(seconds).scaleByPowerOfTen(9)).intValue();
+        if (positiveFraction && seconds < 0 && seconds > Instant.MIN.getEpochSecond()) {
+            nano = Math.abs(nano);
+        }
+        return convert.apply(seconds, nano);
+    }
+
+    private static OffsetDateTime atContextZone(DeserializationContext ctxt, Instant value) {
+        return OffsetDateTime.ofInstant(value, ctxt.getTimeZone().toZoneId());
+    }
+
+    private static OffsetDateTime adjust(DeserializationContext ctxt, OffsetDateTime value) {
+        if (!ctxt.isEnabled(DeserializationFeature.ADJUST_DATES_TO_CONTEXT_TIME_ZONE)
+                || value.isEqual(OffsetDateTime.MIN) || value.isEqual(OffsetDateTime.MAX)) {
+            return value;
+        }
+        ZoneId zone = ctxt.getTimeZone().toZoneId();
+        return value.withOffsetSameInstant(zone.getRules().getOffset(value.toLocalDateTime()));
+    }
+
+    private static Object handleInvalid(DeserializationContext ctxt, Class<?> type, String text, DateTimeException e)
+            throws IOException {
+        return ctxt.handleWeirdStringValue(type, text, "Failed to deserialize %s: (%s) %s",
+                type.getName(), e.getClass().getName(), e.getMessage());
+    }
+
+    private static int formatDate(char[] buf, long epochDay) {
+        // Civil date from a day count, shifted to eras of 400 years starting on March 1st so that leap days fall
+        // at the end of each year
+        long days = epochDay + DAYS_0000_TO_1970 - 60;
+        long era = Math.floorDiv(days, 146_097);
+        int dayOfEra = (int) (days - era * 146_097);
+        int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36_524 - dayOfEra / 146_096) / 365;
+        int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        int shiftedMonth = (5 * dayOfYear + 2) / 153;
+        int day = dayOfYear - (153 * shiftedMonth + 2) / 5 + 1;
+        int month = (shiftedMonth < 10) ? shiftedMonth + 3 : shiftedMonth - 9;
+        int year = (int) (era * 400 + yearOfEra) + (month <= 2 ? 1 : 0);
+        return formatDate(buf, year, month, day);
+    }
+
+    private static int formatDate(char[] buf, int year, int month, int day) {
+        int pos = formatDigits(buf, 0, year, 4);
+        buf[pos++] = '-';
+        pos = formatDigits(buf, pos, month, 2);
+        buf[pos++] = '-';
+        return formatDigits(buf, pos, day, 2);
+    }
+
+    private static int formatTime(char[] buf, int pos, int secondOfDay) {
+        pos = formatDigits(buf, pos, secondOfDay / 3600, 2);
+        buf[pos++] = ':';
+        pos = formatDigits(buf, pos, (secondOfDay / 60) % 60, 2);
+        buf[pos++] = ':';
+        return formatDigits(buf, pos, secondOfDay % 60, 2);
+    }
+
+    private static int formatDigits(char[] buf, int pos, int value, int digits) {
+        for (int i = pos + digits - 1; i >= pos; i--) {
+            buf[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        return pos + digits;
+    }
+
+    /*
+     * The parsers below only accept the fixed-width forms written above, returning a negative value for anything
+     * else, including invalid dates and times, which are left to java.time along with their error messages. Results
+     * are packed into primitives, see the accessors further down.
+     */
+
+    /**
+     * Parses {@code yyyy-MM-dd} at {@code offset} into {@code year << 9 | month << 5 | day}.
+     */
+    private static int parseDate(char[] text, int offset) {
+        int year = parseDigits(text, offset, 4);
+        int month = parseDigits(text, offset + 5, 2);
+        int day = parseDigits(text, offset + 8, 2);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || text[offset + 4] != '-' || text[offset + 7] != '-'
+                || day > Month.of(month).length(Year.isLeap(year))) {
+            return -1;
+        }
+        return (year << 9) | (month << 5) | day;
+    }
+
+    /**
+     * Parses {@code yyyy-MM-ddTHH:mm:ss} at {@code offset} into {@code date << 17 | secondOfDay}.
+     */
+    private static long parseDateTime(char[] text, int offset, int length) {
+        if (length < 20) {
+            return -1;
+        }
+        int date = parseDate(text, offset);
+        int hour = parseDigits(text, offset + 11, 2);
+        int minute = parseDigits(text, offset + 14, 2);
+        int second = parseDigits(text, offset + 17, 2);
+        if (date < 0 || text[offset + 10] != 'T' || text[offset + 13] != ':' || text[offset + 16] != ':'
+                || hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+            return -1;
+        }
+        return ((long) date << 17) | (hour * 3600 + minute * 60 + second);
+    }
+
+    /**
+     * Parses an optional fraction of a second, one to nine digits after a {@code '.'}, into
+     * {@code nano << 4 | length}.
+     */
+    private static long parseFraction(char[] text, int offset, int end) {
+        if (text[offset] != '.') {
+            return 0;
+        }
+        int nano = 0;
+        int pos = offset + 1;
+        for (; pos < end && pos <= offset + 9 && text[pos] >= '0' && text[pos] <= '9'; pos++) {
+            nano = nano * 10 + (text[pos] - '0');
+        }
+        int digits = pos - offset - 1;
+        if (digits == 0) {
+            return -1;
+        }
+        for (int i = digits; i < 9; i++) {
+            nano *= 10;
+        }
+        return ((long) nano << 4) | (digits + 1);
+    }
+
+    /**
+     * Parses an offset, {@code Z} or {@code +HH:MM}, spanning exactly up to {@code end} into its total seconds, or
+     * returns {@code Integer.MIN_VALUE}.
+     */
+    private static int parseOffset(char[] text, int offset, int end) {
+        if (end - offset == 1 && text[offset] == 'Z') {
+            return 0;
+        } else if (end - offset != 6 || (text[offset] != '+' && text[offset] != '-') || text[offset + 3] != ':') {
+            return Integer.MIN_VALUE;
+        }
+        int hours = parseDigits(text, offset + 1, 2);
+        int minutes = parseDigits(text, offset + 4, 2);
+        if (hours < 0 || minutes < 0 || minutes > 59 || hours * 60 + minutes > 18 * 60) {
+            return Integer.MIN_VALUE;
+        }
+        int seconds = (hours * 60 + minutes) * 60;
+        return (text[offset] == '-') ? -seconds : seconds;
+    }
+
+    private static int parseDigits(char[] text, int offset, int digits) {
+        int value = 0;
+        for (int i = offset; i < offset + digits; i++) {
+            int digit = text[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private static int yearOf(int date) {
+        return date >>> 9;
+    }
+
+    private static int monthOf(int date) {
+        return (date >>> 5) & 0xF;
+    }
+
+    private static int dayOf(int date) {
+        return date & 0x1F;
+    }
+
+    private static int dateOf(long dateTime) {
+        return (int) (dateTime >>> 17);
+    }
+
+    private static int secondOfDay(long dateTime) {
+        return (int) (dateTime & 0x1FFFF);
+    }
+
+    private static int nanoOf(long fraction) {
+        return (int) (fraction >>> 4);
+    }
+
+    private static int lengthOf(long fraction) {
+        return (int) (fraction & 0xF);
+    }
+
+    /**
+     * As {@link LocalDate#toEpochDay()}, for the non-negative years parsed here.
+     */
+    private static long epochDay(int date) {
+        long year = yearOf(date);
+        int month = monthOf(date);
+        long days = 365 * year + (year + 3) / 4 - (year + 99) / 100 + (year + 399) / 400
+                + (367 * month - 362) / 12 + dayOf(date) - 1;
+        if (month > 2) {
+            days -= Year.isLeap(year) ? 1 : 2;
+        }
+        return days - DAYS_0000_TO_1970;
+    }
+}
@@ -1,13 +1,72 @@
 package net.kilink.jackson;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonValue;
 import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.PropertyNamingStrategy;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import com.fasterxml.jackson.databind.util.BeanUtil;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.MethodSpec;
+import org.jspecify.annotations.Nullable;
 
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
 import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
 import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import java.lang.annotation.Annotation;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.OptionalInt;
+import java.util.OptionalLong;
 
 final class Utils {
 
+    private static final PropertyNamingStrategies.NamingBase CONSTANT_CASE =
+            new PropertyNamingStrategies.UpperSnakeCaseStrategy();
+
+    private static final List<PropertyNamingStrategy> propertyNamingStrategies = List.of(
+            PropertyNamingStrategy.KEBAB_CASE,
+            PropertyNamingStrategy.LOWER_CAMEL_CASE,
+            PropertyNamingStrategy.LOWER_DOT_CASE,
+            PropertyNamingStrategy.SNAKE_CASE,
+            PropertyNamingStrategy.UPPER_CAMEL_CASE,
+            PropertyNamingStrategies.KEBAB_CASE,
+            PropertyNamingStrategies.LOWER_CAMEL_CASE,
+            PropertyNamingStrategies.LOWER_DOT_CASE,
+            PropertyNamingStrategies.SNAKE_CASE,
+            PropertyNamingStrategies.UPPER_CAMEL_CASE);
+
+    private static final List<Class<?>> TIME_TYPES =
+            List.of(Instant.class, LocalDate.class, OffsetDateTime.class, Duration.class);
+    private static final List<Class<?>> OPTIONAL_TYPES =
+            List.of(Optional.class, OptionalInt.class, OptionalLong.class, OptionalDouble.class);
+
     private Utils() {}
 
     static String nameForGetter(PropertyAccessor accessorType, Element element) {
@@ -21,4 +80,238 @@ final class Utils {
     static String nameForSetter(ExecutableElement element) {
         return BeanUtil.stdManglePropertyName(element.getSimpleName().toString(), 3);
     }
+
+    /**
+     * Returns the implicit property name of a builder "with" method, e.g. {@code withName} for the {@code "with"}
+     * prefix; with an empty prefix the method name is used as-is.
+     */
+    @Nullable
+    static String nameForWithMethod(ExecutableElement element, String prefix) {
+        String methodName = element.getSimpleName().toString();
+        if (prefix.isEmpty()) {
+            return methodName;
+        }
+        return methodName.startsWith(prefix) ? BeanUtil.stdManglePropertyName(methodName, prefix.length()) : null;
+    }
+
+    @Nullable
+    static String getExplicitPropertyName(Element element) {
+        JsonProperty anno = element.getAnnotation(JsonProperty.class);
+        if (anno != null && !anno.value().equals(JsonProperty.USE_DEFAULT_NAME)) {
+            return anno.value();
+        }
+        return null;
+    }
+
+    /**
+     * Returns the naming strategy set for a type through {@code @JsonNaming}, or {@code null} if there is none.
+     */
+    @Nullable
+    static PropertyNamingStrategy getExplicitNamingStrategy(TypeElement typeElement, ProcessingEnvironment processingEnv) {
+        Elements elements = processingEnv.getElementUtils();
+        Types types = processingEnv.getTypeUtils();
+        TypeMirror jsonNaming = elements.getTypeElement(JsonNaming.class.getCanonicalName()).asType();
+        for (AnnotationMirror anno : elements.getAllAnnotationMirrors(typeElement)) {
+            if (types.isSameType(anno.getAnnotationType(), jsonNaming)) {
+                for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : elements.getElementValuesWithDefaults(anno).entrySet()) {
+                    if (entry.getKey().getSimpleName().toString().equals("value")) {
+                        AnnotationValue value = entry.getValue();
+                        TypeMirror t = (TypeMirror) value.getValue();
+                        for (PropertyNamingStrategy strategy : propertyNamingStrategies) {
+                           if (types.isSameType(t, elements.getTypeElement(strategy.getClass().getCanonicalName()).asType())) {
+                               return strategy;
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the type element referenced by a {@code Class}-valued annotation member, or {@code null} if the element
+     * is not annotated or the member is left at its default value (typically a placeholder such as {@code Void}).
+     */
+    @Nullable
+    static TypeElement getClassValue(Element element, Class<? extends Annotation> annotationType, String memberName,
+                                     ProcessingEnvironment processingEnv) {
+        Elements elements = processingEnv.getElementUtils();
+        Types types = processingEnv.getTypeUtils();
+        TypeMirror annotation = elements.getTypeElement(annotationType.getCanonicalName()).asType();
+        for (AnnotationMirror anno : element.getAnnotationMirrors()) {
+            if (types.isSameType(anno.getAnnotationType(), annotation)) {
+                for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : anno.getElementValues().entrySet()) {
+                    if (entry.getKey().getSimpleName().contentEquals(memberName)
+                            && entry.getValue().getValue() instanceof DeclaredType type) {
+                        return (TypeElement) type.asElement();
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the constants of an enum type in declaration (i.e. ordinal) order.
+     */
+    static List<VariableElement> getEnumConstants(TypeElement enumType) {
+        List<VariableElement> constants = new ArrayList<>();
+        for (Element element : enumType.getEnclosedElements()) {
+            if (element.getKind() == ElementKind.ENUM_CONSTANT) {
+                constants.add((VariableElement) element);
+            }
+        }
+        return constants;
+    }
+
+    /**
+     * Whether an enum type is serialized by constant name (honoring {@code @JsonProperty} renames), as opposed to
+     * through {@code @JsonValue}, {@code @JsonCreator}, a shape override or custom (de)serializers, which are left
+     * to Jackson.
+     */
+    static boolean isEnumReadByName(TypeElement enumType) {
+        if (enumType.getAnnotation(JsonFormat.class) != null || enumType.getAnnotation(JsonSerialize.class) != null
+                || enumType.getAnnotation(JsonDeserialize.class) != null) {
+            return false;
+        }
+        for (Element element : enumType.getEnclosedElements()) {
+            if (element.getAnnotation(JsonValue.class) != null || element.getAnnotation(JsonCreator.class) != null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Whether a type is written as an array of its property values, through {@code @JsonFormat(shape = ARRAY)}.
+     */
+    static boolean isArrayShaped(TypeElement typeElement) {
+        JsonFormat format = typeElement.getAnnotation(JsonFormat.class);
+        return format != null && format.shape() == JsonFormat.Shape.ARRAY;
+    }
+
+    /**
+     * Returns the {@code java.time} class of a type read and written through {@link TimeValues}, or {@code null} if
+     * it is not one of them.
+     */
+    @Nullable
+    static Class<?> getTimeType(TypeMirror type) {
+        return classOf(type, TIME_TYPES);
+    }
+
+    /**
+     * Returns the class of an {@code Optional}, {@code OptionalInt}, {@code OptionalLong} or {@code OptionalDouble}
+     * type, or {@code null} for any other type.
+     */
+    @Nullable
+    static Class<?> getOptionalType(TypeMirror type) {
+        return classOf(type, OPTIONAL_TYPES);
+    }
+
+    @Nullable
+    private static Class<?> classOf(TypeMirror type, List<Class<?>> candidates) {
+        if (type.getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+        TypeElement element = (TypeElement) ((DeclaredType) type).asElement();
+        for (Class<?> candidate : candidates) {
+            if (element.getQualifiedName().contentEquals(candidate.getCanonicalName())) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Whether a {@code @JsonFormat} on a {@code java.time} property sets a pattern, other than on a
+     * {@code Duration}, which has none.
+     */
+    static boolean hasTimePattern(JsonFormat format, Class<?> timeType) {
+        return !format.pattern().isEmpty() && timeType != Duration.class;
+    }
+
+    /**
+     * Returns the initializer of the {@code DateTimeFormatter} for a {@code @JsonFormat} pattern, in its locale and
+     * time zone if set. Instants have no fields to format without a time zone, so as with the JSR-310 module they
+     * default to UTC.
+     */
+    static CodeBlock formatterOf(JsonFormat format, Class<?> timeType) {
+        CodeBlock.Builder formatter = CodeBlock.builder();
+        if (format.locale().equals(JsonFormat.DEFAULT_LOCALE)) {
+            formatter.add("$T.ofPattern($S)", DateTimeFormatter.class, format.pattern());
+        } else {
+            formatter.add("$T.ofPattern($S, $T.forLanguageTag($S))", DateTimeFormatter.class, format.pattern(),
+                    Locale.class, format.locale().replace('_', '-'));
+        }
+        if (!format.timezone().equals(JsonFormat.DEFAULT_TIMEZONE)) {
+            formatter.add(".withZone($T.of($S))", ZoneId.class, format.timezone());
+        } else if (timeType == Instant.class) {
+            formatter.add(".withZone($T.UTC)", ZoneOffset.class);
+        }
+        return formatter.build();
+    }
+
+    /**
+     * Builds a condition holding when a mapper's configuration, in a local named {@code config}, differs from the one
+     * code was generated with in its naming strategy or any of the given features, or any of the other given
+     * conditions holds.
+     */
+    static CodeBlock configMismatch(@Nullable PropertyNamingStrategy namingStrategy, Map<? extends Enum<?>, Boolean> features,
+                                    CodeBlock... conditions) {
+        CodeBlock.Builder condition = CodeBlock.builder();
+        if (namingStrategy == null) {
+            condition.add("config.getPropertyNamingStrategy() != null");
+        } else {
+            condition.add("!(config.getPropertyNamingStrategy() instanceof $T)", namingStrategy.getClass());
+        }
+        for (Map.Entry<? extends Enum<?>, Boolean> entry : features.entrySet()) {
+            Enum<?> feature = entry.getKey();
+            condition.add("\n$>$>|| $Lconfig.isEnabled($T.$L)$<$<",
+                    entry.getValue() ? "!" : "", feature.getDeclaringClass(), feature.name());
+        }
+        for (CodeBlock other : conditions) {
+            condition.add("\n$>$>|| $L$<$<", other);
+        }
+        return condition.build();
+    }
+
+    /**
+     * Wraps the body of a generated method so that, once it returns, it reports to {@link SerdeMetrics}: {@code start}
+     * declares the locals {@code report} needs, both of them only doing any work if {@link SerdeMetrics#ENABLED}.
+     * Values that fail to be read or written, flagged through the local named {@code failed}, are not reported.
+     */
+    static MethodSpec reportingMetrics(MethodSpec method, CodeBlock start, String failed, CodeBlock report) {
+        return MethodSpec.methodBuilder(method.name)
+                .addJavadoc(method.javadoc)
+                .addAnnotations(method.annotations)
+                .addModifiers(method.modifiers)
+                .addTypeVariables(method.typeVariables)
+                .returns(method.returnType)
+                .addParameters(method.parameters)
+                .varargs(method.varargs)
+                .addExceptions(method.exceptions)
+                .addCode(start)
+                .addStatement("boolean $N = false", failed)
+                .beginControlFlow("try")
+                .addCode(method.code)
+                .nextControlFlow("catch ($T e)", Throwable.class)
+                .addStatement("$N = true", failed)
+                .addStatement("throw e")
+                .nextControlFlow("finally")
+                .beginControlFlow("if ($T.ENABLED && !$N)", SerdeMetrics.class, failed)
+                .addCode(report)
+                .endControlFlow()
+                .endControlFlow()
+                .build();
+    }
+
+    /**
+     * Suggests a constant-style Java identifier (e.g. {@code RENAMED_PROP}) for a serialized property name;
+     * callers are expected to run the result through a {@code NameAllocator} to make it a unique, valid identifier.
+     */
+    static String constantName(String propertyName) {
+        String name = CONSTANT_CASE.translate(propertyName);
+        return (name == null || name.isEmpty()) ? "NAME" : name;
+    }
 }
@@ -0,0 +1,96 @@
+package net.kilink.jackson;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import org.jspecify.annotations.Nullable;
+
+import java.io.IOException;
+import java.util.UUID;
+
+/**
+ * Reads and writes {@link UUID}s as Jackson does, in their 36 character form, formatted and parsed on the
+ * generator's and parser's character buffers rather than through {@link UUID#toString()} and
+ * {@link UUID#fromString(String)}. Anything but that form, such as Base64 or binary values, is read through the
+ * context.
+ */
+public final class UuidValues {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private static final ThreadLocal<char[]> BUFFERS = ThreadLocal.withInitial(() -> new char[36]);
+
+    private UuidValues() {}
+
+    public static void writeUuid(JsonGenerator gen, UUID value) throws IOException {
+        // As UUIDSerializer, formats with native binary support (other than buffers) get the 16 bytes
+        if (gen.canWriteBinaryNatively() && !(gen instanceof TokenBuffer)) {
+            gen.writeObject(value);
+            return;
+        }
+        char[] buf = BUFFERS.get();
+        long msb = value.getMostSignificantBits();
+        long lsb = value.getLeastSignificantBits();
+        formatHex(buf, 0, msb >>> 32, 8);
+        buf[8] = '-';
+        formatHex(buf, 9, msb >>> 16, 4);
+        buf[13] = '-';
+        formatHex(buf, 14, msb, 4);
+        buf[18] = '-';
+        formatHex(buf, 19, lsb >>> 48, 4);
+        buf[23] = '-';
+        formatHex(buf, 24, lsb, 12);
+        gen.writeString(buf, 0, 36);
+    }
+
+    @Nullable
+    public static UUID readUuid(JsonParser p, DeserializationContext ctxt) throws IOException {
+        if (p.hasToken(JsonToken.VALUE_STRING) && p.getTextLength() == 36) {
+            char[] text = p.getTextCharacters();
+            int offset = p.getTextOffset();
+            if (text[offset + 8] == '-' && text[offset + 13] == '-' && text[offset + 18] == '-'
+                    && text[offset + 23] == '-') {
+                long high = parseHex(text, offset, 8);
+                long mid = parseHex(text, offset + 9, 4);
+                long low = parseHex(text, offset + 14, 4);
+                long sequence = parseHex(text, offset + 19, 4);
+                long node = parseHex(text, offset + 24, 12);
+                if ((high | mid | low | sequence | node) >= 0) {
+                    return new UUID((high << 32) | (mid << 16) | low, (sequence << 48) | node);
+                }
+            }
+        }
+        return ctxt.readValue(p, UUID.class);
+    }
+
+    private static void formatHex(char[] buf, int offset, long value, int digits) {
+        for (int i = offset + digits - 1; i >= offset; i--) {
+            buf[i] = HEX[(int) (value & 0xF)];
+            value >>>= 4;
+        }
+    }
+
+    /**
+     * Parses the given number of hex digits, of either case, or returns -1.
+     */
+    private static long parseHex(char[] text, int offset, int digits) {
+        long value = 0;
+        for (int i = offset; i < offset + digits; i++) {
+            char c = text[i];
+            int digit;
+            if (c >= '0' && c <= '9') {
+                digit = c - '0';
+            } else if (c >= 'a' && c <= 'f') {
+                digit = c - 'a' + 10;
+            } else if (c >= 'A' && c <= 'F') {
+                digit = c - 'A' + 10;
+            } else {
+                return -1;
+            }
+            value = (value << 4) | digit;
+        }
+        return value;
+    }
+}
@@ -0,0 +1,125 @@
+package net.kilink.jackson;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.google.testing.compile.Compilation;
+import com.google.testing.compile.JavaFileObjects;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+
+import static com.google.testing.compile.CompilationSubject.assertThat;
+import static com.google.testing.compile.Compiler.javac;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Guards against generated code regressing into allocating paths (e.g. repeated getter calls, boxing in collection
+ * reads or {@code writeObject} fallbacks), by measuring the bytes allocated per warm serialization / deserialization
+ * against a budget per sample type.
+ *
+ * <p>Serialization writes to a single reused generator, so that the budget only covers the serializer provider
+ * created per call and what the generated code allocates; deserialization includes creating the parser and the value.
+ */
+public class AllocationBudgetTest {
+
+    private static final int WARMUP_ITERATIONS = 20_000;
+    private static final int MEASURED_ITERATIONS = 10_000;
+
+    private static final com.sun.management.ThreadMXBean threadMXBean =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private static ClassLoader classLoader;
+    private static ObjectMapper mapper;
+
+    @BeforeAll
+    public static void compileSamples() throws Exception {
+        assumeTrue(threadMXBean.isThreadAllocatedMemorySupported(), "Allocation measurement is not supported");
+        threadMXBean.setThreadAllocatedMemoryEnabled(true);
+
+        Compilation compilation = javac().withProcessors(new AnnotationProcessor())
+                .compile(JavaFileObjects.forResource("Point.java"), JavaFileObjects.forResource("Line.java"),
+                        JavaFileObjects.forResource("Telemetry.java"), JavaFileObjects.forResource("Signal.java"));
+        assertThat(compilation).succeeded();
+
+        classLoader = TestUtils.classLoaderFor(compilation);
+        Module module = (Module) classLoader.loadClass("net.kilink.jackson.GeneratedModule")
+                .getConstructor()
+                .newInstance();
+        mapper = new ObjectMapper().registerModule(module);
+    }
+
+    @Test
+    public void testFlatRecord() throws Exception {
+        assertWithinBudget("Point", "{\"x\":1,\"why\":2,\"label\":\"p\"}", 128, 1024);
+    }
+
+    @Test
+    public void testNestedRecords() throws Exception {
+        assertWithinBudget("Line",
+                "{\"from\":{\"x\":1,\"why\":2,\"label\":\"a\"},\"to\":{\"x\":3,\"why\":4,\"label\":\"b\"}}", 128, 1280);
+    }
+
+    @Test
+    public void testContainers() throws Exception {
+        assertWithinBudget("Telemetry",
+                "{\"name\":\"t\",\"tags\":[\"a\",\"b\"],\"samples\":[1,2,3,4],\"gauges\":{\"g\":1.5}}", 256, 2048);
+    }
+
+    @Test
+    public void testEnums() throws Exception {
+        assertWithinBudget("Signal", "{\"light\":\"red\"}", 128, 1024);
+    }
+
+    private static void assertWithinBudget(String typeName, String json, long serializeBudget, long deserializeBudget)
+            throws Exception {
+        Class<?> type = classLoader.loadClass("net.kilink.jackson." + typeName);
+        JsonSerializer<Object> serializer = mapper.getSerializerProviderInstance().findValueSerializer(type);
+        assertEquals(typeName + "Serializer", serializer.getClass().getSimpleName());
+
+        ObjectWriter writer = mapper.writerFor(type);
+        ObjectReader reader = mapper.readerFor(type);
+        byte[] input = json.getBytes(StandardCharsets.UTF_8);
+        Object value = reader.readValue(input);
+        assertEquals(json, writer.writeValueAsString(value));
+
+        try (JsonGenerator gen = mapper.getFactory().createGenerator(OutputStream.nullOutputStream())) {
+            for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+                writer.writeValue(gen, value);
+                gen.flush();
+                reader.readValue(input);
+            }
+
+            long start = allocatedBytes();
+            for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+                writer.writeValue(gen, value);
+                gen.flush();
+            }
+            long serialized = allocatedBytes();
+            for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+                reader.readValue(input);
+            }
+            long deserialized = allocatedBytes();
+
+            long serializeBytes = (serialized - start) / MEASURED_ITERATIONS;
+            long deserializeBytes = (deserialized - serialized) / MEASURED_ITERATIONS;
+            assertTrue(serializeBytes <= serializeBudget, typeName + " serialization allocates " + serializeBytes
+                    + " bytes per value, over its budget of " + serializeBudget);
+            assertTrue(deserializeBytes <= deserializeBudget, typeName + " deserialization allocates "
+                    + deserializeBytes + " bytes per value, over its budget of " + deserializeBudget);
+        }
+    }
+
+    @SuppressWarnings("deprecation")
+    private static long allocatedBytes() {
+        return threadMXBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
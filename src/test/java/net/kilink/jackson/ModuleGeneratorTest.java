@@ -13,8 +13,8 @@ public class ModuleGeneratorTest {
         String moduleName = "FooBarModule";
         ModuleGenerator moduleGenerator = ModuleGenerator.builder()
                 .withModuleName(ClassName.get(packageName, moduleName))
-                .withSerializer(ClassName.get(packageName, "FooSerializer"))
-                .withSerializer(ClassName.get(packageName, "BarSerializer"))
+                .withSerializer(ClassName.get(packageName, "Foo"), ClassName.get(packageName, "FooSerializer"))
+                .withSerializer(ClassName.get(packageName, "Bar"), ClassName.get(packageName, "BarSerializer"))
                 .withDeserializer(ClassName.get(packageName, "Foo"), ClassName.get(packageName, "FooDeserializer"))
                 .withDeserializer(ClassName.get(packageName, "Bar"), ClassName.get(packageName, "BarDeserializer"))
                 .build();
@@ -22,17 +22,117 @@ public class ModuleGeneratorTest {
 
         assertThat(javaFile.toString()).isEqualTo("package net.kilink.jackson;\n" +
                 "\n" +
+                "import com.fasterxml.jackson.databind.BeanDescription;\n" +
+                "import com.fasterxml.jackson.databind.DeserializationConfig;\n" +
+                "import com.fasterxml.jackson.databind.JavaType;\n" +
+                "import com.fasterxml.jackson.databind.JsonDeserializer;\n" +
+                "import com.fasterxml.jackson.databind.JsonSerializer;\n" +
                 "import com.fasterxml.jackson.databind.Module;\n" +
+                "import com.fasterxml.jackson.databind.SerializationConfig;\n" +
+                "import com.fasterxml.jackson.databind.deser.Deserializers;\n" +
                 "import com.fasterxml.jackson.databind.module.SimpleModule;\n" +
+                "import com.fasterxml.jackson.databind.ser.Serializers;\n" +
                 "import com.google.auto.service.AutoService;\n" +
+                "import java.lang.Class;\n" +
+                "import java.lang.Object;\n" +
+                "import java.lang.Override;\n" +
                 "\n" +
                 "@AutoService(Module.class)\n" +
-                "final class FooBarModule extends SimpleModule {\n" +
-                "  {\n" +
-                "    addSerializer(new FooSerializer());\n" +
-                "    addSerializer(new BarSerializer());\n" +
-                "    addDeserializer(Foo.class, new FooDeserializer());\n" +
-                "    addDeserializer(Bar.class, new BarDeserializer());\n" +
+                "public final class FooBarModule extends SimpleModule {\n" +
+                "  @Override\n" +
+                "  public void setupModule(Module.SetupContext context) {\n" +
+                "    super.setupModule(context);\n" +
+                "    context.addSerializers(new LazySerializers());\n" +
+                "    context.addDeserializers(new LazyDeserializers());\n" +
+                "  }\n" +
+                "\n" +
+                "  private static final class LazySerializers extends Serializers.Base {\n" +
+                "    @Override\n" +
+                "    public JsonSerializer<?> findSerializer(SerializationConfig config, JavaType type,\n" +
+                "        BeanDescription beanDesc) {\n" +
+                "      return serializerFor(type.getRawClass());\n" +
+                "    }\n" +
+                "\n" +
+                "    private static JsonSerializer<?> serializerFor(Class<?> type) {\n" +
+                "      switch (type.getName()) {\n" +
+                "        case \"net.kilink.jackson.Foo\":\n" +
+                "          return (type == Foo.class) ? (JsonSerializer<?>) (Object) FooSerializer.INSTANCE : null;\n" +
+                "        case \"net.kilink.jackson.Bar\":\n" +
+                "          return (type == Bar.class) ? (JsonSerializer<?>) (Object) BarSerializer.INSTANCE : null;\n" +
+                "        default:\n" +
+                "          return null;\n" +
+                "      }\n" +
+                "    }\n" +
+                "  }\n" +
+                "\n" +
+                "  private static final class LazyDeserializers extends Deserializers.Base {\n" +
+                "    @Override\n" +
+                "    public JsonDeserializer<?> findBeanDeserializer(JavaType type, DeserializationConfig config,\n" +
+                "        BeanDescription beanDesc) {\n" +
+                "      return deserializerFor(type.getRawClass());\n" +
+                "    }\n" +
+                "\n" +
+                "    @Override\n" +
+                "    public boolean hasDeserializerFor(DeserializationConfig config, Class<?> valueType) {\n" +
+                "      return deserializerFor(valueType) != null;\n" +
+                "    }\n" +
+                "\n" +
+                "    private static JsonDeserializer<?> deserializerFor(Class<?> type) {\n" +
+                "      switch (type.getName()) {\n" +
+                "        case \"net.kilink.jackson.Foo\":\n" +
+                "          return (type == Foo.class) ? (JsonDeserializer<?>) (Object) FooDeserializer.INSTANCE : null;\n" +
+                "        case \"net.kilink.jackson.Bar\":\n" +
+                "          return (type == Bar.class) ? (JsonDeserializer<?>) (Object) BarDeserializer.INSTANCE : null;\n" +
+                "        default:\n" +
+                "          return null;\n" +
+                "      }\n" +
+                "    }\n" +
+                "  }\n" +
+                "}\n");
+    }
+
+    @Test
+    public void testGenerateWithBuilderDeserializer() {
+        String packageName = "net.kilink.jackson";
+        ModuleGenerator moduleGenerator = ModuleGenerator.builder()
+                .withModuleName(ClassName.get(packageName, "FooModule"))
+                .withBuilderDeserializer(ClassName.get(packageName, "Foo"), ClassName.get(packageName, "FooDeserializer"))
+                .build();
+        JavaFile javaFile = moduleGenerator.generate();
+
+        assertThat(javaFile.toString()).isEqualTo("package net.kilink.jackson;\n" +
+                "\n" +
+                "import com.fasterxml.jackson.databind.JsonDeserializer;\n" +
+                "import com.fasterxml.jackson.databind.Module;\n" +
+                "import com.fasterxml.jackson.databind.introspect.Annotated;\n" +
+                "import com.fasterxml.jackson.databind.introspect.AnnotatedClass;\n" +
+                "import com.fasterxml.jackson.databind.introspect.NopAnnotationIntrospector;\n" +
+                "import com.fasterxml.jackson.databind.module.SimpleModule;\n" +
+                "import com.google.auto.service.AutoService;\n" +
+                "import java.lang.Class;\n" +
+                "import java.lang.Object;\n" +
+                "import java.lang.Override;\n" +
+                "\n" +
+                "@AutoService(Module.class)\n" +
+                "public final class FooModule extends SimpleModule {\n" +
+                "  @Override\n" +
+                "  public void setupModule(Module.SetupContext context) {\n" +
+                "    super.setupModule(context);\n" +
+                "    context.insertAnnotationIntrospector(new NopAnnotationIntrospector() {\n" +
+                "      @Override\n" +
+                "      public Object findDeserializer(Annotated a) {\n" +
+                "        return (a instanceof AnnotatedClass) ? builderDeserializerFor(a.getRawType()) : null;\n" +
+                "      }\n" +
+                "    });\n" +
+                "  }\n" +
+                "\n" +
+                "  private static JsonDeserializer<?> builderDeserializerFor(Class<?> type) {\n" +
+                "    switch (type.getName()) {\n" +
+                "      case \"net.kilink.jackson.Foo\":\n" +
+                "        return (type == Foo.class) ? (JsonDeserializer<?>) (Object) FooDeserializer.INSTANCE : null;\n" +
+                "      default:\n" +
+                "        return null;\n" +
+                "    }\n" +
                 "  }\n" +
                 "}\n");
     }
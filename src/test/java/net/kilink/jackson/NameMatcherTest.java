@@ -0,0 +1,48 @@
+package net.kilink.jackson;
+
+import com.google.testing.compile.Compilation;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.JavaFile;
+import com.squareup.javapoet.TypeSpec;
+import org.junit.jupiter.api.Test;
+
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+import java.lang.reflect.Method;
+import java.util.List;
+
+import static com.google.testing.compile.CompilationSubject.assertThat;
+import static com.google.testing.compile.Compiler.javac;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class NameMatcherTest {
+    @Test
+    public void testGeneratedMatcher() throws Exception {
+        // "Aa" and "BB" share a hashCode, as do their concatenations
+        List<String> names = List.of("Aa", "BB", "AaBB", "BBAa", "id", "ix", "name", "nome", "");
+        NameMatcher.Builder builder = NameMatcher.builder().withDefault(CodeBlock.of("$L", -1));
+        for (int i = 0; i < names.size(); i++) {
+            builder.withName(names.get(i), CodeBlock.of("$L", i));
+        }
+        JavaFile javaFile = JavaFile.builder("net.kilink.jackson", TypeSpec.classBuilder("NameMatcherFixture")
+                        .addMethod(builder.build().generate("indexOf"))
+                        .build())
+                .build();
+
+        Compilation compilation = javac().compile(javaFile.toJavaFileObject());
+        assertThat(compilation).succeeded();
+
+        JavaFileObject classFile = compilation.generatedFile(
+                StandardLocation.CLASS_OUTPUT, "net/kilink/jackson/NameMatcherFixture.class").orElseThrow();
+        Method indexOf = TestUtils.loadClass(classFile).getDeclaredMethod("indexOf", String.class);
+        indexOf.setAccessible(true);
+
+        for (int i = 0; i < names.size(); i++) {
+            // not interned, so the match can't rely on identity
+            assertEquals(i, indexOf.invoke(null, new String(names.get(i).toCharArray())));
+        }
+        for (String unknown : List.of("Ab", "BBB", "iy", "names", "n")) {
+            assertEquals(-1, indexOf.invoke(null, unknown));
+        }
+    }
+}
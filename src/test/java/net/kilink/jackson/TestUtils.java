@@ -1,11 +1,15 @@
 package net.kilink.jackson;
 
 import com.google.common.io.ByteStreams;
+import com.google.testing.compile.Compilation;
 
 import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.UncheckedIOException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
@@ -13,12 +17,7 @@ import static com.google.common.base.Preconditions.checkNotNull;
 public final class TestUtils {
     private static class FileObjectClassLoader extends ClassLoader {
         private <T> Class<T> defineClassFromFileObject(JavaFileObject classFile) {
-            final byte[] bytes;
-            try (InputStream is = classFile.openInputStream()) {
-                bytes = ByteStreams.toByteArray(is);
-            } catch (IOException ioe) {
-                throw new UncheckedIOException(ioe);
-            }
+            final byte[] bytes = readBytes(classFile);
 
             @SuppressWarnings("unchecked")
             Class<T> klazz = (Class<T>) defineClass(null, bytes, 0, bytes.length);
@@ -27,6 +26,30 @@ public final class TestUtils {
         }
     }
 
+    /**
+     * Defines the classes output by a compilation on demand, so that generated classes can refer to each other and to
+     * the compiled types they were generated for.
+     */
+    private static class CompilationClassLoader extends ClassLoader {
+        private final Compilation compilation;
+        private final Set<String> definedClasses = ConcurrentHashMap.newKeySet();
+
+        private CompilationClassLoader(Compilation compilation) {
+            super(TestUtils.class.getClassLoader());
+            this.compilation = compilation;
+        }
+
+        @Override
+        protected Class<?> findClass(String name) throws ClassNotFoundException {
+            JavaFileObject classFile = compilation.generatedFile(
+                            StandardLocation.CLASS_OUTPUT, name.replace('.', '/') + ".class")
+                    .orElseThrow(() -> new ClassNotFoundException(name));
+            byte[] bytes = readBytes(classFile);
+            definedClasses.add(name);
+            return defineClass(name, bytes, 0, bytes.length);
+        }
+    }
+
     private static final FileObjectClassLoader classLoader = new FileObjectClassLoader();
 
     public static <T> Class<T> loadClass(JavaFileObject classFile) {
@@ -35,6 +58,28 @@ public final class TestUtils {
         return classLoader.defineClassFromFileObject(classFile);
     }
 
+    public static ClassLoader classLoaderFor(Compilation compilation) {
+        checkNotNull(compilation, "compilation == null");
+        return new CompilationClassLoader(compilation);
+    }
+
+    /**
+     * Returns whether the given class has been loaded so far through a class loader returned by
+     * {@link #classLoaderFor(Compilation)}.
+     */
+    public static boolean isLoaded(ClassLoader classLoader, String className) {
+        checkArgument(classLoader instanceof CompilationClassLoader, "not a compilation class loader");
+        return ((CompilationClassLoader) classLoader).definedClasses.contains(className);
+    }
+
+    private static byte[] readBytes(JavaFileObject classFile) {
+        try (InputStream is = classFile.openInputStream()) {
+            return ByteStreams.toByteArray(is);
+        } catch (IOException ioe) {
+            throw new UncheckedIOException(ioe);
+        }
+    }
+
     public static <T> Class<T> loadClass(String className) {
         checkNotNull(className, "className == null");
         try {
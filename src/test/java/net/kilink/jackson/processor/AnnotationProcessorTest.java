@@ -1,12 +1,56 @@
 package net.kilink.jackson.processor;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.StreamReadConstraints;
+import com.fasterxml.jackson.core.util.JsonParserDelegate;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import com.fasterxml.jackson.databind.exc.UnrecognizedPropertyException;
+import com.fasterxml.jackson.databind.module.SimpleModule;
 import com.google.testing.compile.Compilation;
 import com.google.testing.compile.JavaFileObjects;
 import net.kilink.jackson.AnnotationProcessor;
+import net.kilink.jackson.ByteReader;
+import net.kilink.jackson.SequenceReader;
+import net.kilink.jackson.SequenceWriter;
+import net.kilink.jackson.SerdeMetricsListener;
+import net.kilink.jackson.TestUtils;
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.UnaryOperator;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.TypeElement;
+import javax.tools.JavaFileObject;
+
+import static com.google.common.truth.Truth.assertThat;
 import static com.google.testing.compile.CompilationSubject.assertThat;
 import static com.google.testing.compile.Compiler.javac;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class AnnotationProcessorTest {
     @Test
@@ -16,4 +60,924 @@ public class AnnotationProcessorTest {
 
         assertThat(result).succeededWithoutWarnings();
     }
+
+    @Test
+    public void testSerializerUsesPrecomputedFieldNames() throws Exception {
+        Compilation result = javac().withProcessors(new AnnotationProcessor())
+                .compile(JavaFileObjects.forResource("Pojo.java"));
+
+        assertThat(result).succeededWithoutWarnings();
+        JacksonParity parity = JacksonParity.of(result);
+        String written = parity.assertRoundTrip("net.kilink.jackson.Pojo",
+                "{\"renamedProp\":\"a\",\"prop2\":2,\"active\":true,\"color\":\"Red\",\"baz\":1}");
+        // As with Jackson, properties backed by fields come first, and explicitly renamed ones last
+        assertTrue(written.startsWith("{\"prop2\":2,\"active\":true,\"color\":\"Red\","), written);
+        assertTrue(written.endsWith(",\"renamedProp\":\"a\"}"), written);
+        parity.assertRoundTrip("net.kilink.jackson.Pojo", "{\"prop2\":null,\"color\":null,\"unknown\":[{}]}");
+    }
+
+    @Test
+    public void testPropertiesAreMatchedInTheOrderTheyAreWritten() throws Exception {
+        Compilation result = javac().withProcessors(new AnnotationProcessor())
+                .compile(JavaFileObjects.forResource("Ranking.java"));
+
+        assertThat(result).succeededWithoutWarnings();
+        JacksonParity parity = JacksonParity.of(result);
+        // Setters are declared in the reverse of the order the properties are written in, the renamed one last
+        String written = parity.assertRoundTrip("net.kilink.jackson.Ranking", "{\"renamed\":3,\"y\":2,\"z\":\"a\"}");
+        assertEquals("{\"z\":\"a\",\"y\":2,\"renamed\":3}", written);
+        Class<?> type = parity.type("net.kilink.jackson.Ranking");
+        int[] misses = new int[1];
+        JsonParser parser = new JsonParserDelegate(parity.generated().createParser(written)) {
+            @Override
+            public boolean nextFieldName(SerializableString str) throws IOException {
+                boolean matched = super.nextFieldName(str);
+                if (!matched) {
+                    misses[0]++;
+                }
+                return matched;
+            }
+        };
+        Object value = parity.generated().readValue(parser, type);
+        assertEquals(0, misses[0], written);
+        assertEquals(written, parity.generated().writeValueAsString(value));
+    }
+
+    @Test
+    public void testMissingAndNullCreatorPropertiesFailAsConfigured() throws Exception {
+        Compilation result = javac().withProcessors(new AnnotationProcessor())
+                .compile(JavaFileObjects.forResource("Point.java"), JavaFileObjects.forResource("Columns.java"));
+
+        assertThat(result).succeededWithoutWarnings();
+        String point = "net.kilink.jackson.Point";
+        String mixed = "net.kilink.jackson.Columns$Mixed";
+        JacksonParity missing = JacksonParity.of(result,
+                mapper -> mapper.enable(DeserializationFeature.FAIL_ON_MISSING_CREATOR_PROPERTIES));
+        missing.assertRoundTrip(point, "{\"x\":1,\"why\":2,\"label\":null}");
+        missing.assertSameFailure(point, "{\"x\":1}");
+        missing.assertSameFailure(point, "{\"label\":\"a\",\"why\":2}");
+        missing.assertSameFailure(point, "{}");
+        missing.assertRoundTrip(mixed, "[\"i\",1]");
+        missing.assertSameFailure(mixed, "[\"i\"]");
+
+        JacksonParity nulls = JacksonParity.of(result,
+                mapper -> mapper.enable(DeserializationFeature.FAIL_ON_NULL_CREATOR_PROPERTIES));
+        nulls.assertRoundTrip(point, "{\"x\":1,\"why\":2,\"label\":\"a\"}");
+        nulls.assertRoundTrip(point, "{\"label\":\"a\"}");
+        nulls.assertSameFailure(point, "{\"x\":1,\"why\":2,\"label\":null}");
+        nulls.assertSameFailure(point, "{\"x\":1}");
+        nulls.assertRoundTrip(mixed, "[\"i\",1,null]");
+        nulls.assertSameFailure(mixed, "[null,1]");
+        nulls.assertSameFailure(mixed, "[]");
+
+        JacksonParity both = JacksonParity.of(result,
+                mapper -> mapper.enable(DeserializationFeature.FAIL_ON_MISSING_CREATOR_PROPERTIES,
+                        DeserializationFeature.FAIL_ON_NULL_CREATOR_PROPERTIES));
+        both.assertSameFailure(point, "{\"label\":null}");
+        both.assertSameFailure(point, "{\"x\":1,\"why\":2}");
+
+        // Unknown properties are only reported once the creator properties are checked and the instance created
+        for (JacksonParity parity : List.of(JacksonParity.of(result), missing, nulls)) {
+            parity.assertSameFailure(point, "{\"extra\":1}");
+            parity.assertSameFailure(point, "{\"extra\":1,\"x\":\"a\",\"why\":2,\"label\":\"a\"}");
+            parity.assertSameFailure(point, "{\"x\":1,\"extra\":[1],\"other\":{},\"why\":2}");
+        }
+    }
+
+    @Test
+    public void testPropertiesAreMatchedInAnyOrder() throws Exception {
+        Compilation result = javac().withProcessors(new AnnotationProcessor())
+                .compile(JavaFileObjects.forResource("Switch.java"));
+
+        assertThat(result).succeededWithoutWarnings();
+        JacksonParity parity = JacksonParity.of(result);
+        // Jackson writes Boolean isDimmed() as well, but not String isWired()
+        assertEquals("{\"name\":\"a\",\"on\":true,\"dimmed\":true}",
+                parity.assertRoundTrip("net.kilink.jackson.Switch", "{\"name\":\"a\",\"on\":true,\"dimmed\":true}"));
+        parity.assertRoundTrip("net.kilink.jackson.Switch", "{\"dimmed\":false,\"on\":true,\"name\":null}");
+        parity.assertRoundTrip("net.kilink.jackson.Switch", "{\"on\":true}");
+        parity.assertSameFailure("net.kilink.jackson.Switch", "{\"name\":\"a\",\"off\":true}");
+        parity.assertSameFailure("net.kilink.jackson.Switch", "{\"on\":\"maybe\"}");
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void testNonBooleanIsGettersAreLeftToJackson() throws Exception {
+        Compilation result = javac().withProcessors(new AnnotationProcessor())
+                .compile(JavaFileObjects.forResource("Switch.java"));
+
+        assertThat(result).succeededWithoutWarnings();
+        JacksonParity parity = JacksonParity.of(result,
+                mapper -> mapper.configure(MapperFeature.ALLOW_IS_GETTERS_FOR_NON_BOOLEAN, true));
+        Object value = parity.plain().readValue("{\"name\":\"a\"}", parity.type("net.kilink.jackson.Switch"));
+        assertEquals("{\"name\":\"a\",\"on\":false,\"dimmed\":null,\"wired\":\"yes\"}",
+                parity.generated().writeValueAsString(value));
+    }
+
+    @Test
+    public void testPropertyNamesAreMatchedDespiteHashCollisions() throws Exception {
+        Compilation result = javac().withProcessors(new AnnotationProcessor())
+                .compile(JavaFileObjects.forResource("Pair.java"));
+
+        assertThat(result).succeededWithoutWarnings();
+        JacksonParity parity = JacksonParity.of(result);
+        assertEquals("{\"Aa\":\"a\",\"BB\":\"b\",\"AaBB\":1}",
+                parity.assertRoundTrip("net.kilink.jackson.Pair", "{\"Aa\":\"a\",\"BB\":\"b\",\"AaBB\":1}"));
+        parity.assertRoundTrip("net.kilink.jackson.Pair", "{\"BBAa\":2,\"BB\":\"b\",\"Aa\":\"a\"}");
+        parity.assertRoundTrip("net.kilink.jackson.Pair", "{}");
+        parity.assertSameFailure("net.kilink.jackson.Pair", "{\"Aa\":\"a\",\"aa\":\"b\"}");
+        parity.assertSameFailure("net.kilink.jackson.Pair", "{\"Aa\":\"a\",\"BBBB\":1}");
+    }
+
+    @Test
+    public void testRecordUsesCanonicalConstructor() throws Exception {
+        Compilation result = javac().withProcessors(new AnnotationProcessor())
+                .compile(JavaFileObjects.forResource("Point.java"));
+
+        assertThat(result).succeededWithoutWarnings();
+        JacksonParity parity = JacksonParity.of(result);
+        assertEquals("{\"x\":1,\"why\":2,\"label\":\"p\"}",
+                parity.assertRoundTrip("net.kilink.jackson.Point", "{\"label\":\"p\",\"why\":2,\"x\":1}"));
+        parity.assertRoundTrip("net.kilink.jackson.Point", "{\"x\":-1}");
+        parity.assertRoundTrip("net.kilink.jackson.Point", "{\"x\":null,\"why\":\"2\",\"label\":3}");
+        parity.assertSameFailure("net.kilink.jackson.Point", "{\"x\":\"one\"}");
+        parity.assertSameFailure("net.kilink.jackson.Point", "{\"x\":1,\"y\":2}");
+        parity.assertSameFailure("net.kilink.jackson.Point", "[1,2]");
+    }
+
+    @Test
+    public void testJsonCreatorIsCalledWithCreatorProperties() throws Exception {
+        Compilation result = javac().withProcessors(new AnnotationProcessor())
+                .compile(JavaFileObjects.forResource("Money.java"));
+
+        assertThat(result).succeededWithoutWarnings();
+        JacksonParity parity = JacksonParity.of(result);
+        // Creator properties are written first, in parameter order
+        assertEquals("{\"currency\":\"EUR\",\"amount\":150,\"note\":\"n\"}",
+                parity.assertRoundTrip("net.kilink.jackson.Money",
+                        "{\"note\":\"n\",\"amount\":150,\"currency\":\"EUR\"}"));
+        parity.assertRoundTrip("net.kilink.jackson.Money", "{\"currency\":null}");
+        parity.assertSameFailure("net.kilink.jackson.Money", "{\"currency\":\"EUR\",\"cents\":1}");
+    }
+
+    @Test
+    public void testUnsupportedCreatorsAreReported() {
+        JavaFileObject delegating = JavaFileObjects.forSourceLines("net.kilink.jackson.Wrapper",
+                "package net.kilink.jackson;",
+                "import com.fasterxml.jackson.annotation.JsonCreator;",
+                "@AutoSerde",
+                "public final class Wrapper {",
+                "    @JsonCreator(mode = JsonCreator.Mode.DELEGATING)",
+                "    public Wrapper(String value) {}",
+                "}");
+        JavaFileObject ambiguous = JavaFileObjects.forSourceLines("net.kilink.jackson.Range",
+                "package net.kilink.jackson;",
+                "@AutoSerde",
+                "public final class Range {",
+                "    public Range(int from) {}",
+                "    public Range(int from, int to) {}",
+                "}");
+        Compilation result = javac().withProcessors(new AnnotationProcessor()).compile(delegating, ambiguous);
+
+        assertThat(result).hadErrorContaining("Delegating creators are not supported").inFile(delegating);
+        assertThat(result).hadErrorContaining("No default constructor, @JsonCreator or canonical record constructor "
+                + "found for net.kilink.jackson.Range").inFile(ambiguous);
+        assertThat(result).hadErrorCount(2);
+    }
+
+    @Test
+    public void testBuilderIsPopulatedAndBuilt() throws Exception {
+        Compilation result = javac().withProcessors(new AnnotationProcessor())
+                .compile(JavaFileObjects.forResource("Order.java"));
+
+        assertThat(result).succeededWithoutWarnings();
+        JacksonParity parity = JacksonParity.of(result);
+        parity.assertRoundTrip("net.kilink.jackson.Order", "{\"id\":\"o1\",\"quantity\":3,\"items\":[\"a\",\"b\"]}");
+        parity.assertRoundTrip("net.kilink.jackson.Order", "{\"items\":null,\"id\":\"o2\"}");
+        parity.assertSameFailure("net.kilink.jackson.Order", "{\"id\":\"o3\",\"price\":1}");
+        parity.assertSameFailure("net.kilink.jackson.Order", "{\"id\":\"o3\",\"items\":{}}");
+    }
+
+    @Test
+    public void testNestedTypesCallGeneratedClassesDirectly() throws Exception {
+        Compilation result = javac().withProcessors(new AnnotationProcessor())
+                .compile(JavaFileObjects.forResource("Point.java"), JavaFileObjects.forResource("Line.java"));
+
+        assertThat(result).succeededWithoutWarnings();
+        JacksonParity parity = JacksonParity.of(result);
+        assertEquals("{\"from\":{\"x\":1,\"why\":2,\"label\":\"a\"},\"to\":null}",
+                parity.assertRoundTrip("net.kilink.jackson.Line",
+                        "{\"from\":{\"x\":1,\"why\":2,\"label\":\"a\"}}"));
+        parity.assertRoundTrip("net.kilink.jackson.Line", "{\"to\":{\"why\":-2},\"from\":{}}");
+        parity.assertSameFailure("net.kilink.jackson.Line", "{\"from\":{\"x\":1},\"to\":{\"x\":1,\"z\":2}}");
+        parity.assertSameFailure("net.kilink.jackson.Line", "{\"from\":[1]}");
+        assertThat(result).generatedSourceFile("net.kilink.jackson.LineSerializer")
+                .contentsAsUtf8String()
+                .contains("PointSerializer.ENUMS_AS_TEXT.serialize(from, gen, provider);");
+        assertThat(result).generatedSourceFile("net.kilink.jackson.LineDeserializer")
+                .contentsAsUtf8String()
+                .contains("PointDeserializer.INSTANCE.deserialize(p, ctxt)");
+    }
+
+    @Test
+    public void testContainersAreReadByGeneratedMethods() throws Exception {
+        Compilation result = javac().withProcessors(new AnnotationProcessor())
+                .compile(JavaFileObjects.forResource("Telemetry.java"), JavaFileObjects.forResource("Catalog.java"));
+
+        assertThat(result).succeededWithoutWarnings();
+        JacksonParity parity = JacksonParity.of(result);
+        parity.assertRoundTrip("net.kilink.jackson.Telemetry",
+                "{\"name\":\"t\",\"tags\":[\"a\",null],\"samples\":[1,2,3],\"gauges\":{\"g\":1.5,\"h\":null}}");
+        parity.assertRoundTrip("net.kilink.jackson.Telemetry", "{\"name\":1,\"tags\":[],\"samples\":[1,null,\"3\"]}");
+        parity.assertSameFailure("net.kilink.jackson.Telemetry", "{\"name\":{\"a\":1}}");
+        parity.assertSameFailure("net.kilink.jackson.Telemetry", "{\"name\":[\"a\",\"b\"]}");
+        parity.assertSameFailure("net.kilink.jackson.Telemetry", "{\"tags\":[\"a\",{}]}");
+        parity.assertSameFailure("net.kilink.jackson.Telemetry", "{\"samples\":[1,\"two\"]}");
+        parity.assertSameFailure("net.kilink.jackson.Telemetry", "{\"gauges\":{\"g\":\"high\"}}");
+
+        parity.assertRoundTrip("net.kilink.jackson.Catalog",
+                "{\"grade\":\"A\",\"mark\":\"b\",\"counts\":[1,2],\"labels\":[\"x\",null],\"codes\":[3,1],"
+                        + "\"series\":[0.5,1],\"byId\":{\"1\":\"one\"},"
+                        + "\"byUuid\":{\"123e4567-e89b-12d3-a456-426614174000\":7},"
+                        + "\"flags\":{\"f\":true},\"answers\":{\"true\":\"yes\",\"false\":\"no\"}}");
+        parity.assertRoundTrip("net.kilink.jackson.Catalog", "{\"grade\":\"\",\"mark\":\"\",\"counts\":[null]}");
+        for (String json : List.of(
+                "{\"grade\":\"AB\"}",
+                "{\"counts\":[1,{}]}",
+                "{\"labels\":[\"x\",[]]}",
+                "{\"codes\":[1,\"x\"]}",
+                "{\"series\":[1,true]}",
+                "{\"byId\":{\"one\":\"1\"}}",
+                "{\"byUuid\":{\"nope\":1}}",
+                "{\"flags\":{\"ff\":true}}",
+                "{\"answers\":{\"yes\":\"y\"}}")) {
+            parity.assertSameFailure("net.kilink.jackson.Catalog", json);
+        }
+
+        JacksonParity strict = JacksonParity.of(result,
+                mapper -> mapper.configure(DeserializationFeature.FAIL_ON_NULL_FOR_PRIMITIVES, true));
+        strict.assertSameFailure("net.kilink.jackson.Telemetry", "{\"samples\":[1,null]}");
+        strict.assertSameFailure("net.kilink.jackson.Catalog", "{\"grade\":null}");
+    }
+
+    @Test
+    public void testArraysAreWrittenWithoutSerializerLookup() throws Exception {
+        Compilation result = javac().withProcessors(new AnnotationProcessor())
+                .compile(JavaFileObjects.forResource("Frame.java"));
+
+        assertThat(result).succeededWithoutWarnings();
+        JacksonParity parity = JacksonParity.of(result);
+        String json = "{\"payload\":\"AQID\",\"samples\":[1,-2,3],\"stamps\":[1705314600000],\"levels\":[0.5,-1.0],"
+                + "\"bits\":[true,false],\"code\":\"ab\",\"boxed\":[1,null],\"names\":[\"a\",null]}";
+        assertEquals(json, parity.assertRoundTrip("net.kilink.jackson.Frame", json));
+        assertEquals("{\"payload\":\"\",\"samples\":[],\"stamps\":[],\"levels\":[],\"bits\":[],\"code\":\"\","
+                        + "\"boxed\":[],\"names\":[]}",
+                parity.assertRoundTrip("net.kilink.jackson.Frame", "{\"payload\":[],\"samples\":[],\"stamps\":[],"
+                        + "\"levels\":[],\"bits\":[],\"code\":\"\",\"boxed\":[],\"names\":[]}"));
+        parity.assertRoundTrip("net.kilink.jackson.Frame", "{\"payload\":[1,2,3]}");
+        parity.assertRoundTrip("net.kilink.jackson.Frame", "{\"code\":[\"a\",\"b\"]}");
+        parity.assertSameFailure("net.kilink.jackson.Frame", "{\"payload\":{}}");
+        parity.assertSameFailure("net.kilink.jackson.Frame", "{\"payload\":\"!!\"}");
+        parity.assertSameFailure("net.kilink.jackson.Frame", "{\"code\":1}");
+        parity.assertSameFailure("net.kilink.jackson.Frame", "{\"levels\":1.5}");
+    }
+
+    @Test
+    public void testPolymorphicTypesDispatchOnTypeId() throws Exception {
+        Compilation result = javac().withProcessors(new AnnotationProcessor())
+                .compile(JavaFileObjects.forResource("Shape.java"));
+
+        assertThat(result).succeededWithoutWarnings();
+        JacksonParity parity = JacksonParity.of(result);
+        assertEquals("{\"kind\":\"circle\",\"radius\":1.5}",
+                parity.assertRoundTrip("net.kilink.jackson.Shape", "{\"kind\":\"circle\",\"radius\":1.5}"));
+        parity.assertRoundTrip("net.kilink.jackson.Shape", "{\"radius\":1.5,\"kind\":\"circle\"}");
+        parity.assertRoundTrip("net.kilink.jackson.Shape$Circle", "{\"kind\":\"circle\",\"radius\":2}");
+        parity.assertSameFailure("net.kilink.jackson.Shape", "{\"kind\":\"triangle\",\"side\":1}");
+        // Unlike Jackson, subtypes are also found through the permits of a sealed type
+        Object square = parity.generated().readValue("{\"kind\":\"square\",\"side\":1}",
+                parity.type("net.kilink.jackson.Shape"));
+        assertEquals("{\"kind\":\"square\",\"side\":1.0}", parity.plain().writeValueAsString(square));
+        parity.assertSameFailure("net.kilink.jackson.Shape", "{\"radius\":1.5}");
+        parity.assertSameFailure("net.kilink.jackson.Shape", "{\"radius\":2,\"kind\":\"circle\",\"extra\":null}");
+        parity.assertSameFailure("net.kilink.jackson.Shape", "{\"kind\":\"circle\",\"radius\":\"big\"}");
+        parity.assertSameFailure("net.kilink.jackson.Shape", "{\"radius\":\"big\",\"kind\":\"circle\"}");
+    }
+
+    @Test
+    public void testVisibleTypeIdsAreReadIntoTheirProperty() throws Exception {
+        Compilation result = javac().withProcessors(new AnnotationProcessor())
+                .compile(JavaFileObjects.forResource("Event.java"));
+
+        assertThat(result).succeededWithoutWarnings();
+        JacksonParity parity = JacksonParity.of(result);
+        for (String json : List.of(
+                "{\"type\":\"renamed\",\"id\":\"e2\",\"name\":\"n\"}",
+                "{\"type\":\"moved\",\"name\":\"n\"}",
+                "{\"name\":\"n\",\"id\":\"e2\",\"type\":\"moved\"}")) {
+            parity.assertRoundTrip("net.kilink.jackson.Event", json);
+        }
+        Object moved = parity.generated().readValue("{\"type\":\"moved\",\"id\":\"e3\"}",
+                parity.type("net.kilink.jackson.Event"));
+        assertEquals("moved", moved.getClass().getMethod("type").invoke(moved));
+        parity.assertSameFailure("net.kilink.jackson.Event", "{\"type\":\"deleted\",\"id\":\"e1\"}");
+        parity.assertSameFailure("net.kilink.jackson.Event", "{\"type\":\"renamed\",\"name\":[]}");
+        // As with Jackson, a visible type id is a property like any other, unknown to types without it
+        parity.assertSameFailure("net.kilink.jackson.Event", "{\"type\":\"created\",\"id\":\"e1\",\"at\":5}");
+        parity.assertSameFailure("net.kilink.jackson.Event", "{\"id\":\"e1\",\"type\":\"created\",\"at\":5}");
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void testEnumsAreMatchedByName() throws Exception {
+        Compilation result = javac().withProcessors(new AnnotationProcessor())
+                .compile(JavaFileObjects.forResource("Signal.java"), JavaFileObjects.forResource("Setting.java"));
+
+        assertThat(result).succeededWithoutWarnings();
+        JacksonParity parity = JacksonParity.of(result);
+        assertEquals("{\"light\":\"red\"}", parity.assertRoundTrip("net.kilink.jackson.Signal", "{\"light\":\"red\"}"));
+        parity.assertRoundTrip("net.kilink.jackson.Signal", "{\"light\":\"amber\"}");
+        parity.assertRoundTrip("net.kilink.jackson.Signal", "{\"light\":\"YELLOW\"}");
+        parity.assertRoundTrip("net.kilink.jackson.Signal", "{\"light\":2}");
+        assertEquals("{\"light\":\"GREEN\"}", parity.assertRoundTrip("net.kilink.jackson.Signal", "{\"light\":\"2\"}"));
+        parity.assertRoundTrip("net.kilink.jackson.Signal", "{\"light\":\" 0 \"}");
+        parity.assertRoundTrip("net.kilink.jackson.Signal", "{\"light\":null}");
+        parity.assertRoundTrip("net.kilink.jackson.Setting", "{\"name\":\"s\",\"mode\":\"BLINKING\"}");
+        for (String json : List.of(
+                "{\"light\":\"RED\"}",
+                "{\"light\":\"blue\"}",
+                "{\"light\":3}",
+                "{\"light\":-1}",
+                "{\"light\":\"3\"}",
+                "{\"light\":\"01\"}",
+                "{\"light\":\"-1\"}",
+                "{\"light\":\"1a\"}",
+                "{\"light\":true}")) {
+            parity.assertSameFailure("net.kilink.jackson.Signal", json);
+        }
+        parity.assertSameFailure("net.kilink.jackson.Setting", "{\"mode\":\"OFF\"}");
+
+        JacksonParity lenient = JacksonParity.of(result, mapper -> mapper
+                .enable(DeserializationFeature.READ_UNKNOWN_ENUM_VALUES_AS_NULL)
+                .enable(DeserializationFeature.READ_UNKNOWN_ENUM_VALUES_USING_DEFAULT_VALUE));
+        lenient.assertRoundTrip("net.kilink.jackson.Signal", "{\"light\":\"blue\"}");
+        lenient.assertRoundTrip("net.kilink.jackson.Signal", "{\"light\":7}");
+        assertEquals("{\"name\":null,\"mode\":\"UNKNOWN\"}",
+                lenient.assertRoundTrip("net.kilink.jackson.Setting", "{\"mode\":\"OFF\"}"));
+
+        JacksonParity strict = JacksonParity.of(result,
+                mapper -> mapper.enable(DeserializationFeature.FAIL_ON_NUMBERS_FOR_ENUMS));
+        strict.assertSameFailure("net.kilink.jackson.Signal", "{\"light\":1}");
+        strict.assertSameFailure("net.kilink.jackson.Signal", "{\"light\":\"1\"}");
+
+        JacksonParity noCoercion = JacksonParity.of(result,
+                mapper -> mapper.configure(MapperFeature.ALLOW_COERCION_OF_SCALARS, false));
+        noCoercion.assertSameFailure("net.kilink.jackson.Signal", "{\"light\":\"1\"}");
+
+        // Case insensitive matching is left to Jackson
+        JacksonParity caseInsensitive = JacksonParity.of(result,
+                mapper -> mapper.configure(MapperFeature.ACCEPT_CASE_INSENSITIVE_ENUMS, true));
+        caseInsensitive.assertFallbackDeserializer(caseInsensitive.type("net.kilink.jackson.Signal"));
+        assertEquals("{\"light\":\"GREEN\"}",
+                caseInsensitive.assertSameRoundTrip("net.kilink.jackson.Signal", "{\"light\":\"Green\"}"));
+    }
+
+    @Test
+    public void testSerializerVariantsFollowMapperConfiguration() throws Exception {
+        Compilation result = javac().withProcessors(new AnnotationProcessor())
+                .compile(JavaFileObjects.forResource("Signal.java"), JavaFileObjects.forResource("Switch.java"));
+
+        assertThat(result).succeededWithoutWarnings();
+        JacksonParity byIndex = JacksonParity.of(result,
+                mapper -> mapper.enable(SerializationFeature.WRITE_ENUMS_USING_INDEX));
+        assertEquals("{\"light\":1}", byIndex.assertRoundTrip("net.kilink.jackson.Signal", "{\"light\":\"amber\"}"));
+
+        JacksonParity lenient = JacksonParity.of(result,
+                mapper -> mapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES));
+        lenient.assertRoundTrip("net.kilink.jackson.Switch", "{\"name\":\"a\",\"off\":{\"x\":[1]},\"on\":true}");
+
+        // An inclusion other than the compile-time profile's is left to Jackson when writing, while reading is not
+        // affected by it
+        JacksonParity nonNull = JacksonParity.of(result,
+                mapper -> mapper.setSerializationInclusion(JsonInclude.Include.NON_NULL));
+        nonNull.assertGeneratedDeserializer(nonNull.type("net.kilink.jackson.Switch"));
+        nonNull.assertFallbackSerializer(nonNull.type("net.kilink.jackson.Switch"));
+        assertEquals("{\"name\":\"a\",\"on\":false}",
+                nonNull.assertSameRoundTrip("net.kilink.jackson.Switch", "{\"name\":\"a\",\"dimmed\":null}"));
+
+        // A naming strategy changes the properties themselves, so is left to Jackson both ways
+        JacksonParity upperCamelCase = JacksonParity.of(result,
+                mapper -> mapper.setPropertyNamingStrategy(PropertyNamingStrategies.UPPER_CAMEL_CASE));
+        upperCamelCase.assertFallbackDeserializer(upperCamelCase.type("net.kilink.jackson.Signal"));
+        upperCamelCase.assertFallbackSerializer(upperCamelCase.type("net.kilink.jackson.Signal"));
+        assertEquals("{\"Light\":\"red\"}",
+                upperCamelCase.assertSameRoundTrip("net.kilink.jackson.Signal", "{\"Light\":\"red\"}"));
+    }
+
+    @Test
+    public void testProcessorOptionsSetTheCompileTimeProfile() throws Exception {
+        Compilation result = javac().withProcessors(new AnnotationProcessor())
+                .withOptions("-Aautoserde.enums=index", "-Aautoserde.defaultInclusion=NON_NULL",
+                        "-Aautoserde.failOnUnknownProperties=false")
+                .compile(JavaFileObjects.forResource("Signal.java"), JavaFileObjects.forResource("Switch.java"));
+
+        assertThat(result).succeededWithoutWarnings();
+        JacksonParity profile = JacksonParity.of(result, mapper -> mapper
+                .enable(SerializationFeature.WRITE_ENUMS_USING_INDEX)
+                .setSerializationInclusion(JsonInclude.Include.NON_NULL)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES));
+        assertEquals("{\"light\":0}", profile.assertRoundTrip("net.kilink.jackson.Signal", "{\"light\":\"red\"}"));
+        assertEquals("{\"name\":\"a\",\"on\":true}", profile.assertRoundTrip("net.kilink.jackson.Switch",
+                "{\"name\":\"a\",\"dimmed\":null,\"off\":[1],\"on\":true}"));
+
+        // A mapper with Jackson's defaults includes nulls and fails on unknown properties, unlike the profile, so is
+        // left to Jackson
+        JacksonParity defaults = JacksonParity.of(result);
+        defaults.assertFallbackSerializer(defaults.type("net.kilink.jackson.Signal"));
+        assertEquals("{\"light\":\"red\"}",
+                defaults.assertSameRoundTrip("net.kilink.jackson.Signal", "{\"light\":\"red\"}"));
+        defaults.assertFallbackDeserializer(defaults.type("net.kilink.jackson.Switch"));
+        defaults.assertFallbackSerializer(defaults.type("net.kilink.jackson.Switch"));
+        assertThrows(UnrecognizedPropertyException.class, () -> defaults.generated()
+                .readValue("{\"name\":\"a\",\"off\":[1]}", defaults.type("net.kilink.jackson.Switch")));
+        assertEquals("{\"name\":\"a\",\"on\":false,\"dimmed\":null}",
+                defaults.assertSameRoundTrip("net.kilink.jackson.Switch", "{\"name\":\"a\"}"));
+    }
+
+    @Test
+    public void testInvalidProcessorOptionIsReported() {
+        Compilation result = javac().withProcessors(new AnnotationProcessor())
+                .withOptions("-Aautoserde.enums=ordinal")
+                .compile(JavaFileObjects.forResource("Signal.java"));
+
+        assertThat(result).hadErrorContaining("Invalid value 'ordinal' for option autoserde.enums");
+    }
+
+    @Test
+    public void testModuleLoadsGeneratedClassesOnFirstUse() throws Exception {
+        Compilation result = javac().withProcessors(new AnnotationProcessor())
+                .compile(JavaFileObjects.forResource("Point.java"), JavaFileObjects.forResource("Line.java"));
+
+        assertThat(result).succeededWithoutWarnings();
+        JacksonParity parity = JacksonParity.of(result);
+        ClassLoader classLoader = parity.classLoader();
+        assertFalse(TestUtils.isLoaded(classLoader, "net.kilink.jackson.PointSerializer"));
+        assertFalse(TestUtils.isLoaded(classLoader, "net.kilink.jackson.PointDeserializer"));
+
+        parity.assertRoundTrip("net.kilink.jackson.Point", "{\"x\":1,\"why\":2,\"label\":\"a\"}");
+        assertTrue(TestUtils.isLoaded(classLoader, "net.kilink.jackson.PointSerializer"));
+        assertTrue(TestUtils.isLoaded(classLoader, "net.kilink.jackson.PointDeserializer"));
+        assertFalse(TestUtils.isLoaded(classLoader, "net.kilink.jackson.LineSerializer"));
+        assertFalse(TestUtils.isLoaded(classLoader, "net.kilink.jackson.LineDeserializer"));
+
+        // Types without generated classes are left to Jackson
+        assertEquals(List.of(1, 2), parity.generated().readValue("[1,2]", List.class));
+    }
+
+    @Test
+    public void testModuleIsNamedByProcessorOption() throws Exception {
+        Compilation result = javac().withProcessors(new AnnotationProcessor())
+                .withOptions("-Aautoserde.moduleName=PointModule")
+                .compile(JavaFileObjects.forResource("Point.java"), JavaFileObjects.forResource("Line.java"));
+
+        assertThat(result).succeededWithoutWarnings();
+        assertThat(result.generatedSourceFile("net.kilink.jackson.GeneratedModule")).isEmpty();
+        JacksonParity parity = JacksonParity.of(result, "net.kilink.jackson.PointModule", UnaryOperator.identity());
+        parity.assertRoundTrip("net.kilink.jackson.Line",
+                "{\"from\":{\"x\":1,\"why\":2,\"label\":\"a\"},\"to\":null}");
+    }
+
+    @Test
+    public void testTypesAnnotatedInLaterRoundsAreInTheModule() throws Exception {
+        Compilation result = javac().withProcessors(new AnnotationProcessor(), new LaterRoundProcessor())
+                .compile(JavaFileObjects.forResource("Point.java"));
+
+        assertThat(result).succeededWithoutWarnings();
+        JacksonParity parity = JacksonParity.of(result);
+        parity.assertRoundTrip("net.kilink.jackson.Point", "{\"x\":1,\"why\":2,\"label\":\"a\"}");
+        parity.assertRoundTrip("net.kilink.jackson.Later", "{\"point\":{\"x\":1,\"why\":2,\"label\":null}}");
+    }
+
+    /**
+     * Generates an {@code @AutoSerde} type in the first round, as another processor might.
+     */
+    @SupportedAnnotationTypes("*")
+    private static final class LaterRoundProcessor extends AbstractProcessor {
+        private boolean generated;
+
+        @Override
+        public SourceVersion getSupportedSourceVersion() {
+            return SourceVersion.latestSupported();
+        }
+
+        @Override
+        public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+            if (!generated) {
+                generated = true;
+                try (Writer writer = processingEnv.getFiler().createSourceFile("net.kilink.jackson.Later").openWriter()) {
+                    writer.write("package net.kilink.jackson;\n\n@AutoSerde\npublic record Later(Point point) {}\n");
+                } catch (IOException exc) {
+                    throw new UncheckedIOException(exc);
+                }
+            }
+            return false;
+        }
+    }
+
+    @Test
+    public void testModuleGenerationCanBeDisabled() throws Exception {
+        Compilation result = javac().withProcessors(new AnnotationProcessor())
+                .withOptions("-Aautoserde.generateModule=false")
+                .compile(JavaFileObjects.forResource("Point.java"));
+
+        assertThat(result).succeededWithoutWarnings();
+        assertThat(result.generatedSourceFile("net.kilink.jackson.GeneratedModule")).isEmpty();
+
+        // The generated classes can still be registered by hand
+        ClassLoader classLoader = TestUtils.classLoaderFor(result);
+        Class<?> type = classLoader.loadClass("net.kilink.jackson.Point");
+        SimpleModule module = new SimpleModule().addSerializer(instance(classLoader, "net.kilink.jackson.PointSerializer"));
+        Object point = new ObjectMapper().readValue("{\"x\":1,\"why\":2,\"label\":\"a\"}", type);
+        assertEquals(new ObjectMapper().writeValueAsString(point),
+                new ObjectMapper().registerModule(module).writeValueAsString(point));
+    }
+
+    @Test
+    public void testGradleCategoryFollowsModuleGeneration() {
+        AnnotationProcessor aggregating = new AnnotationProcessor();
+        assertThat(javac().withProcessors(aggregating).compile(JavaFileObjects.forResource("Point.java")))
+                .succeededWithoutWarnings();
+        assertTrue(aggregating.getSupportedOptions().contains("org.gradle.annotation.processing.aggregating"));
+
+        // Without a module, each generated class only depends on its annotated type
+        AnnotationProcessor isolating = new AnnotationProcessor();
+        Compilation result = javac().withProcessors(isolating)
+                .withOptions("-Aautoserde.generateModule=false")
+                .compile(JavaFileObjects.forResource("Point.java"));
+        assertThat(result).succeededWithoutWarnings();
+        assertTrue(isolating.getSupportedOptions().contains("org.gradle.annotation.processing.isolating"));
+        assertFalse(isolating.getSupportedOptions().contains("org.gradle.annotation.processing.aggregating"));
+    }
+
+    private static JsonSerializer<?> instance(ClassLoader classLoader, String className) throws Exception {
+        return (JsonSerializer<?>) classLoader.loadClass(className).getField("INSTANCE").get(null);
+    }
+
+    @Test
+    public void testMetricsAreReportedWhenEnabled() throws Exception {
+        Compilation result = javac().withProcessors(new AnnotationProcessor())
+                .withOptions("-Aautoserde.metrics=true")
+                .compile(JavaFileObjects.forResource("Point.java"), JavaFileObjects.forResource("Line.java"));
+
+        assertThat(result).succeededWithoutWarnings();
+        JacksonParity parity = JacksonParity.of(result);
+        List<String> reported = new CopyOnWriteArrayList<>();
+        Object module = parity.type("net.kilink.jackson.GeneratedModule").getConstructor().newInstance();
+        module.getClass().getMethod("withMetricsListener", SerdeMetricsListener.class).invoke(module,
+                new SerdeMetricsListener() {
+                    @Override
+                    public void serialized(Class<?> type, long nanos) {
+                        reported.add("serialized " + type.getSimpleName());
+                    }
+
+                    @Override
+                    public void deserialized(Class<?> type, long length, long nanos) {
+                        reported.add("deserialized " + type.getSimpleName() + " " + length);
+                    }
+                });
+        ObjectMapper mapper = new ObjectMapper().registerModule((Module) module);
+        Class<?> type = parity.type("net.kilink.jackson.Line");
+
+        String point = "{\"x\":1,\"why\":2,\"label\":\"a\"}";
+        String json = "{\"from\":" + point + ",\"to\":null}";
+        assertEquals(json, mapper.writeValueAsString(mapper.readValue(json, type)));
+        // Nested values are reported before the values containing them
+        assertEquals(List.of("deserialized Point " + point.length(), "deserialized Line " + json.length(),
+                "serialized Point", "serialized Line"), reported);
+
+        // Values that fail to be read are not reported, and neither are those of mappers the module is not
+        // registered with
+        reported.clear();
+        assertThrows(MismatchedInputException.class,
+                () -> mapper.readValue("{\"from\":" + point + ",\"to\":{\"x\":\"a\"}}", type));
+        assertEquals(List.of("deserialized Point " + point.length()), reported);
+        reported.clear();
+        parity.assertRoundTrip("net.kilink.jackson.Line", json);
+        assertEquals(List.of(), reported);
+    }
+
+    @Test
+    public void testSequenceReadersAndWritersCallGeneratedClasses() throws Exception {
+        Compilation result = javac().withProcessors(new AnnotationProcessor())
+                .compile(JavaFileObjects.forResource("Point.java"));
+
+        assertThat(result).succeededWithoutWarnings();
+        JacksonParity parity = JacksonParity.of(result);
+        ObjectMapper mapper = parity.generated();
+        Class<?> type = parity.type("net.kilink.jackson.Point");
+        Class<?> deserializer = parity.type("net.kilink.jackson.PointDeserializer");
+        Class<?> serializer = parity.type("net.kilink.jackson.PointSerializer");
+        String array = "[{\"x\":1,\"why\":2,\"label\":\"a\"},null,{\"label\":\"b\",\"x\":3}]";
+        List<?> expected = parity.plain().readValue(array,
+                parity.plain().getTypeFactory().constructCollectionType(List.class, type));
+
+        List<Object> read = new ArrayList<>();
+        try (SequenceReader<?> reader = (SequenceReader<?>) deserializer.getMethod("arrayReader",
+                ObjectMapper.class, JsonParser.class).invoke(null, mapper, mapper.createParser(array))) {
+            reader.forEachRemaining(read::add);
+        }
+        assertEquals(expected, read);
+
+        StringWriter ndjson = new StringWriter();
+        try (SequenceWriter<Object> writer = sequenceWriter(serializer, "valuesWriter", mapper, ndjson)) {
+            writer.writeAll(expected);
+        }
+        StringBuilder lines = new StringBuilder();
+        for (Object value : expected) {
+            lines.append(parity.plain().writeValueAsString(value)).append('\n');
+        }
+        assertEquals(lines.toString(), ndjson.toString());
+
+        read.clear();
+        try (SequenceReader<?> reader = (SequenceReader<?>) deserializer.getMethod("valuesReader",
+                ObjectMapper.class, JsonParser.class).invoke(null, mapper, mapper.createParser(ndjson.toString()))) {
+            reader.forEachRemaining(read::add);
+        }
+        assertEquals(expected, read);
+
+        StringWriter written = new StringWriter();
+        try (SequenceWriter<Object> writer = sequenceWriter(serializer, "arrayWriter", mapper, written)) {
+            writer.writeAll(expected);
+        }
+        assertEquals(parity.plain().writeValueAsString(expected), written.toString());
+
+        // As for a list, anything but an array is rejected
+        try (SequenceReader<?> reader = (SequenceReader<?>) deserializer.getMethod("arrayReader",
+                ObjectMapper.class, JsonParser.class).invoke(null, mapper, mapper.createParser("{\"x\":1}"))) {
+            assertThrows(MismatchedInputException.class, reader::hasNextValue);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static SequenceWriter<Object> sequenceWriter(Class<?> serializer, String methodName, ObjectMapper mapper,
+                                                         Writer out) throws Exception {
+        return (SequenceWriter<Object>) serializer.getMethod(methodName, ObjectMapper.class, JsonGenerator.class)
+                .invoke(null, mapper, mapper.createGenerator(out));
+    }
+
+    @Test
+    public void testArrayShapedTypesAreReadByPosition() throws Exception {
+        Compilation result = javac().withProcessors(new AnnotationProcessor())
+                .compile(JavaFileObjects.forResource("Quote.java"), JavaFileObjects.forResource("Columns.java"));
+
+        assertThat(result).succeededWithoutWarnings();
+        assertThat(result).generatedSourceFile("net.kilink.jackson.QuoteDeserializer")
+                .contentsAsUtf8String()
+                .doesNotContain("propertyIndex");
+        JacksonParity parity = JacksonParity.of(result);
+        assertEquals("[\"ACME\",1700000000,1.5,1.75]",
+                parity.assertRoundTrip("net.kilink.jackson.Quote", "[\"ACME\",1700000000,1.5,1.75]"));
+        parity.assertSameFailure("net.kilink.jackson.Quote", "{\"symbol\":\"ACME\"}");
+        parity.assertSameFailure("net.kilink.jackson.Quote", "[\"ACME\",\"soon\"]");
+        // Extra elements are unknown properties, except for types instantiated through a creator, which Jackson skips
+        parity.assertRoundTrip("net.kilink.jackson.Quote", "[\"ACME\",1,1.5,1.75,{\"extra\":[1]},true]");
+        parity.assertSameFailure("net.kilink.jackson.Columns$Setters", "[\"n\",2,true]");
+        parity.assertSameFailure("net.kilink.jackson.Columns$Built", "[\"k\",2,true]");
+        JacksonParity lenient = JacksonParity.of(result,
+                mapper -> mapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES));
+        lenient.assertRoundTrip("net.kilink.jackson.Columns$Setters", "[\"n\",2,{\"extra\":[1]},true]");
+        lenient.assertRoundTrip("net.kilink.jackson.Columns$Built", "[\"k\",2,{\"extra\":[1]},true]");
+    }
+
+    @Test
+    public void testMissingTrailingElementsAreHandledAsByJackson() throws Exception {
+        Compilation result = javac().withProcessors(new AnnotationProcessor())
+                .compile(JavaFileObjects.forResource("Columns.java"));
+
+        assertThat(result).succeededWithoutWarnings();
+        JacksonParity lenient = JacksonParity.of(result);
+        JacksonParity strict = JacksonParity.of(result,
+                mapper -> mapper.enable(DeserializationFeature.FAIL_ON_MISSING_CREATOR_PROPERTIES));
+        for (JacksonParity parity : List.of(lenient, strict)) {
+            // Properties set through setters or a builder are left unset
+            for (String json : List.of("[\"n\",3]", "[\"n\"]", "[]")) {
+                parity.assertRoundTrip("net.kilink.jackson.Columns$Setters", json);
+                parity.assertRoundTrip("net.kilink.jackson.Columns$Built", json.replace('n', 'k'));
+            }
+            // Getter-only properties are written, and skipped when read
+            assertEquals("[\"i\",1,\"x\",\"i#1\"]",
+                    parity.assertRoundTrip("net.kilink.jackson.Columns$Mixed", "[\"i\",1,\"x\",\"i#9\"]"));
+            parity.assertRoundTrip("net.kilink.jackson.Columns$Mixed", "[\"i\",1,\"x\"]");
+            parity.assertRoundTrip("net.kilink.jackson.Columns$Mixed", "[\"i\",1]");
+        }
+
+        // Creator properties only fail when the mapper says so
+        lenient.assertRoundTrip("net.kilink.jackson.Columns$Mixed", "[\"i\"]");
+        lenient.assertRoundTrip("net.kilink.jackson.Columns$Mixed", "[]");
+        strict.assertSameFailure("net.kilink.jackson.Columns$Mixed", "[\"i\"]");
+        strict.assertSameFailure("net.kilink.jackson.Columns$Mixed", "[]");
+    }
+
+    @Test
+    public void testJavaTimeValuesAreReadAndWrittenDirectly() {
+        Compilation result = javac().withProcessors(new AnnotationProcessor())
+                .compile(JavaFileObjects.forResource("Appointment.java"));
+
+        assertThat(result).succeededWithoutWarnings();
+        assertThat(result).generatedSourceFile("net.kilink.jackson.AppointmentSerializer")
+                .contentsAsUtf8String()
+                .contains("TimeValues.writeInstant(gen, provider, created, JsonFormat.Shape.ANY, null);");
+        assertThat(result).generatedSourceFile("net.kilink.jackson.AppointmentSerializer")
+                .contentsAsUtf8String()
+                .contains("TimeValues.writeInstant(gen, provider, updated, JsonFormat.Shape.NUMBER, null);");
+        assertThat(result).generatedSourceFile("net.kilink.jackson.AppointmentSerializer")
+                .contentsAsUtf8String()
+                .contains("private static final DateTimeFormatter FORMAT_0 = DateTimeFormatter.ofPattern(\"dd.MM.yyyy\");");
+        assertThat(result).generatedSourceFile("net.kilink.jackson.AppointmentDeserializer")
+                .contentsAsUtf8String()
+                .contains("TimeValues.readLocalDate(p, ctxt, FORMAT_0)");
+    }
+
+    @Test
+    public void testJavaTimeValuesMatchTheJsr310Module() throws Exception {
+        Compilation result = javac().withProcessors(new AnnotationProcessor())
+                .compile(JavaFileObjects.forResource("Appointment.java"));
+        assertThat(result).succeededWithoutWarnings();
+
+        String type = "net.kilink.jackson.Appointment";
+        String text = "{\"created\":\"2024-01-15T10:30:00Z\",\"day\":\"2024-01-15\","
+                + "\"start\":\"2024-01-15T10:30:00.5+01:00\",\"length\":\"PT1H30M\",\"updated\":\"2024-01-15T10:30:00Z\","
+                + "\"reminder\":\"15.01.2024\",\"due\":\"2024-01-15\",\"confirmed\":\"2024-01-15T10:30:00.123Z\","
+                + "\"end\":\"2024-01-15 12:00+01:00\"}";
+        String timestamps = "{\"created\":1705314600,\"day\":[2024,1,15],\"start\":-1.5,\"length\":-1.5,"
+                + "\"updated\":1705314600.000000001,\"reminder\":19737,\"due\":19737,\"confirmed\":\"1705314600.5\","
+                + "\"end\":1705314600}";
+        List<UnaryOperator<ObjectMapper>> configurations = List.of(
+                UnaryOperator.identity(),
+                mapper -> mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS,
+                        SerializationFeature.WRITE_DURATIONS_AS_TIMESTAMPS),
+                mapper -> mapper.disable(SerializationFeature.WRITE_DATE_TIMESTAMPS_AS_NANOSECONDS)
+                        .disable(DeserializationFeature.READ_DATE_TIMESTAMPS_AS_NANOSECONDS),
+                mapper -> mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                        .setTimeZone(TimeZone.getTimeZone("Asia/Tokyo")),
+                mapper -> mapper.disable(DeserializationFeature.ADJUST_DATES_TO_CONTEXT_TIME_ZONE));
+        for (UnaryOperator<ObjectMapper> configuration : configurations) {
+            JacksonParity parity = JacksonParity.of(result, configuration);
+            parity.assertRoundTrip(type, parity.assertRoundTrip(type, text));
+            parity.assertRoundTrip(type, timestamps);
+            // Timestamps compared as written, down to the scale, rather than as numbers
+            Object value = parity.plain().readValue(timestamps, parity.type(type));
+            assertEquals(parity.plain().writeValueAsString(value), parity.generated().writeValueAsString(value));
+            parity.assertRoundTrip(type, "{\"created\":-1.5,\"day\":[],\"length\":1e3,\"due\":\"\"}");
+            parity.assertSameFailure(type, "{\"day\":[2024,1]}");
+            parity.assertSameFailure(type, "{\"day\":[2024,1,15,0]}");
+            parity.assertSameFailure(type, "{\"day\":[\"2024-01-15\"]}");
+            parity.assertSameFailure(type, "{\"day\":[2024,13,1]}");
+            parity.assertSameFailure(type, "{\"created\":true}");
+            parity.assertSameFailure(type, "{\"start\":\"2024-01-15T10:30:00\"}");
+        }
+    }
+
+    @Test
+    public void testUuidsDecimalsAndOptionalsAreHandledDirectly() {
+        Compilation result = javac().withProcessors(new AnnotationProcessor())
+                .compile(JavaFileObjects.forResource("Account.java"));
+
+        assertThat(result).succeededWithoutWarnings();
+        assertThat(result).generatedSourceFile("net.kilink.jackson.AccountSerializer")
+                .contentsAsUtf8String()
+                .contains("UuidValues.writeUuid(gen, id);");
+        assertThat(result).generatedSourceFile("net.kilink.jackson.AccountSerializer")
+                .contentsAsUtf8String()
+                .contains("gen.writeNumber(balance);");
+        assertThat(result).generatedSourceFile("net.kilink.jackson.AccountSerializer")
+                .contentsAsUtf8String()
+                .contains("if (closed != null && closed.isPresent()) {");
+        assertThat(result).generatedSourceFile("net.kilink.jackson.AccountDeserializer")
+                .contentsAsUtf8String()
+                .contains("UuidValues.readUuid(p, ctxt)");
+        assertThat(result).generatedSourceFile("net.kilink.jackson.AccountDeserializer")
+                .contentsAsUtf8String()
+                .contains("OptionalInt age = OptionalInt.empty();");
+    }
+
+    @Test
+    public void testUuidsDecimalsAndOptionalsMatchJackson() throws Exception {
+        Compilation result = javac().withProcessors(new AnnotationProcessor())
+                .compile(JavaFileObjects.forResource("Account.java"));
+        assertThat(result).succeededWithoutWarnings();
+
+        String type = "net.kilink.jackson.Account";
+        List<UnaryOperator<ObjectMapper>> configurations = List.of(
+                UnaryOperator.identity(),
+                mapper -> mapper.enable(JsonGenerator.Feature.WRITE_BIGDECIMAL_AS_PLAIN),
+                mapper -> mapper.enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS));
+        for (UnaryOperator<ObjectMapper> configuration : configurations) {
+            JacksonParity parity = JacksonParity.of(result, configuration);
+            for (String json : List.of(
+                    "{\"id\":\"0f8fad5b-d9cb-469f-a165-70867728950e\",\"balance\":12.50,\"nickname\":\"kit\","
+                            + "\"age\":42,\"closed\":\"2024\",\"points\":123456789012345678901234567890,\"rate\":0.5}",
+                    "{\"id\":\"0F8FAD5B-D9CB-469F-A165-70867728950E\",\"balance\":1E+3,\"points\":7,\"rate\":2}",
+                    "{\"id\":null,\"balance\":null,\"nickname\":null,\"age\":null,\"closed\":null,\"points\":null,"
+                            + "\"rate\":null}",
+                    "{\"balance\":\"12345678901234567890.123456789\",\"age\":\"42\",\"points\":\"12\",\"rate\":\"NaN\"}",
+                    "{\"balance\":7,\"age\":1.0,\"points\":1.5,\"rate\":1e400}",
+                    "{}")) {
+                parity.assertRoundTrip(type, json);
+                // Decimals compared as written, down to the scale, rather than as numbers
+                Object value = parity.plain().readValue(json, parity.type(type));
+                assertEquals(parity.plain().writeValueAsString(value), parity.generated().writeValueAsString(value),
+                        json);
+            }
+            parity.assertSameFailure(type, "{\"id\":\"0f8fad5b-d9cb-469f-a165-70867728950g\"}");
+            parity.assertSameFailure(type, "{\"id\":\"0f8fad5b+d9cb-469f-a165-70867728950e\"}");
+            parity.assertSameFailure(type, "{\"id\":\"0f8fad5b\"}");
+            parity.assertSameFailure(type, "{\"id\":42}");
+            parity.assertSameFailure(type, "{\"balance\":\"abc\"}");
+            parity.assertSameFailure(type, "{\"balance\":true}");
+            parity.assertSameFailure(type, "{\"points\":\"x\"}");
+            parity.assertSameFailure(type, "{\"age\":\"x\"}");
+            parity.assertSameFailure(type, "{\"nickname\":[\"kit\"]}");
+        }
+    }
+
+    @Test
+    public void testByteReaderMatchesNamesAndParsesValuesDirectly() throws Exception {
+        Compilation result = javac().withProcessors(new AnnotationProcessor())
+                .compile(JavaFileObjects.forResource("Reading.java"), JavaFileObjects.forResource("Gauge.java"));
+
+        assertThat(result).succeededWithoutWarnings();
+        assertThat(result).generatedSourceFile("net.kilink.jackson.ReadingDeserializer")
+                .contentsAsUtf8String()
+                .contains("JsonBytes.names(\"sensor\", \"timestamp\", \"value\", \"valid\");");
+        JacksonParity parity = JacksonParity.of(result);
+        ByteReader<?> readings = byteReader(parity, "net.kilink.jackson.ReadingDeserializer");
+        List<String> inputs = List.of(
+                "{\"sensor\":\"a\",\"timestamp\":1,\"value\":1.5,\"valid\":true}",
+                "{\"valid\":null,\"value\":-0.0,\"sensor\":\"\u00e9t\u00e9\",\"timestamp\":-9223372036854775808}",
+                " {\n\t\"sensor\" : null ,\"value\" : 1e3 } ",
+                "{\"value\":0.1}", "{\"value\":1.7976931348623157E308}", "{\"value\":4.9e-324}",
+                "{\"value\":123456789012345678901234567890}", "{\"value\":1.2345678901234567890123}",
+                "{\"value\":01}", "{\"value\":.5}", "{\"value\":NaN}",
+                "{\"timestamp\":9223372036854775807}", "{\"timestamp\":9223372036854775808}",
+                "{\"timestamp\":1.5}", "{\"timestamp\":null}", "{\"timestamp\":\"7\"}",
+                "{\"sensor\":\"a\\u0041\\n\"}", "{\"sensor\":1}", "{\"valid\":\"true\"}", "{\"valid\":tru}",
+                "{\"sensor\":\"a\",\"sensor\":\"b\"}", "{\"extra\":1}", "{\"sensor\":\"a\"} x", "{\"sensor\":\"a\"",
+                "{}", "null", "[1]", "", "{\"sensor\":\"\ud83d\ude00\"}",
+                "{\"value\":0.0000000000000000000000001}", "{\"value\":0e30}");
+        for (String input : inputs) {
+            parity.assertSameRead(readings, "net.kilink.jackson.Reading", input.getBytes(StandardCharsets.UTF_8));
+        }
+        byte[] malformed = {'{', '"', 's', 'e', 'n', 's', 'o', 'r', '"', ':', '"', (byte) 0xFF, '"', '}'};
+        parity.assertSameRead(readings, "net.kilink.jackson.Reading", malformed);
+        byte[] padded = "  {\"sensor\":\"a\"}  {\"sensor\"".getBytes(StandardCharsets.UTF_8);
+        assertEquals(parity.plain().readValue(padded, 0, 16, parity.type("net.kilink.jackson.Reading")),
+                readings.read(padded, 0, 16));
+
+        // Failures of the type's own setters are reported by the deserializer
+        ByteReader<?> gauges = byteReader(parity, "net.kilink.jackson.GaugeDeserializer");
+        for (String input : List.of("{\"name\":\"g\",\"level\":3}", "{\"level\":-1,\"name\":\"g\"}")) {
+            parity.assertSameRead(gauges, "net.kilink.jackson.Gauge", input.getBytes(StandardCharsets.UTF_8));
+        }
+
+        // Mappers reading differently from the direct path read everything through the mapper
+        List<UnaryOperator<ObjectMapper>> configurations = List.of(
+                mapper -> mapper.enable(JsonParser.Feature.STRICT_DUPLICATE_DETECTION),
+                mapper -> mapper.enable(DeserializationFeature.UNWRAP_ROOT_VALUE),
+                mapper -> mapper.enable(DeserializationFeature.FAIL_ON_MISSING_CREATOR_PROPERTIES),
+                mapper -> mapper.enable(DeserializationFeature.FAIL_ON_NULL_CREATOR_PROPERTIES),
+                mapper -> {
+                    mapper.getFactory().setStreamReadConstraints(
+                            StreamReadConstraints.builder().maxStringLength(8).build());
+                    return mapper;
+                });
+        List<String> configuredInputs = List.of(
+                "{\"sensor\":\"a\",\"sensor\":\"b\"}", "{\"Reading\":{\"sensor\":\"a\"}}",
+                "{\"sensor\":\"a\",\"timestamp\":1,\"value\":1.5,\"valid\":true}", "{\"sensor\":null}");
+        for (UnaryOperator<ObjectMapper> configuration : configurations) {
+            JacksonParity configured = JacksonParity.of(result, configuration);
+            ByteReader<?> configuredReadings = byteReader(configured, "net.kilink.jackson.ReadingDeserializer");
+            for (String input : configuredInputs) {
+                configured.assertSameRead(configuredReadings, "net.kilink.jackson.Reading",
+                        input.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+    }
+
+    private static ByteReader<?> byteReader(JacksonParity parity, String deserializerName) throws Exception {
+        return (ByteReader<?>) parity.type(deserializerName).getMethod("byteReader", ObjectMapper.class)
+                .invoke(null, parity.generated());
+    }
+
+    @Test
+    public void testByteReaderOnUnsupportedTypeIsReported() {
+        Compilation result = javac().withProcessors(new AnnotationProcessor())
+                .compile(JavaFileObjects.forSourceLines("net.kilink.jackson.Batch",
+                        "package net.kilink.jackson;",
+                        "import java.util.List;",
+                        "@AutoSerde(byteReader = true)",
+                        "public record Batch(String id, List<String> items) {}"));
+
+        assertThat(result).hadErrorContaining("@AutoSerde(byteReader = true) is only supported");
+    }
 }
@@ -0,0 +1,204 @@
+package net.kilink.jackson.processor;
+
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.deser.DefaultDeserializationContext;
+import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.google.testing.compile.Compilation;
+import net.kilink.jackson.ByteReader;
+import net.kilink.jackson.TestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.function.UnaryOperator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Compares the serializers and deserializers generated by a compilation against plain Jackson: a mapper with the
+ * generated module registered has to write and read the same JSON, and fail on the same input, as a mapper with only
+ * the jdk8 and JSR-310 modules, both being configured the same way.
+ */
+final class JacksonParity {
+
+    private final ClassLoader classLoader;
+    private final ObjectMapper generated;
+    private final ObjectMapper plain;
+
+    private JacksonParity(ClassLoader classLoader, ObjectMapper generated, ObjectMapper plain) {
+        this.classLoader = classLoader;
+        this.generated = generated;
+        this.plain = plain;
+    }
+
+    static JacksonParity of(Compilation compilation) {
+        return of(compilation, UnaryOperator.identity());
+    }
+
+    static JacksonParity of(Compilation compilation, UnaryOperator<ObjectMapper> configure) {
+        return of(compilation, "net.kilink.jackson.GeneratedModule", configure);
+    }
+
+    static JacksonParity of(Compilation compilation, String moduleName, UnaryOperator<ObjectMapper> configure) {
+        ClassLoader classLoader = TestUtils.classLoaderFor(compilation);
+        try {
+            Module module = (Module) classLoader.loadClass(moduleName).getConstructor().newInstance();
+            return new JacksonParity(classLoader,
+                    configure.apply(plainMapper()).registerModule(module),
+                    configure.apply(plainMapper()));
+        } catch (ReflectiveOperationException exc) {
+            throw new AssertionError("Cannot load " + moduleName, exc);
+        }
+    }
+
+    private static ObjectMapper plainMapper() {
+        return new ObjectMapper().registerModule(new Jdk8Module()).registerModule(new JavaTimeModule());
+    }
+
+    ClassLoader classLoader() {
+        return classLoader;
+    }
+
+    ObjectMapper generated() {
+        return generated;
+    }
+
+    ObjectMapper plain() {
+        return plain;
+    }
+
+    Class<?> type(String name) {
+        try {
+            return classLoader.loadClass(name);
+        } catch (ClassNotFoundException exc) {
+            throw new AssertionError(exc);
+        }
+    }
+
+    /**
+     * Reads the given JSON with both mappers, asserting that the values read are the same, and that writing the value
+     * read by Jackson gives the same JSON with both. Returns the JSON written through the generated module.
+     *
+     * <p>Objects are compared regardless of property order, as Jackson's order for properties with only a getter
+     * follows {@link Class#getDeclaredMethods()}, which is unspecified; tests check the order where it is defined.
+     */
+    String assertRoundTrip(String typeName, String json) throws Exception {
+        Class<?> type = type(typeName);
+        assertGeneratedDeserializer(type);
+        Object expected = plain.readValue(json, type);
+        assertGeneratedSerializer(expected.getClass());
+        return roundTrip(type, json, expected);
+    }
+
+    /**
+     * As {@link #assertRoundTrip(String, String)}, without checking which serializer and deserializer the generated
+     * mapper uses, for mappers configured in a way the generated classes hand some of the work over to Jackson for.
+     */
+    String assertSameRoundTrip(String typeName, String json) throws Exception {
+        Class<?> type = type(typeName);
+        return roundTrip(type, json, plain.readValue(json, type));
+    }
+
+    private String roundTrip(Class<?> type, String json, Object expected) throws Exception {
+        Object actual = generated.readValue(json, type);
+        JsonNode expectedTree = plain.readTree(plain.writeValueAsString(expected));
+        assertEquals(expectedTree, plain.readTree(plain.writeValueAsString(actual)), "read " + json);
+        String written = generated.writeValueAsString(expected);
+        assertEquals(expectedTree, plain.readTree(written), "written from " + json);
+        return written;
+    }
+
+    /**
+     * Asserts that both mappers fail to read the given JSON, with the same type of exception and (for mapping
+     * exceptions) the same path to the offending value. Returns the exception thrown through the generated module.
+     */
+    Exception assertSameFailure(String typeName, String json) throws Exception {
+        Class<?> type = type(typeName);
+        assertGeneratedDeserializer(type);
+        Exception expected = assertThrows(Exception.class, () -> plain.readValue(json, type), "plain " + json);
+        Exception actual = assertThrows(Exception.class, () -> generated.readValue(json, type), "generated " + json);
+        assertSameException(expected, actual, json);
+        return actual;
+    }
+
+    /**
+     * Asserts that the given reader, created for the generated mapper, reads the given input as the plain mapper
+     * does, or fails the same way as by {@link #assertSameFailure(String, String)}.
+     */
+    void assertSameRead(ByteReader<?> reader, String typeName, byte[] input) throws Exception {
+        Class<?> type = type(typeName);
+        String description = new String(input, StandardCharsets.UTF_8);
+        Object expected;
+        try {
+            expected = plain.readValue(input, type);
+        } catch (Exception exc) {
+            assertSameException(exc, assertThrows(Exception.class, () -> reader.read(input), description),
+                    description);
+            return;
+        }
+        Object actual = reader.read(input);
+        assertEquals(plain.writeValueAsString(expected), plain.writeValueAsString(actual), description);
+    }
+
+    private static void assertSameException(Exception expected, Exception actual, String input) {
+        assertEquals(expected.getClass(), actual.getClass(), () -> input + ": " + actual);
+        if (expected instanceof JsonMappingException) {
+            assertEquals(((JsonMappingException) expected).getPathReference(),
+                    ((JsonMappingException) actual).getPathReference(), input);
+        }
+    }
+
+    /**
+     * Asserts that the generated mapper actually uses the generated serializer for values of the given class, rather
+     * than having it fall back to Jackson's own for its configuration.
+     */
+    void assertGeneratedSerializer(Class<?> type) throws Exception {
+        JsonSerializer<Object> serializer = serializer(type);
+        assertSame(classLoader, serializer.getClass().getClassLoader(), () -> "serializer " + serializer);
+    }
+
+    /**
+     * Asserts that the generated mapper actually uses the generated deserializer for the given type, rather than
+     * having it fall back to Jackson's own for its configuration.
+     */
+    void assertGeneratedDeserializer(Class<?> type) throws Exception {
+        JsonDeserializer<Object> deserializer = deserializer(type);
+        assertSame(classLoader, deserializer.getClass().getClassLoader(), () -> "deserializer " + deserializer);
+    }
+
+    /**
+     * Asserts that the generated serializer for values of the given class hands over to Jackson's own for the
+     * configuration of the generated mapper.
+     */
+    void assertFallbackSerializer(Class<?> type) throws Exception {
+        JsonSerializer<Object> serializer = serializer(type);
+        assertNotSame(classLoader, serializer.getClass().getClassLoader(), () -> "serializer " + serializer);
+    }
+
+    /**
+     * Asserts that the generated deserializer for the given type hands over to Jackson's own for the configuration
+     * of the generated mapper.
+     */
+    void assertFallbackDeserializer(Class<?> type) throws Exception {
+        JsonDeserializer<Object> deserializer = deserializer(type);
+        assertNotSame(classLoader, deserializer.getClass().getClassLoader(), () -> "deserializer " + deserializer);
+    }
+
+    private JsonSerializer<Object> serializer(Class<?> type) throws Exception {
+        return generated.getSerializerProviderInstance().findValueSerializer(type, null);
+    }
+
+    private JsonDeserializer<Object> deserializer(Class<?> type) throws Exception {
+        DeserializationContext ctxt = ((DefaultDeserializationContext) generated.getDeserializationContext())
+                .createInstance(generated.getDeserializationConfig(), null, null);
+        return ctxt.findContextualValueDeserializer(generated.constructType(type), null);
+    }
+}
@@ -0,0 +1,98 @@
+package net.kilink.jackson.processor;
+
+import com.google.testing.compile.Compilation;
+import com.google.testing.compile.JavaFileObjects;
+import net.kilink.jackson.AnnotationProcessor;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import javax.tools.JavaFileObject;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.google.testing.compile.CompilationSubject.assertThat;
+import static com.google.testing.compile.Compiler.javac;
+
+/**
+ * Compiles a few thousand synthetic {@code @AutoSerde} types with and without the processor, reporting the time the
+ * processor adds per type, including compiling the sources it generates. Excluded from {@code test}; run through {@code ./gradlew processorBenchmark},
+ * with the number of types set by the {@code autoserde.benchmark.types} property (e.g.
+ * {@code -Pautoserde.benchmark.types=5000}).
+ */
+@Tag("benchmark")
+public class ProcessorThroughputBenchmark {
+
+    private static final int TYPES = Integer.getInteger("autoserde.benchmark.types", 2000);
+    private static final int ITERATIONS = Integer.getInteger("autoserde.benchmark.iterations", 3);
+
+    @Test
+    public void benchmarkProcessorThroughput() {
+        List<JavaFileObject> sources = syntheticSources(TYPES);
+
+        // Warm up the compiler and the processor
+        compile(sources, true);
+        compile(sources, false);
+
+        long withProcessor = Long.MAX_VALUE;
+        long withoutProcessor = Long.MAX_VALUE;
+        for (int i = 0; i < ITERATIONS; i++) {
+            withProcessor = Math.min(withProcessor, compile(sources, true));
+            withoutProcessor = Math.min(withoutProcessor, compile(sources, false));
+        }
+
+        long processing = withProcessor - withoutProcessor;
+        System.out.printf("%d types: %d ms with the processor, %d ms without, %.1f us added per type%n",
+                TYPES, withProcessor / 1_000_000, withoutProcessor / 1_000_000, processing / 1_000.0 / TYPES);
+    }
+
+    private static long compile(List<JavaFileObject> sources, boolean process) {
+        long start = System.nanoTime();
+        Compilation result = process
+                ? javac().withProcessors(new AnnotationProcessor()).compile(sources)
+                : javac().withOptions("-proc:none").compile(sources);
+        long elapsed = System.nanoTime() - start;
+        assertThat(result).succeeded();
+        return elapsed;
+    }
+
+    /**
+     * Generates records and bean-style classes mixing scalar, container, enum and nested properties, each referring to
+     * the previous type so that nested serializers / deserializers get resolved as well.
+     */
+    private static List<JavaFileObject> syntheticSources(int count) {
+        List<JavaFileObject> sources = new ArrayList<>();
+        sources.add(JavaFileObjects.forSourceLines("bench.Status",
+                "package bench;",
+                "public enum Status { ACTIVE, SUSPENDED, CLOSED }"));
+        for (int i = 0; i < count; i++) {
+            String name = "Dto" + i;
+            String previous = (i == 0) ? "Status" : "Dto" + (i - 1);
+            if (i % 4 == 3) {
+                sources.add(JavaFileObjects.forSourceLines("bench." + name,
+                        "package bench;",
+                        "import java.util.List;",
+                        "@net.kilink.jackson.AutoSerde",
+                        "public class " + name + " {",
+                        "  private String name;",
+                        "  private long id;",
+                        "  private List<" + previous + "> history;",
+                        "  public String getName() { return name; }",
+                        "  public void setName(String name) { this.name = name; }",
+                        "  public long getId() { return id; }",
+                        "  public void setId(long id) { this.id = id; }",
+                        "  public List<" + previous + "> getHistory() { return history; }",
+                        "  public void setHistory(List<" + previous + "> history) { this.history = history; }",
+                        "}"));
+            } else {
+                sources.add(JavaFileObjects.forSourceLines("bench." + name,
+                        "package bench;",
+                        "import java.util.List;",
+                        "import java.util.Map;",
+                        "@net.kilink.jackson.AutoSerde",
+                        "public record " + name + "(String name, int count, long id, boolean active, Double score,",
+                        "    List<String> tags, Map<String, Integer> counts, Status status, " + previous + " previous) {}"));
+            }
+        }
+        return sources;
+    }
+}
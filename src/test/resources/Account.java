@@ -0,0 +1,15 @@
+package net.kilink.jackson;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.OptionalInt;
+import java.util.UUID;
+
+@AutoSerde
+public record Account(UUID id, BigDecimal balance, Optional<String> nickname, OptionalInt age,
+                      @JsonInclude(JsonInclude.Include.NON_ABSENT) Optional<String> closed,
+                      BigInteger points, OptionalDouble rate) {}
@@ -0,0 +1,16 @@
+package net.kilink.jackson;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+
+@AutoSerde
+public record Appointment(Instant created, LocalDate day, OffsetDateTime start, Duration length,
+                          @JsonFormat(shape = JsonFormat.Shape.NUMBER) Instant updated,
+                          @JsonFormat(pattern = "dd.MM.yyyy") LocalDate reminder,
+                          @JsonFormat(shape = JsonFormat.Shape.NUMBER_INT) LocalDate due,
+                          @JsonFormat(shape = JsonFormat.Shape.STRING) Instant confirmed,
+                          @JsonFormat(pattern = "yyyy-MM-dd HH:mmXXX") OffsetDateTime end) {}
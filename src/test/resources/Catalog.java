@@ -0,0 +1,11 @@
+package net.kilink.jackson;
+
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+@AutoSerde
+public record Catalog(char grade, Character mark, long[] counts, String[] labels, Set<Integer> codes,
+                      LinkedList<Double> series, Map<Integer, String> byId, Map<UUID, Long> byUuid,
+                      Map<Character, Boolean> flags, Map<Boolean, String> answers) {}
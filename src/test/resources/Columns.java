@@ -0,0 +1,111 @@
+package net.kilink.jackson;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonPOJOBuilder;
+
+public final class Columns {
+
+    private Columns() {}
+
+    @AutoSerde
+    @JsonFormat(shape = JsonFormat.Shape.ARRAY)
+    public static class Setters {
+        private String name;
+        private long size;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public void setSize(long size) {
+            this.size = size;
+        }
+    }
+
+    @AutoSerde
+    @JsonFormat(shape = JsonFormat.Shape.ARRAY)
+    public static class Mixed {
+        private final String id;
+        private final int rank;
+        private String note;
+
+        @JsonCreator
+        public Mixed(@JsonProperty("id") String id, @JsonProperty("rank") int rank) {
+            this.id = id;
+            this.rank = rank;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public int getRank() {
+            return rank;
+        }
+
+        public String getNote() {
+            return note;
+        }
+
+        public void setNote(String note) {
+            this.note = note;
+        }
+
+        public String getLabel() {
+            return id + "#" + rank;
+        }
+    }
+
+    @AutoSerde
+    @JsonFormat(shape = JsonFormat.Shape.ARRAY)
+    @JsonDeserialize(builder = Built.Builder.class)
+    public static final class Built {
+        private final String key;
+        private final int value;
+
+        private Built(Builder builder) {
+            this.key = builder.key;
+            this.value = builder.value;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public int getValue() {
+            return value;
+        }
+
+        @JsonPOJOBuilder(withPrefix = "")
+        @JsonFormat(shape = JsonFormat.Shape.ARRAY)
+        public static final class Builder {
+            private String key;
+            private int value;
+
+            public Builder key(String key) {
+                this.key = key;
+                return this;
+            }
+
+            public Builder value(int value) {
+                this.value = value;
+                return this;
+            }
+
+            public Built build() {
+                return new Built(this);
+            }
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package net.kilink.jackson;
+
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+
+@AutoSerde
+@JsonTypeInfo(use = JsonTypeInfo.Id.NAME, property = "type", visible = true)
+@JsonSubTypes({
+        @JsonSubTypes.Type(value = Event.Created.class, name = "created"),
+        @JsonSubTypes.Type(value = Event.Renamed.class, names = {"renamed", "moved"})
+})
+public sealed interface Event permits Event.Created, Event.Renamed {
+
+    @AutoSerde
+    record Created(String id, long at) implements Event {}
+
+    @AutoSerde
+    record Renamed(String type, String id, String name) implements Event {}
+}
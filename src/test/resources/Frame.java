@@ -0,0 +1,5 @@
+package net.kilink.jackson;
+
+@AutoSerde
+public record Frame(byte[] payload, int[] samples, long[] stamps, double[] levels, boolean[] bits, char[] code,
+                    Byte[] boxed, String[] names) {}
@@ -0,0 +1,26 @@
+package net.kilink.jackson;
+
+@AutoSerde(byteReader = true)
+public class Gauge {
+    private String name;
+    private int level;
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    public void setLevel(int level) {
+        if (level < 0) {
+            throw new IllegalArgumentException("negative level " + level);
+        }
+        this.level = level;
+    }
+}
@@ -0,0 +1,4 @@
+package net.kilink.jackson;
+
+@AutoSerde
+public record Line(Point from, Point to) {}
@@ -0,0 +1,38 @@
+package net.kilink.jackson;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+@AutoSerde
+public final class Money {
+    private final String currency;
+    private final long cents;
+    private String note;
+
+    private Money(String currency, long cents) {
+        this.currency = currency;
+        this.cents = cents;
+    }
+
+    @JsonCreator
+    public static Money of(@JsonProperty("currency") String currency, @JsonProperty("amount") long cents) {
+        return new Money(currency, cents);
+    }
+
+    public String getNote() {
+        return note;
+    }
+
+    public void setNote(String note) {
+        this.note = note;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    @JsonProperty("amount")
+    public long getCents() {
+        return cents;
+    }
+}
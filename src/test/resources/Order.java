@@ -0,0 +1,58 @@
+package net.kilink.jackson;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonPOJOBuilder;
+
+import java.util.List;
+
+@AutoSerde
+@JsonDeserialize(builder = Order.Builder.class)
+public final class Order {
+    private final String id;
+    private final int quantity;
+    private final List<String> items;
+
+    private Order(Builder builder) {
+        this.id = builder.id;
+        this.quantity = builder.quantity;
+        this.items = builder.items;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public List<String> getItems() {
+        return items;
+    }
+
+    @JsonPOJOBuilder(withPrefix = "")
+    public static final class Builder {
+        private String id;
+        private int quantity;
+        private List<String> items;
+
+        public Builder id(String id) {
+            this.id = id;
+            return this;
+        }
+
+        public Builder quantity(int quantity) {
+            this.quantity = quantity;
+            return this;
+        }
+
+        public Builder items(List<String> items) {
+            this.items = items;
+            return this;
+        }
+
+        public Order build() {
+            return new Order(this);
+        }
+    }
+}
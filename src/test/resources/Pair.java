@@ -0,0 +1,11 @@
+package net.kilink.jackson;
+
+import com.fasterxml.jackson.annotation.JsonAlias;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * "Aa" and "BB" share a hashCode, as do "AaBB" and "BBAa".
+ */
+@AutoSerde
+public record Pair(@JsonProperty("Aa") String first, @JsonProperty("BB") String second,
+                   @JsonProperty("AaBB") @JsonAlias("BBAa") int both) {}
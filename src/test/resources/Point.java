@@ -0,0 +1,6 @@
+package net.kilink.jackson;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+@AutoSerde
+public record Point(int x, @JsonProperty("why") long y, String label) {}
@@ -0,0 +1,7 @@
+package net.kilink.jackson;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+@AutoSerde
+@JsonFormat(shape = JsonFormat.Shape.ARRAY)
+public record Quote(String symbol, long time, double bid, double ask) {}
@@ -0,0 +1,35 @@
+package net.kilink.jackson;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+@AutoSerde
+public class Ranking {
+    private String z;
+    private int y;
+    private long x;
+
+    public void setX(long x) {
+        this.x = x;
+    }
+
+    public void setY(int y) {
+        this.y = y;
+    }
+
+    public void setZ(String z) {
+        this.z = z;
+    }
+
+    @JsonProperty("renamed")
+    public long getX() {
+        return x;
+    }
+
+    public int getY() {
+        return y;
+    }
+
+    public String getZ() {
+        return z;
+    }
+}
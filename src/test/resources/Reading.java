@@ -0,0 +1,4 @@
+package net.kilink.jackson;
+
+@AutoSerde(byteReader = true)
+public record Reading(String sensor, long timestamp, double value, Boolean valid) {}
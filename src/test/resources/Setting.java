@@ -0,0 +1,13 @@
+package net.kilink.jackson;
+
+import com.fasterxml.jackson.annotation.JsonEnumDefaultValue;
+
+@AutoSerde
+public record Setting(String name, Setting.Mode mode) {
+
+    public enum Mode {
+        STEADY,
+        BLINKING,
+        @JsonEnumDefaultValue UNKNOWN
+    }
+}
@@ -0,0 +1,18 @@
+package net.kilink.jackson;
+
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.annotation.JsonTypeName;
+
+@AutoSerde
+@JsonTypeInfo(use = JsonTypeInfo.Id.NAME, property = "kind")
+@JsonSubTypes(@JsonSubTypes.Type(value = Shape.Circle.class, name = "circle"))
+public sealed interface Shape permits Shape.Circle, Shape.Square {
+
+    @AutoSerde
+    record Circle(double radius) implements Shape {}
+
+    @AutoSerde
+    @JsonTypeName("square")
+    record Square(double side) implements Shape {}
+}
@@ -0,0 +1,14 @@
+package net.kilink.jackson;
+
+import com.fasterxml.jackson.annotation.JsonAlias;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+@AutoSerde
+public record Signal(Signal.Light light) {
+
+    public enum Light {
+        @JsonProperty("red") RED,
+        @JsonAlias("amber") YELLOW,
+        GREEN
+    }
+}
@@ -0,0 +1,36 @@
+package net.kilink.jackson;
+
+@AutoSerde
+public class Switch {
+    private String name;
+    private boolean on;
+    private Boolean dimmed;
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public boolean isOn() {
+        return on;
+    }
+
+    public void setOn(boolean on) {
+        this.on = on;
+    }
+
+    public Boolean isDimmed() {
+        return dimmed;
+    }
+
+    public void setDimmed(Boolean dimmed) {
+        this.dimmed = dimmed;
+    }
+
+    public String isWired() {
+        return "yes";
+    }
+}
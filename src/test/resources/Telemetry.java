@@ -0,0 +1,7 @@
+package net.kilink.jackson;
+
+import java.util.List;
+import java.util.Map;
+
+@AutoSerde
+public record Telemetry(String name, List<String> tags, int[] samples, Map<String, Double> gauges) {}